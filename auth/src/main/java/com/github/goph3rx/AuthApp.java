@@ -41,8 +41,27 @@ public class AuthApp {
     component.injectServer(server);
 
     // Start background tasks
+    component.accounts().start();
     component.transfers().start();
     component.worlds().start();
+    try {
+      component.metrics().start();
+    } catch (IOException e) {
+      logger.error("Failed to start metrics server", e);
+    }
+
+    // Let the clients finish and write out pending changes on exit
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  server.stop();
+                  component.transfers().stop();
+                  component.worlds().stop();
+                  component.accounts().stop();
+                  component.metrics().stop();
+                },
+                "auth-shutdown"));
 
     // Start the server
     try {
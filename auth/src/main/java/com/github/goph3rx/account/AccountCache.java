@@ -0,0 +1,172 @@
+package com.github.goph3rx.account;
+
+import com.github.goph3rx.metrics.Counter;
+import com.github.goph3rx.metrics.Metrics;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Bounded cache of account records, including the usernames that do not exist. Entries expire after
+ * a fixed time and the oldest ones are evicted once the cache is full.
+ */
+@Singleton
+public class AccountCache {
+  /** Name of the metric with the number of lookups. */
+  private static final String REQUESTS = "account_cache_requests_total";
+  /** Name of the metric with the number of evictions. */
+  private static final String EVICTIONS = "account_cache_evictions_total";
+  /** Lookups that found an account. */
+  private static final Counter hits =
+      Metrics.counter(REQUESTS, "Account cache lookups by result", "result", "hit");
+  /** Lookups that found a username that does not exist. */
+  private static final Counter negativeHits =
+      Metrics.counter(REQUESTS, "Account cache lookups by result", "result", "negative_hit");
+  /** Lookups that had to go to the database. */
+  private static final Counter misses =
+      Metrics.counter(REQUESTS, "Account cache lookups by result", "result", "miss");
+  /** Entries removed because they were too old. */
+  private static final Counter expired =
+      Metrics.counter(EVICTIONS, "Account cache evictions by reason", "reason", "expired");
+  /** Entries removed because the cache was full. */
+  private static final Counter evicted =
+      Metrics.counter(EVICTIONS, "Account cache evictions by reason", "reason", "size");
+  /** Number of invalidation counters, must be a power of two. */
+  private static final int STRIPES = 64;
+
+  /** Maximum number of entries, 0 to disable the cache. */
+  private final int maximumSize;
+  /** How long to keep existing accounts in nanoseconds. */
+  private final long ttlNanos;
+  /** How long to keep missing accounts in nanoseconds. */
+  private final long negativeTtlNanos;
+  /** Entries by username. */
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  /** Entries in order of insertion, may contain entries that were removed already. */
+  private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+  /** Number of invalidations, by hash of the username. */
+  private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+  /**
+   * Create a new cache.
+   *
+   * @param maximumSize Maximum number of entries, 0 to disable the cache.
+   * @param ttlSeconds How long to keep existing accounts.
+   * @param negativeTtlSeconds How long to keep missing accounts.
+   */
+  @Inject
+  public AccountCache(
+      @Named("account.cacheSize") int maximumSize,
+      @Named("account.cacheTtlSeconds") int ttlSeconds,
+      @Named("account.cacheNegativeTtlSeconds") int negativeTtlSeconds) {
+    this.maximumSize = maximumSize;
+    this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+    Metrics.gauge("account_cache_entries", "Entries in the account cache", () -> entries.size());
+  }
+
+  /**
+   * Get the account, loading it if it is not cached.
+   *
+   * @param username Account username.
+   * @param loader Loads the account if it is not cached.
+   * @return Account, if it exists.
+   */
+  public Optional<Account> get(String username, Function<String, Optional<Account>> loader) {
+    if (maximumSize == 0) {
+      return loader.apply(username);
+    }
+
+    // Check the cache
+    var now = System.nanoTime();
+    var entry = entries.get(username);
+    if (entry != null) {
+      if (now - entry.expiresAt < 0) {
+        (entry.account.isPresent() ? hits : negativeHits).inc();
+        return entry.account;
+      }
+      if (entries.remove(username, entry)) {
+        expired.inc();
+      }
+    }
+
+    // Load and remember the result
+    misses.inc();
+    var stripe = stripe(username);
+    var generation = invalidations.get(stripe);
+    var account = loader.apply(username);
+    var ttl = account.isPresent() ? ttlNanos : negativeTtlNanos;
+    if (ttl > 0) {
+      var created = new Entry(username, account, System.nanoTime() + ttl);
+      entries.put(username, created);
+      if (invalidations.get(stripe) != generation) {
+        // Invalidated whilst loading, the result might be out of date
+        entries.remove(username, created);
+        return account;
+      }
+      order.add(created);
+      trim(now);
+    }
+    return account;
+  }
+
+  /**
+   * Forget the cached account, so that the next lookup goes to the database.
+   *
+   * @param username Account username.
+   */
+  public void invalidate(String username) {
+    invalidations.incrementAndGet(stripe(username));
+    entries.remove(username);
+  }
+
+  /**
+   * Get the invalidation counter for the username.
+   *
+   * @param username Account username.
+   * @return Index of the counter.
+   */
+  private static int stripe(String username) {
+    return username.hashCode() & (STRIPES - 1);
+  }
+
+  /** Get the number of cached entries. */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Remove the entries that are no longer needed from the front of the queue and evict the oldest
+   * ones if the cache is over the limit.
+   *
+   * @param now Current time in nanoseconds.
+   */
+  private void trim(long now) {
+    Entry head;
+    while ((head = order.peek()) != null) {
+      var current = entries.get(head.username) == head;
+      if (current && now - head.expiresAt < 0 && entries.size() <= maximumSize) {
+        return;
+      }
+      if (!order.remove(head) || !current || !entries.remove(head.username, head)) {
+        continue;
+      }
+      (now - head.expiresAt < 0 ? evicted : expired).inc();
+    }
+  }
+
+  /**
+   * Cached lookup result.
+   *
+   * @param username Account username.
+   * @param account Account, if it exists.
+   * @param expiresAt Time when the entry expires in nanoseconds.
+   */
+  private record Entry(String username, Optional<Account> account, long expiresAt) {}
+}
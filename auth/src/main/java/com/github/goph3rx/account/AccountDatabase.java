@@ -1,7 +1,10 @@
 package com.github.goph3rx.account;
 
+import com.github.goph3rx.metrics.Metrics;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -36,14 +39,17 @@ public class AccountDatabase implements IAccountDatabase {
   public Optional<Account> fetch(String username) {
     logger.debug("Fetching account with username='{}'", username);
     var account =
-        db.withHandle(
-            handle ->
-                handle
-                    .createQuery(
-                        "SELECT username, salt, password, last_world, banned_until FROM accounts WHERE username = ? LIMIT 1")
-                    .bind(0, username)
-                    .mapTo(Account.class)
-                    .findOne());
+        Metrics.database("accounts", "fetch")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "SELECT username, salt, password, last_world, banned_until FROM accounts WHERE username = ? LIMIT 1")
+                                .bind(0, username)
+                                .mapTo(Account.class)
+                                .findOne()));
     logger.debug("Account is {}", account);
     return account;
   }
@@ -51,13 +57,42 @@ public class AccountDatabase implements IAccountDatabase {
   @Override
   public void setLastWorld(String username, int lastWorld) {
     logger.debug("Setting last world username='{}' lastWorld={}", username, lastWorld);
-    db.useHandle(
-        handle ->
-            handle
-                .createUpdate("UPDATE accounts SET last_world = ? WHERE username = ?")
-                .bind(0, lastWorld)
-                .bind(1, username)
-                .execute());
+    Metrics.database("accounts", "setLastWorld")
+        .time(
+            () ->
+                db.useHandle(
+                    handle ->
+                        handle
+                            .createUpdate("UPDATE accounts SET last_world = ? WHERE username = ?")
+                            .bind(0, lastWorld)
+                            .bind(1, username)
+                            .execute()));
+    logger.debug("Success");
+  }
+
+  @Override
+  public void setLastWorlds(Map<String, Integer> lastWorlds) {
+    logger.debug("Setting last world for {} account(s)", lastWorlds.size());
+    if (lastWorlds.isEmpty()) {
+      return;
+    }
+    var values = String.join(", ", Collections.nCopies(lastWorlds.size(), "(?, ?)"));
+    var sql =
+        "UPDATE accounts SET last_world = v.last_world FROM (VALUES %s) AS v (username, last_world) WHERE accounts.username = v.username"
+            .formatted(values);
+    Metrics.database("accounts", "setLastWorlds")
+        .time(
+            () ->
+                db.useHandle(
+                    handle -> {
+                      var update = handle.createUpdate(sql);
+                      var position = 0;
+                      for (var entry : lastWorlds.entrySet()) {
+                        update.bind(position++, entry.getKey());
+                        update.bind(position++, (int) entry.getValue());
+                      }
+                      update.execute();
+                    }));
     logger.debug("Success");
   }
 }
@@ -17,6 +17,36 @@ public interface AccountModule {
   @Singleton
   IAccountService bindService(AccountService impl);
 
+  @Provides
+  @Named("account.cacheSize")
+  static int provideCacheSize() {
+    return Integer.parseInt(System.getProperty("account.cacheSize", "10000"));
+  }
+
+  @Provides
+  @Named("account.cacheTtlSeconds")
+  static int provideCacheTtl() {
+    return Integer.parseInt(System.getProperty("account.cacheTtlSeconds", "60"));
+  }
+
+  @Provides
+  @Named("account.cacheNegativeTtlSeconds")
+  static int provideCacheNegativeTtl() {
+    return Integer.parseInt(System.getProperty("account.cacheNegativeTtlSeconds", "10"));
+  }
+
+  @Provides
+  @Named("account.lastWorldFlushMillis")
+  static int provideLastWorldFlush() {
+    return Integer.parseInt(System.getProperty("account.lastWorldFlushMillis", "1000"));
+  }
+
+  @Provides
+  @Named("account.lastWorldBatchSize")
+  static int provideLastWorldBatchSize() {
+    return Integer.parseInt(System.getProperty("account.lastWorldBatchSize", "500"));
+  }
+
   @Provides
   @Named("account.db")
   static String provideJdbcUrl() {
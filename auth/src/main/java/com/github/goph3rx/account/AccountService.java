@@ -2,9 +2,19 @@ package com.github.goph3rx.account;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.inject.Inject;
+import javax.inject.Named;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,9 +24,31 @@ public class AccountService implements IAccountService {
   private static final Logger logger = LoggerFactory.getLogger(AccountService.class);
   /** Name of the hashing algorithm in use. */
   private static final String ALGORITHM = "SHA-256";
+  /** Executor for scheduled tasks originating from this class. */
+  private static final ScheduledExecutorService executor =
+      Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
 
   /** Adapter for the database. */
   @Inject public IAccountDatabase database;
+  /** Cache in front of the database. */
+  @Inject public AccountCache cache;
+  /** How often to write out the last worlds in milliseconds, 0 to write them straight away. */
+  @Named("account.lastWorldFlushMillis")
+  @Inject
+  public int flushMillis;
+  /** Number of pending last worlds that triggers a write and maximum size of a single write. */
+  @Named("account.lastWorldBatchSize")
+  @Inject
+  public int batchSize;
+
+  /** Last worlds that have not been written yet, by username. */
+  private final ConcurrentHashMap<String, Integer> lastWorlds = new ConcurrentHashMap<>();
+  /** Flag to indicate that a write has been requested. */
+  private final AtomicBoolean flushQueued = new AtomicBoolean();
+  /** Lock that allows only one write at a time. */
+  private final ReentrantLock flushLock = new ReentrantLock();
+  /** Background task, if started. */
+  private ScheduledFuture<?> task;
 
   /** Create a new service. */
   @Inject
@@ -29,7 +61,7 @@ public class AccountService implements IAccountService {
     logger.debug("Finding account with username='{}'", username);
 
     // Load the record
-    var result = database.fetch(username);
+    var result = cache.get(username, database::fetch);
     if (result.isEmpty()) {
       logger.warn("Account with username='{}' not found", username);
       return Optional.empty();
@@ -45,6 +77,19 @@ public class AccountService implements IAccountService {
       return Optional.empty();
     }
 
+    // Last world might not have been written yet
+    var lastWorld = lastWorlds.get(username);
+    if (lastWorld != null && lastWorld != account.lastWorld()) {
+      account =
+          new Account(
+              account.username(),
+              account.salt(),
+              account.password(),
+              lastWorld,
+              account.bannedUntil());
+      result = Optional.of(account);
+    }
+
     // Return result
     logger.debug("Account is {}", account);
     return result;
@@ -53,7 +98,91 @@ public class AccountService implements IAccountService {
   @Override
   public void setLastWorld(String username, int lastWorld) {
     logger.debug("Setting last world username='{}' lastWorld={}", username, lastWorld);
-    database.setLastWorld(username, lastWorld);
+    if (flushMillis == 0) {
+      database.setLastWorld(username, lastWorld);
+      cache.invalidate(username);
+      logger.debug("Success");
+      return;
+    }
+
+    // Only the latest value is kept until the next write
+    lastWorlds.put(username, lastWorld);
+    if (lastWorlds.size() >= batchSize && flushQueued.compareAndSet(false, true)) {
+      executor.execute(this::flushInBackground);
+    }
+    logger.debug("Queued");
+  }
+
+  @Override
+  public void start() {
+    if (flushMillis == 0) {
+      return;
+    }
+    task =
+        executor.scheduleWithFixedDelay(
+            this::flushInBackground, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (task != null) {
+      task.cancel(false);
+      task = null;
+    }
+    // Waits for a write that is already running
+    logger.debug("Writing pending last worlds");
+    flush();
+    logger.debug("Success");
+  }
+
+  /**
+   * Write the pending last worlds to the database in batches. Only the accounts pending at the
+   * start are written, values that change whilst being written are kept for the next write. Waits
+   * for a write that is already running.
+   */
+  public void flush() {
+    flushLock.lock();
+    try {
+      var pending = new ArrayList<>(lastWorlds.keySet());
+      for (var from = 0; from < pending.size(); from += batchSize) {
+        var batch = new HashMap<String, Integer>();
+        for (var username : pending.subList(from, Math.min(from + batchSize, pending.size()))) {
+          var lastWorld = lastWorlds.get(username);
+          if (lastWorld != null) {
+            batch.put(username, lastWorld);
+          }
+        }
+        if (batch.isEmpty()) {
+          continue;
+        }
+        database.setLastWorlds(batch);
+        batch.forEach(
+            (username, lastWorld) -> {
+              // Drop the cached account first, so find cannot return it without the value
+              cache.invalidate(username);
+              lastWorlds.remove(username, lastWorld);
+            });
+        logger.debug("Wrote {} last world(s)", batch.size());
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /** Write the pending last worlds, keeping them for the next attempt on failure. */
+  private void flushInBackground() {
+    flushQueued.set(false);
+    try {
+      flush();
+    } catch (Exception e) {
+      logger.warn("Failed to write the last worlds", e);
+    }
+  }
+
+  @Override
+  public void invalidate(String username) {
+    logger.debug("Invalidating account username='{}'", username);
+    cache.invalidate(username);
     logger.debug("Success");
   }
 
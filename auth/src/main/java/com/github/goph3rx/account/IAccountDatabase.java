@@ -1,5 +1,6 @@
 package com.github.goph3rx.account;
 
+import java.util.Map;
 import java.util.Optional;
 
 /** Adapter for the database that holds account information. */
@@ -19,4 +20,11 @@ public interface IAccountDatabase {
    * @param lastWorld Last world.
    */
   void setLastWorld(String username, int lastWorld);
+
+  /**
+   * Update the last world entered for multiple accounts at once.
+   *
+   * @param lastWorlds Last world, by account username.
+   */
+  void setLastWorlds(Map<String, Integer> lastWorlds);
 }
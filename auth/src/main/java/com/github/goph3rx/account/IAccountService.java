@@ -14,10 +14,25 @@ public interface IAccountService {
   Optional<Account> find(String username, String password);
 
   /**
-   * Update the last world entered.
+   * Update the last world entered. The change might be written to the database later, but is
+   * visible to this service straight away.
    *
    * @param username Account username.
    * @param lastWorld Last world.
    */
   void setLastWorld(String username, int lastWorld);
+
+  /**
+   * Forget any cached information about the account. Must be called after changing the account
+   * outside of this service, e.g. when banning it.
+   *
+   * @param username Account username.
+   */
+  void invalidate(String username);
+
+  /** Start the background tasks for this service. */
+  void start();
+
+  /** Stop the background tasks and write out the pending changes. */
+  void stop();
 }
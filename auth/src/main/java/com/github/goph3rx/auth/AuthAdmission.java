@@ -0,0 +1,175 @@
+package com.github.goph3rx.auth;
+
+import com.github.goph3rx.metrics.Counter;
+import com.github.goph3rx.metrics.Metrics;
+import java.net.InetAddress;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission control for new connections, applied before any work is done for them. Every remote
+ * address gets a token bucket for the rate of new connections, and the number of connections that
+ * have not authenticated yet is limited for the whole server.
+ *
+ * <p>Buckets are kept as the time at which they would be full again, so that taking a token is a
+ * single compare-and-set.
+ */
+@Singleton
+public class AuthAdmission {
+  /** Name of the metric with the number of rejected connections. */
+  private static final String REJECTED = "auth_connections_rejected_total";
+  /** How many admissions happen between removing the buckets that are full again. */
+  private static final int SWEEP_INTERVAL = 1024;
+  /** Logger for this class. */
+  private static final Logger logger = LoggerFactory.getLogger(AuthAdmission.class);
+  /** Connections rejected because the address connected too often. */
+  private static final Counter rateRejected =
+      Metrics.counter(REJECTED, "Connections rejected by reason", "reason", "rate");
+  /** Connections rejected because too many handshakes were in progress. */
+  private static final Counter handshakesRejected =
+      Metrics.counter(REJECTED, "Connections rejected by reason", "reason", "handshakes");
+
+  /** Time between tokens for a single address in nanoseconds, 0 to disable the rate limit. */
+  private final long intervalNanos;
+  /** How far ahead of the current time a bucket may get before it is empty in nanoseconds. */
+  private final long toleranceNanos;
+  /** Maximum number of concurrent handshakes, 0 to disable the limit. */
+  private final int maximumHandshakes;
+  /** Time at which the bucket is full again, by remote address. */
+  private final ConcurrentHashMap<InetAddress, AtomicLong> buckets = new ConcurrentHashMap<>();
+  /** Number of handshakes in progress. */
+  private final AtomicInteger handshakes = new AtomicInteger();
+  /** Number of admissions since the last sweep. */
+  private final AtomicInteger admissions = new AtomicInteger();
+
+  /**
+   * Create a new admission control.
+   *
+   * @param rate Connections allowed per second from a single address, 0 to disable the limit.
+   * @param burst Connections allowed at once from a single address.
+   * @param maximumHandshakes Maximum number of concurrent handshakes, 0 to disable the limit.
+   */
+  @Inject
+  public AuthAdmission(
+      @Named("auth.connectionRate") int rate,
+      @Named("auth.connectionBurst") int burst,
+      @Named("auth.maxHandshakes") int maximumHandshakes) {
+    this.intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+    this.toleranceNanos = intervalNanos * Math.max(burst - 1, 0);
+    this.maximumHandshakes = maximumHandshakes;
+    Metrics.gauge(
+        "auth_handshakes_active", "Connections that have not authenticated yet", handshakes::get);
+    Metrics.gauge(
+        "auth_admission_addresses", "Addresses tracked for the connection rate", buckets::size);
+  }
+
+  /**
+   * Decide whether the new connection should be served.
+   *
+   * @param address Remote address of the connection.
+   * @return Handshake to finish once the client authenticates, or empty if rejected.
+   */
+  public Optional<Handshake> admit(InetAddress address) {
+    return admit(address, System.nanoTime());
+  }
+
+  /**
+   * Decide whether the new connection should be served.
+   *
+   * @param address Remote address of the connection.
+   * @param now Current time in nanoseconds.
+   * @return Handshake to finish once the client authenticates, or empty if rejected.
+   */
+  Optional<Handshake> admit(InetAddress address, long now) {
+    if ((admissions.incrementAndGet() & (SWEEP_INTERVAL - 1)) == 0) {
+      sweep(now);
+    }
+
+    // Rate for the address
+    if (!takeToken(address, now)) {
+      logger.debug("Rejecting connection from {}, connecting too often", address);
+      rateRejected.inc();
+      return Optional.empty();
+    }
+
+    // Handshakes in progress
+    while (true) {
+      var current = handshakes.get();
+      if (maximumHandshakes > 0 && current >= maximumHandshakes) {
+        logger.debug("Rejecting connection from {}, too many handshakes", address);
+        handshakesRejected.inc();
+        return Optional.empty();
+      }
+      if (handshakes.compareAndSet(current, current + 1)) {
+        return Optional.of(new Handshake());
+      }
+    }
+  }
+
+  /** Get the number of handshakes in progress. */
+  public int getHandshakeCount() {
+    return handshakes.get();
+  }
+
+  /**
+   * Take a token from the bucket of the address.
+   *
+   * @param address Remote address.
+   * @param now Current time in nanoseconds.
+   * @return Whether the token was available.
+   */
+  private boolean takeToken(InetAddress address, long now) {
+    if (intervalNanos == 0) {
+      return true;
+    }
+    var bucket = buckets.get(address);
+    if (bucket == null) {
+      var created = new AtomicLong(now);
+      bucket = buckets.putIfAbsent(address, created);
+      if (bucket == null) {
+        bucket = created;
+      }
+    }
+    while (true) {
+      var full = bucket.get();
+      var start = Math.max(full, now);
+      if (start - now > toleranceNanos) {
+        return false;
+      }
+      if (bucket.compareAndSet(full, start + intervalNanos)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Forget the buckets that are full again, they behave the same as new ones.
+   *
+   * @param now Current time in nanoseconds.
+   */
+  private void sweep(long now) {
+    buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+  }
+
+  /** Handshake of an admitted connection, it takes up a slot until finished. */
+  public class Handshake {
+    /** Flag to indicate that the handshake was finished. */
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    /** Free up the slot taken by the handshake, only the first call has any effect. */
+    public void finish() {
+      if (finished.compareAndSet(false, true)) {
+        handshakes.decrementAndGet();
+      }
+    }
+  }
+}
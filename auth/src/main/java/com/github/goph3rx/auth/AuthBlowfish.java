@@ -16,8 +16,7 @@ public class AuthBlowfish implements IAuthCrypt {
   /** Name of the encryption algorithm in use. */
   private static final String ALGORITHM = "Blowfish/ECB/NoPadding";
   /** Initial key for encryption. */
-  private static final byte[] INIT_KEY =
-      HexFormat.of().parseHex("6b60cb5b82ce90b1cc2b6c556c6c6c6c");
+  static final byte[] INIT_KEY = HexFormat.of().parseHex("6b60cb5b82ce90b1cc2b6c556c6c6c6c");
 
   /** Encryption. */
   private final Cipher encrypt;
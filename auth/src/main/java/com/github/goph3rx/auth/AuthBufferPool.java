@@ -0,0 +1,65 @@
+package com.github.goph3rx.auth;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of zero-filled buffers that connections lease for the duration of a single send or receive,
+ * so that idle connections do not hold on to any.
+ */
+public class AuthBufferPool {
+  /** Size of every buffer. */
+  private final int bufferSize;
+  /** Maximum number of buffers kept in the pool. */
+  private final int maximumPooled;
+  /** Buffers available for leasing. */
+  private final ConcurrentLinkedQueue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+  /** Number of buffers available for leasing. */
+  private final AtomicInteger pooled = new AtomicInteger();
+
+  /**
+   * Create a new pool.
+   *
+   * @param bufferSize Size of every buffer.
+   * @param maximumPooled Maximum number of buffers kept in the pool.
+   */
+  public AuthBufferPool(int bufferSize, int maximumPooled) {
+    this.bufferSize = bufferSize;
+    this.maximumPooled = maximumPooled;
+  }
+
+  /**
+   * Lease a buffer filled with zeroes, allocating a new one if the pool is empty.
+   *
+   * @return Buffer.
+   */
+  public byte[] lease() {
+    var buffer = buffers.poll();
+    if (buffer == null) {
+      return new byte[bufferSize];
+    }
+    pooled.decrementAndGet();
+    return buffer;
+  }
+
+  /**
+   * Return the buffer to the pool.
+   *
+   * @param buffer Buffer obtained from {@link #lease()}.
+   * @param used Length of the region that might have been written to, it is cleared.
+   */
+  public void release(byte[] buffer, int used) {
+    Arrays.fill(buffer, 0, Math.min(used, buffer.length), (byte) 0);
+    if (pooled.incrementAndGet() > maximumPooled) {
+      pooled.decrementAndGet();
+      return;
+    }
+    buffers.offer(buffer);
+  }
+
+  /** Get the number of buffers available for leasing. */
+  public int size() {
+    return pooled.get();
+  }
+}
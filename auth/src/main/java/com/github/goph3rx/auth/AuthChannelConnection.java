@@ -0,0 +1,369 @@
+package com.github.goph3rx.auth;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Connection to the auth server that is served by an event loop. Packets are framed, decrypted and
+ * decoded on the loop thread, while the messages are handled by the client on the executor one at a
+ * time and in order of arrival. Messages sent whilst another thread is writing are queued and
+ * written by that thread with a single gathering write.
+ */
+public class AuthChannelConnection implements IAuthConnection {
+  /** Size of the IO buffers for the client. */
+  private static final int BUFFER_SIZE = 1024;
+  /** Size of the packet header. */
+  private static final int HEADER_SIZE = AuthPacketProcessor.HEADER_SIZE;
+  /** Maximum number of packets passed to a single gathering write. */
+  private static final int MAX_GATHER = 16;
+  /** Maximum number of idle buffers kept for reuse. */
+  private static final int POOLED_BUFFERS = 1024;
+  /** Logger for this class. */
+  private static final Logger logger = LoggerFactory.getLogger(AuthChannelConnection.class);
+  /** Buffers shared by all connections, large enough for a whole packet with its header. */
+  private static final AuthBufferPool buffers =
+      new AuthBufferPool(BUFFER_SIZE + HEADER_SIZE, POOLED_BUFFERS);
+
+  /** Channel for communicating with the client. */
+  private final SocketChannel channel;
+  /** Remote address of the client. */
+  private final SocketAddress remoteAddress;
+  /** Messages waiting to be sent to the client. */
+  private final ConcurrentLinkedQueue<Object> pending = new ConcurrentLinkedQueue<>();
+  /** Data that could not be written straight away. */
+  private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+  /** Buffers leased for the packets being written, only used whilst holding the send lock. */
+  private final byte[][] leased = new byte[MAX_GATHER][];
+  /** Packets being written, only used whilst holding the send lock. */
+  private final ByteBuffer[] packets = new ByteBuffer[MAX_GATHER];
+  /** Framing, checksums and encryption. */
+  private final AuthPacketProcessor processor;
+  /** Loop that serves this connection. */
+  private final AuthEventLoop loop;
+  /** Executor for handling the messages. */
+  private final Executor executor;
+  /** Tasks waiting to be executed for the client. */
+  private final ConcurrentLinkedQueue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+  /** Flag to indicate that the inbox is being processed. */
+  private final AtomicBoolean draining = new AtomicBoolean();
+  /** Flag to indicate that the client was disconnected. */
+  private final AtomicBoolean disconnected = new AtomicBoolean();
+  /** Lock for synchronizing sending of messages to the client. */
+  private final ReentrantLock sendLock = new ReentrantLock();
+  /** Bytes sent and received. */
+  private final AuthTraffic traffic = new AuthTraffic();
+  /** Client that handles the messages. */
+  private AuthClient client;
+  /** Registration with the selector. */
+  private SelectionKey key;
+  /** Data received but not yet framed, leased only whilst part of a packet is pending. */
+  private ByteBuffer inbound;
+  /** Length of the region of the inbound buffer that has been written to. */
+  private int inboundUsed;
+
+  @Override
+  public SocketAddress getRemoteAddress() {
+    return remoteAddress;
+  }
+
+  /**
+   * Set the client that handles the messages.
+   *
+   * @param client Client.
+   */
+  public void setClient(AuthClient client) {
+    this.client = client;
+  }
+
+  /**
+   * Create a new connection.
+   *
+   * @param channel Channel for communication, in non-blocking mode.
+   * @param codec Encoding messages.
+   * @param crypt Traffic encryption.
+   * @param scrambleKey Key for encrypting the first message.
+   * @param loop Loop that serves this connection.
+   * @param executor Executor for handling the messages.
+   * @throws IOException Remote address cannot be determined.
+   */
+  public AuthChannelConnection(
+      SocketChannel channel,
+      IAuthCodec codec,
+      IAuthCrypt crypt,
+      int scrambleKey,
+      AuthEventLoop loop,
+      Executor executor)
+      throws IOException {
+    this.channel = channel;
+    this.remoteAddress = channel.getRemoteAddress();
+    this.processor = new AuthPacketProcessor(codec, crypt, scrambleKey);
+    this.loop = loop;
+    this.executor = executor;
+  }
+
+  /**
+   * Register the connection with the selector and initialize the client. Must only be called from
+   * the loop thread.
+   *
+   * @param selector Selector of the loop.
+   * @throws IOException Channel cannot be registered.
+   */
+  void register(Selector selector) throws IOException {
+    key = channel.register(selector, SelectionKey.OP_READ, this);
+    submit(client::init);
+  }
+
+  @Override
+  public void send(Object message) throws IOException {
+    pending.add(message);
+    flush();
+  }
+
+  /**
+   * Write the pending messages, unless another thread is already doing that and will pick them up.
+   * Failures are only seen by the writing thread, so they are handled here by disconnecting the
+   * client.
+   *
+   * @throws IOException Data cannot be written.
+   */
+  private void flush() throws IOException {
+    while (!pending.isEmpty() && sendLock.tryLock()) {
+      try {
+        writePending();
+      } catch (IOException | RuntimeException e) {
+        logger.warn("Failed to send, closing the connection", e);
+        pending.clear();
+        disconnect();
+        throw e;
+      } finally {
+        sendLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Pack the pending messages and write them out together, keeping whatever didn't fit for later.
+   * Must only be called whilst holding the send lock.
+   *
+   * @throws IOException Data cannot be written.
+   */
+  private void writePending() throws IOException {
+    var count = 0;
+    try {
+      Object message;
+      while (count < MAX_GATHER && (message = pending.poll()) != null) {
+        logger.debug("Sending {}", message);
+
+        // Encode the message, the buffer is counted first so that a failure still releases it
+        var write = buffers.lease();
+        leased[count++] = write;
+        packets[count - 1] = ByteBuffer.wrap(write, 0, processor.pack(message, write, 0));
+      }
+
+      // Send the packets off with a single call
+      if (outbound.isEmpty()) {
+        traffic.sent((int) channel.write(packets, 0, count));
+      }
+      for (var i = 0; i < count; i++) {
+        var packet = packets[i];
+        if (packet.hasRemaining()) {
+          outbound.add(ByteBuffer.allocate(packet.remaining()).put(packet).flip());
+        }
+      }
+      if (!outbound.isEmpty()) {
+        loop.execute(() -> key.interestOpsOr(SelectionKey.OP_WRITE));
+      }
+    } finally {
+      for (var i = 0; i < count; i++) {
+        var packet = packets[i];
+        buffers.release(leased[i], packet != null ? packet.limit() : BUFFER_SIZE + HEADER_SIZE);
+        leased[i] = null;
+        packets[i] = null;
+      }
+    }
+  }
+
+  /**
+   * Messages are delivered by the event loop, so this connection cannot be read from directly.
+   *
+   * @throws UnsupportedOperationException Always.
+   */
+  @Override
+  public Optional<Object> receive() {
+    throw new UnsupportedOperationException("Messages are delivered by the event loop");
+  }
+
+  /**
+   * Write the pending data. Must only be called from the loop thread.
+   *
+   * @throws IOException Data cannot be written.
+   */
+  void onWritable() throws IOException {
+    sendLock.lock();
+    try {
+      while (!outbound.isEmpty()) {
+        var packet = outbound.peek();
+        traffic.sent(channel.write(packet));
+        if (packet.hasRemaining()) {
+          return;
+        }
+        outbound.poll();
+      }
+      key.interestOpsAnd(~SelectionKey.OP_WRITE);
+    } finally {
+      sendLock.unlock();
+    }
+
+    // Pick up anything that was queued whilst writing
+    flush();
+  }
+
+  /**
+   * Read the available data and decode complete packets. Must only be called from the loop thread.
+   *
+   * @throws IOException Data cannot be read.
+   */
+  void onReadable() throws IOException {
+    if (inbound == null) {
+      inbound = ByteBuffer.wrap(buffers.lease()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    var count = channel.read(inbound);
+    if (count < 0) {
+      logger.debug("Reached end of stream");
+      releaseInbound();
+      disconnect();
+      return;
+    }
+    traffic.received(count);
+    inboundUsed = Math.max(inboundUsed, inbound.position());
+
+    // Extract complete packets
+    var read = buffers.lease();
+    var used = 0;
+    inbound.flip();
+    try {
+      while (inbound.remaining() >= HEADER_SIZE) {
+        var size = inbound.getShort(inbound.position()) & 0xffff;
+        var length = size - HEADER_SIZE;
+        if (length <= 0 || length > BUFFER_SIZE) {
+          throw new IOException("Invalid packet size=%d".formatted(size));
+        }
+        if (inbound.remaining() < size) {
+          break;
+        }
+        inbound.position(inbound.position() + HEADER_SIZE).get(read, 0, length);
+        used = Math.max(used, length);
+
+        // Decode the message
+        var message = processor.unpack(read, length);
+        logger.debug("Received {}", message);
+        submit(() -> client.handle(message));
+      }
+    } finally {
+      buffers.release(read, used);
+    }
+
+    // Only hold on to the buffer whilst part of a packet is pending
+    inbound.compact();
+    if (inbound.position() == 0) {
+      releaseInbound();
+    }
+  }
+
+  /** Return the inbound buffer to the pool. Must only be called from the loop thread. */
+  private void releaseInbound() {
+    buffers.release(inbound.array(), inboundUsed);
+    inbound = null;
+    inboundUsed = 0;
+  }
+
+  /**
+   * Close the connection and disconnect the client. Both the loop and a failed write can get here,
+   * but the client is only disconnected once.
+   */
+  void disconnect() {
+    close();
+    if (disconnected.compareAndSet(false, true)) {
+      submit(client::disconnect);
+    }
+  }
+
+  @Override
+  public void close() {
+    traffic.close();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.debug("Failed to close the connection", e);
+    }
+  }
+
+  /**
+   * Queue the task for the client, preserving the order of execution.
+   *
+   * @param task Task.
+   */
+  private void submit(ClientTask task) {
+    inbox.add(
+        () -> {
+          try {
+            task.run();
+          } catch (Exception e) {
+            logger.error("Unexpected error whilst processing", e);
+            client.disconnect();
+          }
+        });
+    drain();
+  }
+
+  /** Execute the queued tasks, unless that is already happening. */
+  private void drain() {
+    if (!draining.compareAndSet(false, true)) {
+      return;
+    }
+    executor.execute(
+        () -> {
+          MDC.put("remote", remoteAddress.toString());
+          MDC.put("account", client.getUsername());
+          try {
+            Runnable task;
+            while ((task = inbox.poll()) != null) {
+              task.run();
+            }
+          } finally {
+            MDC.clear();
+            draining.set(false);
+          }
+
+          // Pick up anything that was queued whilst finishing up
+          if (!inbox.isEmpty()) {
+            drain();
+          }
+        });
+  }
+
+  /** Task executed for the client. */
+  @FunctionalInterface
+  private interface ClientTask {
+    /**
+     * Run the task.
+     *
+     * @throws Exception Task failed.
+     */
+    void run() throws Exception;
+  }
+}
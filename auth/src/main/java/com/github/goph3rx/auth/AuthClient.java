@@ -3,6 +3,9 @@ package com.github.goph3rx.auth;
 import com.github.goph3rx.account.Account;
 import com.github.goph3rx.account.IAccountService;
 import com.github.goph3rx.auth.messages.*;
+import com.github.goph3rx.metrics.Metrics;
+import com.github.goph3rx.timer.Timeout;
+import com.github.goph3rx.timer.TimingWheel;
 import com.github.goph3rx.transfer.ITransferService;
 import com.github.goph3rx.transfer.Transfer;
 import com.github.goph3rx.world.IWorldService;
@@ -16,8 +19,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,14 +44,21 @@ public class AuthClient implements Runnable {
   private static final Logger logger = LoggerFactory.getLogger(AuthClient.class);
   /** Secure random number generation. */
   private static final SecureRandom random = new SecureRandom();
-  /** Executor for scheduled tasks originating from this class. */
-  private static final ScheduledExecutorService executor =
-      Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+  /** How long to wait for client to enter the world in nanoseconds. */
+  private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(IDLE_TIMEOUT_MINUTES);
+  /** Timeouts for all clients. */
+  private static final TimingWheel timers =
+      new TimingWheel(
+          "auth-timers",
+          100,
+          TimeUnit.MILLISECONDS,
+          512,
+          Executors.newVirtualThreadPerTaskExecutor());
 
   /** Connection with the client. */
   private final IAuthConnection connection;
-  /** Key for credential encryption. */
-  @Inject public IAuthCredentialKey credentialKey;
+  /** Keys for credential encryption. */
+  @Inject public IAuthCredentialKeys credentialKeys;
   /** Manager for clients connected to the server. */
   @Inject public IAuthClientManager clientManager;
   /** Service for managing accounts. */
@@ -59,9 +69,21 @@ public class AuthClient implements Runnable {
   @Inject public IWorldService worlds;
 
   /** Account for this client (if logged in). */
-  private Optional<Account> account = Optional.empty();
+  private volatile Optional<Account> account = Optional.empty();
   /** Transfer for this client (if logged in). */
   private Optional<Transfer> transfer = Optional.empty();
+  /** Credential key given to this client. */
+  private IAuthCredentialKey myCredentialKey;
+  /** Disconnects the client if it does not authenticate in time. */
+  private volatile Timeout authTimeout;
+  /** Disconnects the client if it goes quiet. */
+  private volatile Timeout idleTimeout;
+  /** Time of the last message received in nanoseconds. */
+  private volatile long lastActivity = System.nanoTime();
+  /** Flag to indicate that the client has been disconnected. */
+  private final AtomicBoolean disconnected = new AtomicBoolean();
+  /** Slot taken in the limit of concurrent handshakes, until the client authenticates. */
+  private volatile AuthAdmission.Handshake handshake;
 
   /** Get the account username associated with this client. */
   public String getUsername() {
@@ -86,6 +108,24 @@ public class AuthClient implements Runnable {
     this.transfer = Optional.of(transfer);
   }
 
+  /**
+   * Set the credential key given to the client. Must only be used in tests.
+   *
+   * @param credentialKey Credential key.
+   */
+  public void setCredentialKey(IAuthCredentialKey credentialKey) {
+    this.myCredentialKey = credentialKey;
+  }
+
+  /**
+   * Set the handshake to finish once the client authenticates or disconnects.
+   *
+   * @param handshake Handshake.
+   */
+  public void setHandshake(AuthAdmission.Handshake handshake) {
+    this.handshake = handshake;
+  }
+
   /**
    * Create a new client.
    *
@@ -114,13 +154,17 @@ public class AuthClient implements Runnable {
       random.nextBytes(cryptKey);
 
       // Initialize the client
-      var message = new ServerInit(0xdeadbeef, credentialKey.getModulus(), cryptKey);
+      myCredentialKey = credentialKeys.select();
+      var message = new ServerInit(0xdeadbeef, myCredentialKey.getModulus(), cryptKey);
       send(message);
       clientManager.add(this);
 
       // Disconnect the client if it goes inactive
-      executor.schedule(this::assertAuth, AUTH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-      executor.schedule(this::disconnect, IDLE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+      authTimeout = timers.schedule(this::assertAuth, AUTH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      idleTimeout = timers.schedule(this::assertActive, IDLE_TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+      if (disconnected.get()) {
+        cancelTimeouts();
+      }
 
       logger.debug("Took {}ms", Duration.between(start, Instant.now()).toMillis());
     } catch (Exception e) {
@@ -137,6 +181,45 @@ public class AuthClient implements Runnable {
     disconnect();
   }
 
+  /**
+   * Check that client has received a message recently and disconnect it otherwise. Messages only
+   * record the time, so that the timeout does not need to be rescheduled on every message.
+   */
+  private void assertActive() {
+    var remaining = IDLE_TIMEOUT_NANOS - (System.nanoTime() - lastActivity);
+    if (remaining <= 0) {
+      logger.info("Client went idle");
+      disconnect();
+      return;
+    }
+
+    // Check again once the client could have gone idle
+    idleTimeout = timers.schedule(this::assertActive, remaining, TimeUnit.NANOSECONDS);
+    if (disconnected.get()) {
+      cancelTimeouts();
+    }
+  }
+
+  /** Cancel all the timeouts of the client. */
+  private void cancelTimeouts() {
+    var myAuthTimeout = authTimeout;
+    if (myAuthTimeout != null) {
+      myAuthTimeout.cancel();
+    }
+    var myIdleTimeout = idleTimeout;
+    if (myIdleTimeout != null) {
+      myIdleTimeout.cancel();
+    }
+  }
+
+  /** Free up the slot taken by the handshake, if there is one. */
+  private void finishHandshake() {
+    var myHandshake = handshake;
+    if (myHandshake != null) {
+      myHandshake.finish();
+    }
+  }
+
   /** Receive and process messages. */
   private void receive() {
     logger.debug("Waiting for message");
@@ -170,15 +253,35 @@ public class AuthClient implements Runnable {
    * @throws IOException Unable to send response to client.
    */
   public void handle(Object message) throws IOException {
-    var start = Instant.now();
-    switch (message) {
+    var start = System.nanoTime();
+    lastActivity = start;
+    if (!(message instanceof ClientMessage clientMessage)) {
+      throw new IllegalArgumentException("Cannot handle this message type");
+    }
+    switch (clientMessage) {
       case ClientAuthGameGuard m -> handle(m);
       case ClientRequestAuthLogin m -> handle(m);
       case ClientRequestServerList m -> handle(m);
       case ClientRequestServerLogin m -> handle(m);
-      default -> throw new IllegalArgumentException("Cannot handle this message type");
     }
-    logger.debug("Took {}ms", Duration.between(start, Instant.now()).toMillis());
+    var elapsed = System.nanoTime() - start;
+    Metrics.histogram(
+            "auth_message_seconds",
+            "Time spent handling messages from clients",
+            Metrics.LATENCY_BUCKETS,
+            "message",
+            message.getClass().getSimpleName())
+        .observeNanos(elapsed);
+    logger.debug("Took {}ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+  }
+
+  /**
+   * Count the login attempt.
+   *
+   * @param result Outcome of the attempt.
+   */
+  private static void countLogin(String result) {
+    Metrics.counter("auth_logins_total", "Login attempts by result", "result", result).inc();
   }
 
   @SuppressWarnings("unused")
@@ -189,7 +292,7 @@ public class AuthClient implements Runnable {
   private void handle(ClientRequestAuthLogin message) throws IOException {
     // Decrypt and extract the credentials
     var credentials = message.credentials();
-    credentialKey.decrypt(credentials);
+    myCredentialKey.decrypt(credentials);
     var username =
         new String(credentials, NAME_OFFSET, NAME_SIZE, StandardCharsets.ISO_8859_1).trim();
     var password =
@@ -201,11 +304,13 @@ public class AuthClient implements Runnable {
       var result = accounts.find(username, password);
       if (result.isEmpty()) {
         logger.warn("Invalid credentials for username='{}'", username);
+        countLogin(LoginFailReason.USER_OR_PASS_WRONG.name());
         send(new ServerLoginFail(LoginFailReason.USER_OR_PASS_WRONG));
         return;
       }
       myAccount = result.get();
     } catch (Exception e) {
+      countLogin(LoginFailReason.SYSTEM_ERROR.name());
       send(new ServerLoginFail(LoginFailReason.SYSTEM_ERROR));
       logger.error("Failed to find account", e);
       return;
@@ -216,14 +321,18 @@ public class AuthClient implements Runnable {
         myAccount.bannedUntil().map(value -> value.isBefore(LocalDateTime.now())).orElse(false);
     if (Boolean.TRUE.equals(isBanned)) {
       logger.warn("Account is banned username='{}' until={}", username, myAccount.bannedUntil());
+      countLogin(AccountKickedReason.PERMANENTLY_BANNED.name());
       send(new ServerAccountKicked(AccountKickedReason.PERMANENTLY_BANNED));
       return;
     }
 
     // Same account is only allowed to connect once
-    var duplicate = clientManager.find(username);
+    account = Optional.of(myAccount);
+    var duplicate = clientManager.claim(username, this);
     if (duplicate.isPresent()) {
       logger.warn("Account in use username='{}'", username);
+      account = Optional.empty();
+      countLogin(LoginFailReason.ACCOUNT_IN_USE.name());
       var fail = new ServerLoginFail(LoginFailReason.ACCOUNT_IN_USE);
       send(fail);
       duplicate.get().send(fail);
@@ -235,6 +344,9 @@ public class AuthClient implements Runnable {
     try {
       myTransfer = transfers.generate(username);
     } catch (Exception e) {
+      clientManager.release(username, this);
+      account = Optional.empty();
+      countLogin(LoginFailReason.SYSTEM_ERROR.name());
       send(new ServerLoginFail(LoginFailReason.SYSTEM_ERROR));
       logger.error("Failed to generate transfer", e);
       return;
@@ -243,7 +355,8 @@ public class AuthClient implements Runnable {
     // Success
     MDC.put("account", myAccount.username());
     logger.info("Account logged in");
-    account = Optional.of(myAccount);
+    countLogin("OK");
+    finishHandshake();
     transfer = Optional.of(myTransfer);
     send(new ServerLoginOk(myTransfer.auth()));
   }
@@ -294,9 +407,17 @@ public class AuthClient implements Runnable {
     logger.info("Account entering world id={}", message.worldId());
   }
 
-  /** Disconnect the client. */
-  private void disconnect() {
+  /**
+   * Disconnect the client. Timeouts, the connection and the client itself can all get here, but the
+   * client is only disconnected once.
+   */
+  public void disconnect() {
+    if (!disconnected.compareAndSet(false, true)) {
+      return;
+    }
     logger.info("Disconnecting client");
+    cancelTimeouts();
+    finishHandshake();
     connection.close();
     clientManager.remove(this);
   }
@@ -1,8 +1,9 @@
 package com.github.goph3rx.auth;
 
-import java.util.LinkedList;
+import com.github.goph3rx.metrics.Metrics;
+import java.util.ArrayList;
 import java.util.Optional;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,19 +12,52 @@ public class AuthClientManager implements IAuthClientManager {
   /** Logger for this class. */
   private static final Logger logger = LoggerFactory.getLogger(AuthClientManager.class);
 
-  /** List of clients connected to the server. */
-  private final LinkedList<AuthClient> clients = new LinkedList<>();
-  /** Lock for synchronizing access. */
-  private final ReentrantLock lock = new ReentrantLock();
+  /** Clients that have claimed an account, by username. */
+  private final ConcurrentHashMap<String, AuthClient> sessions = new ConcurrentHashMap<>();
+  /** All connected clients, with the username they have claimed or empty string if none. */
+  private final ConcurrentHashMap<AuthClient, String> clients = new ConcurrentHashMap<>();
+
+  /** Create a new manager and expose the number of clients as metrics. */
+  public AuthClientManager() {
+    var help = "Clients connected to the server";
+    Metrics.gauge("auth_connections_active", help, this::getPendingCount, "state", "pending");
+    Metrics.gauge("auth_connections_active", help, this::getSessionCount, "state", "session");
+  }
 
   @Override
   public void add(AuthClient client) {
     logger.debug("Adding client {}", client);
-    lock.lock();
-    try {
-      clients.add(client);
-    } finally {
-      lock.unlock();
+    clients.put(client, "");
+    logger.debug("Success");
+  }
+
+  @Override
+  public Optional<AuthClient> claim(String username, AuthClient client) {
+    logger.debug("Claiming account username='{}' client={}", username, client);
+    var existing = sessions.putIfAbsent(username, client);
+    if (existing != null && existing != client) {
+      logger.debug("Account is held by {}", existing);
+      return Optional.of(existing);
+    }
+
+    // Client might have been removed concurrently, don't let it hold on to the account
+    var previous = clients.replace(client, username);
+    if (previous == null) {
+      logger.debug("Client is no longer connected");
+      sessions.remove(username, client);
+    } else if (!previous.isEmpty() && !previous.equals(username)) {
+      logger.debug("Releasing previous account username='{}'", previous);
+      sessions.remove(previous, client);
+    }
+    logger.debug("Success");
+    return Optional.empty();
+  }
+
+  @Override
+  public void release(String username, AuthClient client) {
+    logger.debug("Releasing account username='{}' client={}", username, client);
+    if (clients.replace(client, username, "")) {
+      sessions.remove(username, client);
     }
     logger.debug("Success");
   }
@@ -31,26 +65,40 @@ public class AuthClientManager implements IAuthClientManager {
   @Override
   public Optional<AuthClient> find(String username) {
     logger.debug("Finding clients username='{}'", username);
-    lock.lock();
-    try {
-      var result =
-          clients.stream().filter(client -> client.getUsername().equals(username)).findFirst();
-      logger.debug("Result is {}", result);
-      return result;
-    } finally {
-      lock.unlock();
-    }
+    var result = Optional.ofNullable(sessions.get(username));
+    logger.debug("Result is {}", result);
+    return result;
   }
 
   @Override
   public void remove(AuthClient client) {
     logger.debug("Removing client {}", client);
-    lock.lock();
-    try {
-      clients.remove(client);
-    } finally {
-      lock.unlock();
+    var username = clients.remove(client);
+    if (username != null && !username.isEmpty()) {
+      sessions.remove(username, client);
     }
     logger.debug("Success");
   }
+
+  @Override
+  public int disconnectAll() {
+    logger.debug("Disconnecting all clients");
+    var connected = new ArrayList<>(clients.keySet());
+    for (var client : connected) {
+      client.disconnect();
+    }
+    logger.debug("Disconnected {} client(s)", connected.size());
+    return connected.size();
+  }
+
+  @Override
+  public int getPendingCount() {
+    // Claims and removals update both maps one after another, keep the difference in range
+    return Math.max(0, clients.size() - sessions.size());
+  }
+
+  @Override
+  public int getSessionCount() {
+    return sessions.size();
+  }
 }
@@ -1,28 +1,40 @@
 package com.github.goph3rx.auth;
 
 import com.github.goph3rx.auth.messages.*;
+import com.github.goph3rx.world.World;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.List;
 
 /** Encoding and decoding of messages. */
 public class AuthCodec implements IAuthCodec {
   /** Version of the protocol implemented by this codec. */
   public static final int PROTOCOL_VERSION = 0xc621;
+  /** Size of a single world entry in the server list. */
+  private static final int WORLD_SIZE = 21;
+
+  /** Entries of the server list encoded most recently. */
+  private volatile EncodedWorlds encodedWorlds = new EncodedWorlds(List.of(), new byte[0]);
 
   @Override
   public int encode(Object message, byte[] buffer, int offset) {
     var wrapped =
         ByteBuffer.wrap(buffer, offset, buffer.length - offset).order(ByteOrder.LITTLE_ENDIAN);
-    switch (message) {
+    if (!(message instanceof ServerMessage serverMessage)) {
+      throw new IllegalArgumentException("Cannot encode message");
+    }
+
+    // Every server message must have an encoder, otherwise this does not compile. Messages with
+    // computed fields are encoded here, the rest by the codec generated from their annotations
+    switch (serverMessage) {
       case ServerInit m -> encode(m, wrapped);
-      case ServerGGAuth m -> encode(m, wrapped);
-      case ServerLoginFail m -> encode(m, wrapped);
-      case ServerAccountKicked m -> encode(m, wrapped);
-      case ServerLoginOk m -> encode(m, wrapped);
+      case ServerGGAuth m -> MessageCodec.encode(m, wrapped);
+      case ServerLoginFail m -> MessageCodec.encode(m, wrapped);
+      case ServerAccountKicked m -> MessageCodec.encode(m, wrapped);
+      case ServerLoginOk m -> MessageCodec.encode(m, wrapped);
       case ServerServerList m -> encode(m, wrapped);
-      case ServerPlayFail m -> encode(m, wrapped);
-      case ServerPlayOk m -> encode(m, wrapped);
-      default -> throw new IllegalArgumentException("Cannot encode message");
+      case ServerPlayFail m -> MessageCodec.encode(m, wrapped);
+      case ServerPlayOk m -> MessageCodec.encode(m, wrapped);
     }
     return wrapped.position();
   }
@@ -31,18 +43,15 @@ public class AuthCodec implements IAuthCodec {
   public Object decode(byte[] buffer, int offset, int length) {
     var wrapped = ByteBuffer.wrap(buffer, offset, length - offset).order(ByteOrder.LITTLE_ENDIAN);
     var id = wrapped.get();
-    return switch (id) {
-      case 0x00 -> decodeRequestAuthLogin(wrapped);
-      case 0x02 -> decodeRequestServerLogin(wrapped);
-      case 0x05 -> decodeRequestServerList(wrapped);
-      case 0x07 -> new ClientAuthGameGuard();
-      default -> throw new IllegalArgumentException(
-          "Cannot decode message with id=%h".formatted(id));
-    };
+    var message = MessageCodec.decode(id, wrapped);
+    if (message == null) {
+      throw new IllegalArgumentException("Cannot decode message with id=%h".formatted(id));
+    }
+    return message;
   }
 
   private void encode(ServerInit message, ByteBuffer buffer) {
-    AuthCryptUtil.scrambleModulus(message.modulus());
+    // Modulus is scrambled by the credential key already
     buffer
         .put((byte) 0x00)
         .putInt(message.sessionId())
@@ -53,34 +62,24 @@ public class AuthCodec implements IAuthCodec {
         .put(message.cryptKey());
   }
 
-  private void encode(ServerGGAuth message, ByteBuffer buffer) {
-    buffer.put((byte) 0x0b).putInt(message.result().code).putLong(0).putLong(0);
-  }
-
-  private void encode(ServerLoginFail message, ByteBuffer buffer) {
-    buffer.put((byte) 0x01).putInt(message.reason().code);
-  }
-
-  private void encode(ServerAccountKicked message, ByteBuffer buffer) {
-    buffer.put((byte) 0x02).putInt(message.reason().code);
-  }
-
-  private void encode(ServerLoginOk message, ByteBuffer buffer) {
-    buffer
-        .put((byte) 0x03)
-        .putLong(message.authToken())
-        .putLong(0)
-        .putLong(0)
-        .putLong(0)
-        .putLong(0)
-        .putLong(0);
-  }
-
   private void encode(ServerServerList message, ByteBuffer buffer) {
+    // Entries are the same for everyone, so reuse them while the list stays the same
+    var encoded = encodedWorlds;
+    if (encoded.worlds() != message.worlds()) {
+      encoded = new EncodedWorlds(message.worlds(), encodeWorlds(message.worlds()));
+      encodedWorlds = encoded;
+    }
+
     buffer.put((byte) 0x04);
     buffer.put((byte) message.worlds().size());
     buffer.put((byte) message.lastWorld());
-    for (var world : message.worlds()) {
+    buffer.put(encoded.body());
+  }
+
+  private byte[] encodeWorlds(List<World> worlds) {
+    var body = new byte[worlds.size() * WORLD_SIZE];
+    var buffer = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+    for (var world : worlds) {
       buffer
           .put((byte) world.id())
           .put(world.ip().getAddress())
@@ -93,27 +92,14 @@ public class AuthCodec implements IAuthCodec {
           .putInt(0)
           .put((byte) 0);
     }
+    return body;
   }
 
-  private void encode(ServerPlayFail message, ByteBuffer buffer) {
-    buffer.put((byte) 0x06).putInt(message.reason().code);
-  }
-
-  private void encode(ServerPlayOk message, ByteBuffer buffer) {
-    buffer.put((byte) 0x07).putLong(message.playToken());
-  }
-
-  private ClientRequestAuthLogin decodeRequestAuthLogin(ByteBuffer buffer) {
-    var credentials = new byte[128];
-    buffer.get(credentials);
-    return new ClientRequestAuthLogin(credentials);
-  }
-
-  private ClientRequestServerList decodeRequestServerList(ByteBuffer buffer) {
-    return new ClientRequestServerList(buffer.getLong());
-  }
-
-  private ClientRequestServerLogin decodeRequestServerLogin(ByteBuffer buffer) {
-    return new ClientRequestServerLogin(buffer.getLong(), buffer.get());
-  }
+  /**
+   * Encoded entries of the server list.
+   *
+   * @param worlds List the entries were encoded from.
+   * @param body Encoded entries.
+   */
+  private record EncodedWorlds(List<World> worlds, byte[] body) {}
 }
@@ -1,6 +1,9 @@
 package com.github.goph3rx.auth;
 
 import com.github.goph3rx.account.AccountModule;
+import com.github.goph3rx.account.IAccountService;
+import com.github.goph3rx.metrics.MetricsModule;
+import com.github.goph3rx.metrics.MetricsServer;
 import com.github.goph3rx.transfer.ITransferService;
 import com.github.goph3rx.transfer.TransferModule;
 import com.github.goph3rx.world.IWorldService;
@@ -11,7 +14,13 @@ import javax.inject.Singleton;
 /** Main component for the auth server. */
 @Singleton
 @Component(
-    modules = {AuthModule.class, AccountModule.class, TransferModule.class, WorldModule.class})
+    modules = {
+      AuthModule.class,
+      AccountModule.class,
+      MetricsModule.class,
+      TransferModule.class,
+      WorldModule.class
+    })
 public interface AuthComponent {
   /**
    * Inject dependencies into the client.
@@ -27,6 +36,12 @@ public interface AuthComponent {
    */
   void injectServer(AuthServer server);
 
+  /** Get the service for managing accounts. */
+  IAccountService accounts();
+
+  /** Get the server for exposing metrics. */
+  MetricsServer metrics();
+
   /** Get the service for world transfers. */
   ITransferService transfers();
 
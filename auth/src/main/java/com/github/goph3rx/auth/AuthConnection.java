@@ -1,45 +1,48 @@
 package com.github.goph3rx.auth;
 
-import com.github.goph3rx.auth.messages.ServerInit;
 import java.io.IOException;
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Arrays;
-import java.util.HexFormat;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.ReentrantLock;
-import javax.crypto.ShortBufferException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Connection to the auth server. */
+/**
+ * Connection to the auth server. Messages sent whilst another thread is writing are queued and
+ * written by that thread, packed together into as few writes as possible.
+ */
 public class AuthConnection implements IAuthConnection {
-  /** Size of the IO buffers for the client. */
+  /** Size of the IO buffers for the client, every packet fits into one. */
   private static final int BUFFER_SIZE = 1024;
+  /** Size of the buffers that outbound packets are packed into. */
+  private static final int BATCH_SIZE = 4 * BUFFER_SIZE;
   /** Size of the packet header. */
-  private static final int HEADER_SIZE = 2;
+  private static final int HEADER_SIZE = AuthPacketProcessor.HEADER_SIZE;
+  /** Maximum number of idle buffers kept for reuse. */
+  private static final int POOLED_BUFFERS = 1024;
   /** Logger for this class. */
   private static final Logger logger = LoggerFactory.getLogger(AuthConnection.class);
+  /** Buffers shared by all connections. */
+  private static final AuthBufferPool buffers = new AuthBufferPool(BUFFER_SIZE, POOLED_BUFFERS);
+  /** Buffers for packing outbound packets, shared by all connections. */
+  private static final AuthBufferPool batches = new AuthBufferPool(BATCH_SIZE, POOLED_BUFFERS);
 
   /** Socket for communicating with the client. */
   private final Socket socket;
-  /** Buffer for writing and sending messages. */
-  private final byte[] write = new byte[BUFFER_SIZE];
-  /** Buffer for reading messages. */
-  private final byte[] read = new byte[BUFFER_SIZE];
-  /** Encoding messages. */
-  private final IAuthCodec codec;
-  /** Key for encrypting the first message. */
-  private final int scrambleKey;
-  /** Lock for synchronizing access to the encryption engine. */
-  private final ReentrantLock cryptLock = new ReentrantLock();
+  /** Buffer for reading the packet header, the body is read into a leased buffer. */
+  private final byte[] header = new byte[HEADER_SIZE];
+  /** Framing, checksums and encryption. */
+  private final AuthPacketProcessor processor;
+  /** Messages waiting to be sent to the client. */
+  private final ConcurrentLinkedQueue<Object> pending = new ConcurrentLinkedQueue<>();
   /** Lock for synchronizing sending of messages to the client. */
   private final ReentrantLock sendLock = new ReentrantLock();
-  /** Traffic encryption. */
-  private IAuthCrypt crypt;
+  /** Bytes sent and received. */
+  private final AuthTraffic traffic = new AuthTraffic();
 
   @Override
   public SocketAddress getRemoteAddress() {
@@ -56,144 +59,130 @@ public class AuthConnection implements IAuthConnection {
    */
   public AuthConnection(Socket socket, IAuthCodec codec, IAuthCrypt crypt, int scrambleKey) {
     this.socket = socket;
-    this.codec = codec;
-    this.scrambleKey = scrambleKey;
-    this.crypt = crypt;
+    this.processor = new AuthPacketProcessor(codec, crypt, scrambleKey);
   }
 
   @Override
   public void send(Object message) throws IOException {
-    sendLock.lock();
-    try {
-      logger.debug("Sending {}", message);
-
-      // Reset the buffer
-      Arrays.fill(write, (byte) 0);
-
-      // Encode the message
-      var length = codec.encode(message, write, HEADER_SIZE);
-
-      // Padding
-      var pad = length % AuthCryptUtil.BLOCK_SIZE;
-      if (pad != 0) {
-        length += AuthCryptUtil.BLOCK_SIZE - pad;
-      }
-
-      // Checksum and additional encryption
-      if (message instanceof ServerInit) {
-        length += 4;
-        length = AuthCryptUtil.scrambleInit(write, HEADER_SIZE, length, scrambleKey);
-      } else {
-        var checksum = AuthCryptUtil.calculateChecksum(write, HEADER_SIZE, length);
-        ByteBuffer.wrap(write, length, AuthCryptUtil.BLOCK_SIZE)
-            .order(ByteOrder.LITTLE_ENDIAN)
-            .putInt(checksum);
-        length += 4;
-      }
+    pending.add(message);
+    flush();
+  }
 
-      // Encryption
-      cryptLock.lock();
+  /**
+   * Write the pending messages, unless another thread is already doing that and will pick them up.
+   * Failures are only seen by the writing thread, so they are handled here by closing the
+   * connection.
+   *
+   * @throws IOException Data cannot be written.
+   */
+  private void flush() throws IOException {
+    while (!pending.isEmpty() && sendLock.tryLock()) {
       try {
-        // Pad
-        pad = length % crypt.getBlockSize();
-        length += crypt.getBlockSize() - pad;
-
-        // Encrypt
-        try {
-          length = crypt.encrypt(write, HEADER_SIZE, length);
-        } catch (ShortBufferException e) {
-          throw new RuntimeException(e);
-        }
-
-        // Init message changes the encryption key
-        if (message instanceof ServerInit init) {
-          if (logger.isDebugEnabled()) {
-            logger.debug(
-                "Changing encryption key to {}", HexFormat.of().formatHex(init.cryptKey()));
-          }
-          crypt = new AuthBlowfish(init.cryptKey());
-        }
+        writePending();
+      } catch (IOException | RuntimeException e) {
+        logger.warn("Failed to send, closing the connection", e);
+        pending.clear();
+        close();
+        throw e;
       } finally {
-        cryptLock.unlock();
+        sendLock.unlock();
       }
+    }
+  }
 
-      // Write header
-      ByteBuffer.wrap(write, 0, HEADER_SIZE)
-          .order(ByteOrder.LITTLE_ENDIAN)
-          .putShort((short) (length + HEADER_SIZE));
+  /**
+   * Pack the pending messages one after another and write them out. Must only be called whilst
+   * holding the send lock.
+   *
+   * @throws IOException Data cannot be written.
+   */
+  private void writePending() throws IOException {
+    var batch = batches.lease();
+    var used = 0;
+    try {
+      Object message;
+      while ((message = pending.poll()) != null) {
+        logger.debug("Sending {}", message);
+
+        // Write out the batch once the largest possible packet no longer fits
+        if (BATCH_SIZE - used < BUFFER_SIZE) {
+          write(batch, used);
+          Arrays.fill(batch, 0, used, (byte) 0);
+          used = 0;
+        }
 
-      // Send the packet off
-      socket.getOutputStream().write(write, 0, length + HEADER_SIZE);
+        // Encode the message straight into the batch
+        used += processor.pack(message, batch, used);
+      }
+      if (used > 0) {
+        write(batch, used);
+      }
+    } catch (RuntimeException e) {
+      // Packing might have failed part way through the packet
+      used = BATCH_SIZE;
+      throw e;
     } finally {
-      sendLock.unlock();
+      batches.release(batch, used);
     }
   }
 
+  /**
+   * Write the packed data to the socket.
+   *
+   * @param buffer Buffer with the data.
+   * @param length Length of the data.
+   * @throws IOException Data cannot be written.
+   */
+  private void write(byte[] buffer, int length) throws IOException {
+    socket.getOutputStream().write(buffer, 0, length);
+    traffic.sent(length);
+  }
+
   @Override
   public Optional<Object> receive() throws IOException {
-    // Reset the buffer
-    Arrays.fill(read, (byte) 0);
-
     var length = 0;
+    byte[] read = null;
     try {
       // Read the header
       var input = socket.getInputStream();
-      if (input.readNBytes(read, 0, HEADER_SIZE) != HEADER_SIZE) {
+      if (input.readNBytes(header, 0, HEADER_SIZE) != HEADER_SIZE) {
         logger.debug("Reached end whilst reading header");
         return Optional.empty();
       }
-      length =
-          ByteBuffer.wrap(read, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN).getShort()
-              - HEADER_SIZE;
+      length = AuthPacketProcessor.readSize(header) - HEADER_SIZE;
+      if (length <= 0 || length > BUFFER_SIZE) {
+        throw new IOException("Invalid packet size=%d".formatted(length + HEADER_SIZE));
+      }
 
       // Read the body
+      read = buffers.lease();
       if (input.readNBytes(read, 0, length) != length) {
         logger.debug("Reached end whilst reading body");
+        buffers.release(read, length);
         return Optional.empty();
       }
     } catch (SocketException e) {
       logger.debug("Server initiated disconnect");
+      if (read != null) {
+        buffers.release(read, length);
+      }
       return Optional.empty();
     }
 
-    // Decrypt
-    cryptLock.lock();
+    // Decode the message
+    traffic.received(HEADER_SIZE + length);
     try {
-      length = crypt.decrypt(read, 0, length);
-    } catch (ShortBufferException e) {
-      throw new RuntimeException(e);
+      var message = processor.unpack(read, length);
+      logger.debug("Received {}", message);
+      return Optional.of(message);
     } finally {
-      cryptLock.unlock();
-    }
-
-    // Remove padding
-    while (length > 4
-        && read[length - 1] == 0
-        && read[length - 2] == 0
-        && read[length - 3] == 0
-        && read[length - 4] == 0) {
-      length -= 4;
+      buffers.release(read, length);
     }
-
-    // Checksum
-    var expected = AuthCryptUtil.calculateChecksum(read, 0, length - AuthCryptUtil.BLOCK_SIZE);
-    var actual =
-        ByteBuffer.wrap(read, length - AuthCryptUtil.BLOCK_SIZE, AuthCryptUtil.BLOCK_SIZE)
-            .order(ByteOrder.LITTLE_ENDIAN)
-            .getInt();
-    if (expected != actual) {
-      logger.error("Invalid checksum expected={} actual={}", expected, actual);
-      throw new RuntimeException("Invalid checksum");
-    }
-
-    // Decode the message
-    var message = codec.decode(read, 0, length);
-    logger.debug("Received {}", message);
-    return Optional.of(message);
   }
 
   @Override
   public void close() {
+    traffic.close();
     try {
       socket.close();
     } catch (IOException e) {
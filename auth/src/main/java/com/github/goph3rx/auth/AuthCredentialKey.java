@@ -5,18 +5,23 @@ import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.RSAKeyGenParameterSpec;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.crypto.Cipher;
 
-/** Encryption for credential keys. */
+/**
+ * Encryption for credential keys. Ciphers are initialized once and reused by whichever thread needs
+ * one next, so that decryption runs in parallel without a lock.
+ */
 public class AuthCredentialKey implements IAuthCredentialKey {
   /** Name of the encryption algorithm in use. */
   private static final String ALGORITHM = "RSA/ECB/NoPadding";
 
   /** Key pair to use for encryption. */
   private final KeyPair key;
-  /** Lock for synchronizing access to this instance. */
-  private final ReentrantLock lock = new ReentrantLock();
+  /** Modulus encoded and scrambled for the client. */
+  private final byte[] modulus;
+  /** Ciphers ready for decryption that are not in use. */
+  private final ConcurrentLinkedQueue<Cipher> ciphers = new ConcurrentLinkedQueue<>();
 
   /** Generate a new credential key with the compatible parameters. */
   public AuthCredentialKey() {
@@ -27,44 +32,41 @@ public class AuthCredentialKey implements IAuthCredentialKey {
     } catch (GeneralSecurityException e) {
       throw new RuntimeException(e);
     }
+
+    // Extract the modulus, encode and scramble it
+    var publicKey = (RSAPublicKey) key.getPublic();
+    var encoded = publicKey.getModulus().toByteArray();
+
+    // Java insists on encoding the sign along with the value
+    // We need to get rid of it for compatibility
+    if (encoded.length == 129) {
+      var temp = new byte[128];
+      System.arraycopy(encoded, 1, temp, 0, temp.length);
+      encoded = temp;
+    }
+    AuthCryptUtil.scrambleModulus(encoded);
+    modulus = encoded;
   }
 
   @Override
   public byte[] getModulus() {
-    lock.lock();
-    try {
-      // Extract the modulus and encode it
-      var publicKey = (RSAPublicKey) key.getPublic();
-      var modulus = publicKey.getModulus().toByteArray();
-
-      // Java insists on encoding the sign along with the value
-      // We need to get rid of it for compatibility
-      if (modulus.length == 129) {
-        var temp = new byte[128];
-        System.arraycopy(modulus, 1, temp, 0, temp.length);
-        modulus = temp;
-      }
-
-      return modulus;
-    } finally {
-      lock.unlock();
-    }
+    return modulus;
   }
 
   @Override
   public void decrypt(byte[] credentials) {
-    lock.lock();
     try {
-      try {
-        var cipher = Cipher.getInstance(ALGORITHM);
+      var cipher = ciphers.poll();
+      if (cipher == null) {
+        cipher = Cipher.getInstance(ALGORITHM);
         cipher.init(Cipher.DECRYPT_MODE, key.getPrivate());
-        cipher.doFinal(credentials, 0, credentials.length, credentials);
-      } catch (GeneralSecurityException e) {
-        throw new RuntimeException(e);
       }
+      cipher.doFinal(credentials, 0, credentials.length, credentials);
 
-    } finally {
-      lock.unlock();
+      // Cipher is back in the initialized state, so it can be reused
+      ciphers.offer(cipher);
+    } catch (GeneralSecurityException e) {
+      throw new RuntimeException(e);
     }
   }
 }
@@ -0,0 +1,65 @@
+package com.github.goph3rx.auth;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of credential keys that hands out a random one to every new client. Keys are replaced one at
+ * a time on a schedule, clients that were given a key earlier keep using it until they disconnect.
+ */
+public class AuthCredentialKeyPool implements IAuthCredentialKeys {
+  /** Logger for this class. */
+  private static final Logger logger = LoggerFactory.getLogger(AuthCredentialKeyPool.class);
+  /** Executor for scheduled tasks originating from this class. */
+  private static final ScheduledExecutorService executor =
+      Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+
+  /** Keys in the pool. */
+  private final AtomicReferenceArray<IAuthCredentialKey> keys;
+  /** Position of the key to be replaced next. */
+  private int next;
+
+  /**
+   * Create a new pool.
+   *
+   * @param size Number of keys in the pool.
+   * @param rotationMinutes How often to replace a key, or zero to never replace them.
+   */
+  public AuthCredentialKeyPool(int size, int rotationMinutes) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Pool must hold at least one key");
+    }
+    keys = new AtomicReferenceArray<>(size);
+    for (var i = 0; i < size; i++) {
+      keys.set(i, new AuthCredentialKey());
+    }
+
+    // Replace the keys in the background
+    if (rotationMinutes > 0) {
+      executor.scheduleAtFixedRate(
+          this::rotate, rotationMinutes, rotationMinutes, TimeUnit.MINUTES);
+    }
+  }
+
+  @Override
+  public IAuthCredentialKey select() {
+    return keys.get(ThreadLocalRandom.current().nextInt(keys.length()));
+  }
+
+  /** Replace the oldest key with a new one. */
+  void rotate() {
+    try {
+      logger.debug("Replacing credential key {}", next);
+      keys.set(next, new AuthCredentialKey());
+      next = (next + 1) % keys.length();
+      logger.debug("Success");
+    } catch (Exception e) {
+      logger.warn("Failed to replace credential key", e);
+    }
+  }
+}
@@ -33,6 +33,31 @@ public class AuthCryptUtil {
     }
   }
 
+  /**
+   * Restore the modulus scrambled for username/password encryption.
+   *
+   * @param modulus Scrambled modulus.
+   */
+  public static void unscrambleModulus(byte[] modulus) {
+    for (var i = 0; i < 64; i++) {
+      modulus[i + 64] = (byte) (modulus[i + 64] ^ modulus[i]);
+    }
+
+    for (var i = 0; i < 4; i++) {
+      modulus[i + 13] = (byte) (modulus[i + 13] ^ modulus[i + 52]);
+    }
+
+    for (var i = 0; i < 64; i++) {
+      modulus[i] = (byte) (modulus[i] ^ modulus[i + 64]);
+    }
+
+    for (var i = 0; i < 4; i++) {
+      var tmp = modulus[i];
+      modulus[i] = modulus[i + 77];
+      modulus[i + 77] = tmp;
+    }
+  }
+
   /**
    * Scramble the initial message from the server.
    *
@@ -60,6 +85,24 @@ public class AuthCryptUtil {
     return offset + BLOCK_SIZE;
   }
 
+  /**
+   * Restore the initial message scrambled by the server.
+   *
+   * @param buffer Buffer with the message.
+   * @param offset Position to start at.
+   * @param length Length of data, including the key in the last block.
+   */
+  public static void unscrambleInit(byte[] buffer, int offset, int length) {
+    var wrapped = ByteBuffer.wrap(buffer, 0, buffer.length).order(ByteOrder.LITTLE_ENDIAN);
+    var position = offset + length - BLOCK_SIZE;
+    var key = wrapped.getInt(position);
+    for (position -= BLOCK_SIZE; position > offset; position -= BLOCK_SIZE) {
+      var block = wrapped.getInt(position) ^ key;
+      key -= block;
+      wrapped.putInt(position, block);
+    }
+  }
+
   /**
    * Calculate the checksum for the buffer.
    *
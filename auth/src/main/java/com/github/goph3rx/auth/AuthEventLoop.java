@@ -0,0 +1,105 @@
+package com.github.goph3rx.auth;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Event loop that performs non-blocking IO for a set of connections. */
+public class AuthEventLoop implements Runnable {
+  /** Logger for this class. */
+  private static final Logger logger = LoggerFactory.getLogger(AuthEventLoop.class);
+
+  /** Selector for the connections served by this loop. */
+  private final Selector selector;
+  /** Tasks to be executed on the loop thread. */
+  private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Create a new event loop.
+   *
+   * @throws IOException Selector cannot be opened.
+   */
+  public AuthEventLoop() throws IOException {
+    selector = Selector.open();
+  }
+
+  /**
+   * Execute the task on the loop thread.
+   *
+   * @param task Task.
+   */
+  public void execute(Runnable task) {
+    tasks.add(task);
+    selector.wakeup();
+  }
+
+  /**
+   * Start serving the connection on this loop.
+   *
+   * @param connection Connection.
+   */
+  public void register(AuthChannelConnection connection) {
+    execute(
+        () -> {
+          try {
+            connection.register(selector);
+          } catch (IOException e) {
+            logger.error("Failed to register connection", e);
+            connection.disconnect();
+          }
+        });
+  }
+
+  /** Stop the loop. */
+  public void close() {
+    try {
+      selector.close();
+    } catch (IOException e) {
+      logger.debug("Failed to close the selector", e);
+    }
+  }
+
+  @Override
+  public void run() {
+    logger.debug("Starting event loop");
+    try {
+      while (selector.isOpen()) {
+        selector.select(this::process);
+
+        // Run the pending tasks
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+          task.run();
+        }
+      }
+    } catch (ClosedSelectorException e) {
+      logger.debug("Event loop closed");
+    } catch (IOException e) {
+      logger.error("Event loop failed", e);
+    }
+  }
+
+  /**
+   * Process the IO events for a single connection.
+   *
+   * @param key Key of the connection.
+   */
+  private void process(SelectionKey key) {
+    var connection = (AuthChannelConnection) key.attachment();
+    try {
+      if (key.isValid() && key.isWritable()) {
+        connection.onWritable();
+      }
+      if (key.isValid() && key.isReadable()) {
+        connection.onReadable();
+      }
+    } catch (Exception e) {
+      logger.error("Unexpected error whilst processing", e);
+      connection.disconnect();
+    }
+  }
+}
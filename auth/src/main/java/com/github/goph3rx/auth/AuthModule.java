@@ -10,8 +10,22 @@ import javax.inject.Singleton;
 public interface AuthModule {
   @Provides
   @Singleton
-  static IAuthCredentialKey provideCredentialKey() {
-    return new AuthCredentialKey();
+  static IAuthCredentialKeys provideCredentialKeyPool(
+      @Named("auth.credentialKeys") int keys,
+      @Named("auth.credentialKeyRotationMinutes") int rotationMinutes) {
+    return new AuthCredentialKeyPool(keys, rotationMinutes);
+  }
+
+  @Provides
+  @Named("auth.credentialKeys")
+  static int provideCredentialKeys() {
+    return Integer.parseInt(System.getProperty("auth.credentialKeys", "1"));
+  }
+
+  @Provides
+  @Named("auth.credentialKeyRotationMinutes")
+  static int provideCredentialKeyRotationMinutes() {
+    return Integer.parseInt(System.getProperty("auth.credentialKeyRotationMinutes", "0"));
   }
 
   @Provides
@@ -31,4 +45,40 @@ public interface AuthModule {
   static int provideBacklog() {
     return Integer.parseInt(System.getProperty("auth.backlog", "10"));
   }
+
+  @Provides
+  @Named("auth.engine")
+  static String provideEngine() {
+    return System.getProperty("auth.engine", AuthServer.ENGINE_BLOCKING);
+  }
+
+  @Provides
+  @Named("auth.selectorThreads")
+  static int provideSelectorThreads() {
+    return Integer.parseInt(System.getProperty("auth.selectorThreads", "2"));
+  }
+
+  @Provides
+  @Named("auth.shutdownTimeoutSeconds")
+  static int provideShutdownTimeout() {
+    return Integer.parseInt(System.getProperty("auth.shutdownTimeoutSeconds", "30"));
+  }
+
+  @Provides
+  @Named("auth.connectionRate")
+  static int provideConnectionRate() {
+    return Integer.parseInt(System.getProperty("auth.connectionRate", "5"));
+  }
+
+  @Provides
+  @Named("auth.connectionBurst")
+  static int provideConnectionBurst() {
+    return Integer.parseInt(System.getProperty("auth.connectionBurst", "20"));
+  }
+
+  @Provides
+  @Named("auth.maxHandshakes")
+  static int provideMaxHandshakes() {
+    return Integer.parseInt(System.getProperty("auth.maxHandshakes", "1000"));
+  }
 }
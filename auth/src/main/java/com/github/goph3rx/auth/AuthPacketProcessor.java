@@ -0,0 +1,158 @@
+package com.github.goph3rx.auth;
+
+import com.github.goph3rx.auth.messages.ServerInit;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.crypto.ShortBufferException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processing of packets for a single connection. Takes care of framing, checksums and traffic
+ * encryption, so that it can be shared by all connection implementations.
+ */
+public class AuthPacketProcessor {
+  /** Size of the packet header. */
+  public static final int HEADER_SIZE = 2;
+  /** Logger for this class. */
+  private static final Logger logger = LoggerFactory.getLogger(AuthPacketProcessor.class);
+  /** Access to little-endian shorts in byte arrays. */
+  private static final VarHandle SHORT =
+      MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+  /** Access to little-endian ints in byte arrays. */
+  private static final VarHandle INT =
+      MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+  /** Encoding messages. */
+  private final IAuthCodec codec;
+  /** Key for encrypting the first message. */
+  private final int scrambleKey;
+  /** Lock for synchronizing access to the encryption engine. */
+  private final ReentrantLock cryptLock = new ReentrantLock();
+  /** Traffic encryption. */
+  private IAuthCrypt crypt;
+
+  /**
+   * Create a new processor.
+   *
+   * @param codec Encoding messages.
+   * @param crypt Traffic encryption.
+   * @param scrambleKey Key for encrypting the first message.
+   */
+  public AuthPacketProcessor(IAuthCodec codec, IAuthCrypt crypt, int scrambleKey) {
+    this.codec = codec;
+    this.crypt = crypt;
+    this.scrambleKey = scrambleKey;
+  }
+
+  /**
+   * Encode the message into a complete packet, ready to be sent.
+   *
+   * @param message Message.
+   * @param buffer Buffer to write the packet to. Must be filled with zeroes from the offset on.
+   * @param offset Position to write the packet at.
+   * @return Length of the packet, including the header.
+   */
+  public int pack(Object message, byte[] buffer, int offset) {
+    // Encode the message, lengths below are counted from the start of the packet
+    var start = offset + HEADER_SIZE;
+    var length = codec.encode(message, buffer, start) - offset;
+
+    // Padding
+    var pad = length % AuthCryptUtil.BLOCK_SIZE;
+    if (pad != 0) {
+      length += AuthCryptUtil.BLOCK_SIZE - pad;
+    }
+
+    // Checksum and additional encryption
+    if (message instanceof ServerInit) {
+      length += 4;
+      length = AuthCryptUtil.scrambleInit(buffer, start, length, scrambleKey) - offset;
+    } else {
+      var checksum = AuthCryptUtil.calculateChecksum(buffer, start, length);
+      INT.set(buffer, offset + length, checksum);
+      length += 4;
+    }
+
+    // Encryption
+    cryptLock.lock();
+    try {
+      // Pad
+      pad = length % crypt.getBlockSize();
+      length += crypt.getBlockSize() - pad;
+
+      // Encrypt
+      try {
+        length = crypt.encrypt(buffer, start, length);
+      } catch (ShortBufferException e) {
+        throw new RuntimeException(e);
+      }
+
+      // Init message changes the encryption key
+      if (message instanceof ServerInit init) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Changing encryption key to {}", HexFormat.of().formatHex(init.cryptKey()));
+        }
+        crypt = new AuthBlowfishEngine(init.cryptKey());
+      }
+    } finally {
+      cryptLock.unlock();
+    }
+
+    // Write header
+    SHORT.set(buffer, offset, (short) (length + HEADER_SIZE));
+    return length + HEADER_SIZE;
+  }
+
+  /**
+   * Read the total length of the packet from its header.
+   *
+   * @param buffer Buffer with the header at the start.
+   * @return Length of the packet, including the header.
+   */
+  public static int readSize(byte[] buffer) {
+    return (short) SHORT.get(buffer, 0) & 0xffff;
+  }
+
+  /**
+   * Decode the message from the body of a received packet.
+   *
+   * @param buffer Buffer with the packet body (without the header), decrypted in place.
+   * @param length Length of the body.
+   * @return Decoded message.
+   */
+  public Object unpack(byte[] buffer, int length) {
+    // Decrypt
+    cryptLock.lock();
+    try {
+      length = crypt.decrypt(buffer, 0, length);
+    } catch (ShortBufferException e) {
+      throw new RuntimeException(e);
+    } finally {
+      cryptLock.unlock();
+    }
+
+    // Remove padding
+    while (length > 4
+        && buffer[length - 1] == 0
+        && buffer[length - 2] == 0
+        && buffer[length - 3] == 0
+        && buffer[length - 4] == 0) {
+      length -= 4;
+    }
+
+    // Checksum
+    var expected = AuthCryptUtil.calculateChecksum(buffer, 0, length - AuthCryptUtil.BLOCK_SIZE);
+    var actual = (int) INT.get(buffer, length - AuthCryptUtil.BLOCK_SIZE);
+    if (expected != actual) {
+      logger.error("Invalid checksum expected={} actual={}", expected, actual);
+      throw new RuntimeException("Invalid checksum");
+    }
+
+    // Decode the message
+    return codec.decode(buffer, 0, length);
+  }
+}
@@ -1,22 +1,48 @@
 package com.github.goph3rx.auth;
 
+import com.github.goph3rx.metrics.Counter;
+import com.github.goph3rx.metrics.Metrics;
+import java.io.Closeable;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Server for clients to connect to for authentication. */
+/**
+ * Server for clients to connect to for authentication. Stopping the server closes the acceptor and
+ * lets the connected clients finish logging in, up to a deadline.
+ */
 public class AuthServer {
+  /** Engine that gives every connection its own thread with blocking IO. */
+  public static final String ENGINE_BLOCKING = "blocking";
+  /** Engine that serves the connections from a fixed set of event loops with non-blocking IO. */
+  public static final String ENGINE_SELECTOR = "selector";
   /** Logger for this class. */
   private static final Logger logger = LoggerFactory.getLogger(AuthServer.class);
   /** Secure random number generation. */
   private static final SecureRandom random = new SecureRandom();
   /** Encoding and decoding of messages. */
   private static final AuthCodec codec = new AuthCodec();
+  /** Encryption for the first message, shared as the key never changes. */
+  private static final IAuthCrypt initCrypt = new AuthBlowfishEngine();
+  /** How often to check whether the clients have finished whilst stopping. */
+  private static final int DRAIN_POLL_MILLIS = 100;
+  /** How long to wait for the handlers to exit once the clients are disconnected. */
+  private static final int EXIT_TIMEOUT_SECONDS = 5;
+  /** Number of accepted connections. */
+  private static final Counter accepted =
+      Metrics.counter("auth_connections_accepted_total", "Connections accepted by the server");
 
   /** Port. */
   @Named("auth.port")
@@ -26,6 +52,31 @@ public class AuthServer {
   @Named("auth.backlog")
   @Inject
   public int backlog;
+  /** Engine for handling the connections. */
+  @Named("auth.engine")
+  @Inject
+  public String engine;
+  /** Number of event loops for the selector engine. */
+  @Named("auth.selectorThreads")
+  @Inject
+  public int selectorThreads;
+  /** How long to wait for the connected clients to finish whilst stopping. */
+  @Named("auth.shutdownTimeoutSeconds")
+  @Inject
+  public int shutdownTimeoutSeconds;
+  /** Admission control for new connections. */
+  @Inject public AuthAdmission admission;
+  /** Manager for clients connected to the server. */
+  @Inject public IAuthClientManager clientManager;
+
+  /** Socket that accepts the connections, once the server is running. */
+  private volatile Closeable acceptor;
+  /** Flag to indicate that the server is stopping. */
+  private volatile boolean stopping;
+  /** Released once the clients have been drained whilst stopping. */
+  private final CountDownLatch drained = new CountDownLatch(1);
+  /** Released once the server is no longer running. */
+  private final CountDownLatch stopped = new CountDownLatch(1);
 
   /**
    * Run the server.
@@ -34,28 +85,222 @@ public class AuthServer {
    * @throws IOException Server cannot be started.
    */
   public void run(AuthComponent component) throws IOException {
+    try {
+      switch (engine) {
+        case ENGINE_BLOCKING -> runBlocking(component);
+        case ENGINE_SELECTOR -> runSelector(component);
+        default -> throw new IllegalArgumentException("Unknown engine '%s'".formatted(engine));
+      }
+    } finally {
+      stopped.countDown();
+    }
+  }
+
+  /**
+   * Stop the server. No new connections are accepted, the connected clients are given time to
+   * finish and the ones that do not finish in time are disconnected.
+   */
+  public void stop() {
+    logger.info("Stopping server");
+    stopping = true;
+    closeAcceptor();
+
+    // Let the clients finish logging in
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+    try {
+      while (clientManager.getPendingCount() + clientManager.getSessionCount() > 0
+          && System.nanoTime() - deadline < 0) {
+        Thread.sleep(DRAIN_POLL_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    // Disconnect the rest and wait for the handlers to exit
+    try {
+      var remaining = clientManager.disconnectAll();
+      if (remaining > 0) {
+        logger.warn("Disconnected {} client(s) that did not finish in time", remaining);
+      }
+    } finally {
+      drained.countDown();
+    }
+    try {
+      if (!stopped.await(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        logger.warn("Server did not stop in time");
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    logger.info("Server stopped");
+  }
+
+  /** Wait until the clients have been drained, if the server is stopping. */
+  private void awaitDrained() {
+    if (!stopping) {
+      return;
+    }
+    try {
+      drained.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Close the socket that accepts the connections, if there is one. */
+  private void closeAcceptor() {
+    var socket = acceptor;
+    if (socket == null) {
+      return;
+    }
+    try {
+      socket.close();
+    } catch (IOException e) {
+      logger.debug("Failed to close the acceptor", e);
+    }
+  }
+
+  /**
+   * Give up on the connection that could not be handed over to a client.
+   *
+   * @param connection Socket or channel of the connection, if accepted.
+   * @param handshake Handshake slot, if admitted.
+   */
+  private void abandon(Closeable connection, Optional<AuthAdmission.Handshake> handshake) {
+    handshake.ifPresent(AuthAdmission.Handshake::finish);
+    if (connection == null) {
+      return;
+    }
+    try {
+      connection.close();
+    } catch (IOException e) {
+      logger.debug("Failed to close the connection", e);
+    }
+  }
+
+  /**
+   * Run the server with blocking IO.
+   *
+   * @param component Component for dependency injection.
+   * @throws IOException Server cannot be started.
+   */
+  private void runBlocking(AuthComponent component) throws IOException {
     // Create the server
     try (var socket = new ServerSocket(port, backlog)) {
       logger.info("Starting server on {}", socket.getLocalSocketAddress());
+      acceptor = socket;
+      if (stopping) {
+        return;
+      }
 
-      // Start accepting clients
+      // Start accepting clients, handlers are waited for once the acceptor is closed
       try (var pool = Executors.newVirtualThreadPerTaskExecutor()) {
-        while (true) {
+        while (!stopping) {
+          Socket clientSocket = null;
+          Optional<AuthAdmission.Handshake> handshake = Optional.empty();
           try {
+            // Check the connection before doing any work for it
+            clientSocket = socket.accept();
+            accepted.inc();
+            handshake = admission.admit(clientSocket.getInetAddress());
+            if (handshake.isEmpty()) {
+              clientSocket.close();
+              continue;
+            }
+
             // Create a connection
             var scrambleKey = random.nextInt();
-            var crypt = new AuthBlowfish();
-            var connection = new AuthConnection(socket.accept(), codec, crypt, scrambleKey);
+            var connection = new AuthConnection(clientSocket, codec, initCrypt, scrambleKey);
 
             // Create a client and start processing it
             var client = new AuthClient(connection);
             component.injectClient(client);
+            client.setHandshake(handshake.get());
             pool.submit(client);
           } catch (Exception e) {
+            abandon(clientSocket, handshake);
+            if (stopping) {
+              break;
+            }
             logger.error("Failed to accept connection", e);
           }
         }
       }
     }
   }
+
+  /**
+   * Run the server with non-blocking IO.
+   *
+   * @param component Component for dependency injection.
+   * @throws IOException Server cannot be started.
+   */
+  private void runSelector(AuthComponent component) throws IOException {
+    // Create the server
+    try (var socket = ServerSocketChannel.open()) {
+      socket.bind(new InetSocketAddress(port), backlog);
+      logger.info(
+          "Starting server on {} with {} event loop(s)", socket.getLocalAddress(), selectorThreads);
+      acceptor = socket;
+      if (stopping) {
+        return;
+      }
+
+      // Start the event loops
+      var loops = new AuthEventLoop[selectorThreads];
+      for (var i = 0; i < loops.length; i++) {
+        loops[i] = new AuthEventLoop();
+        Thread.ofPlatform().name("auth-loop-" + i).start(loops[i]);
+      }
+
+      // Start accepting clients, handlers are waited for once the acceptor is closed
+      try (var pool = Executors.newVirtualThreadPerTaskExecutor()) {
+        var next = 0;
+        while (!stopping) {
+          SocketChannel channel = null;
+          Optional<AuthAdmission.Handshake> handshake = Optional.empty();
+          try {
+            // Check the connection before doing any work for it
+            channel = socket.accept();
+            accepted.inc();
+            var remote = (InetSocketAddress) channel.getRemoteAddress();
+            handshake = admission.admit(remote.getAddress());
+            if (handshake.isEmpty()) {
+              channel.close();
+              continue;
+            }
+
+            // Create a connection
+            channel.configureBlocking(false);
+            var loop = loops[next];
+            next = (next + 1) % loops.length;
+            var scrambleKey = random.nextInt();
+            var connection =
+                new AuthChannelConnection(channel, codec, initCrypt, scrambleKey, loop, pool);
+
+            // Create a client and hand it over to the loop
+            var client = new AuthClient(connection);
+            component.injectClient(client);
+            client.setHandshake(handshake.get());
+            connection.setClient(client);
+            loop.register(connection);
+          } catch (Exception e) {
+            abandon(channel, handshake);
+            if (stopping) {
+              break;
+            }
+            logger.error("Failed to accept connection", e);
+          }
+        }
+
+        // The loops keep serving the connected clients until they are drained
+        awaitDrained();
+      } finally {
+        for (var loop : loops) {
+          loop.close();
+        }
+      }
+    }
+  }
 }
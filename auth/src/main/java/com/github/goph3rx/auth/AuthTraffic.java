@@ -0,0 +1,68 @@
+package com.github.goph3rx.auth;
+
+import com.github.goph3rx.metrics.Counter;
+import com.github.goph3rx.metrics.Histogram;
+import com.github.goph3rx.metrics.Metrics;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Accounting of the bytes sent and received by a single connection. */
+class AuthTraffic {
+  /** Total bytes received from all clients. */
+  private static final Counter totalIn =
+      Metrics.counter("auth_bytes_total", "Bytes transferred with clients", "direction", "in");
+  /** Total bytes sent to all clients. */
+  private static final Counter totalOut =
+      Metrics.counter("auth_bytes_total", "Bytes transferred with clients", "direction", "out");
+
+  /** Bytes received by this connection. */
+  private final AtomicLong in = new AtomicLong();
+  /** Bytes sent by this connection. */
+  private final AtomicLong out = new AtomicLong();
+  /** Flag to indicate that the totals for the connection have been recorded. */
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  /**
+   * Record the received data.
+   *
+   * @param length Number of bytes.
+   */
+  void received(int length) {
+    in.addAndGet(length);
+    totalIn.add(length);
+  }
+
+  /**
+   * Record the sent data.
+   *
+   * @param length Number of bytes.
+   */
+  void sent(int length) {
+    out.addAndGet(length);
+    totalOut.add(length);
+  }
+
+  /** Record the totals for the connection, only the first call has any effect. */
+  void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    histogram("in").observe(in.get());
+    histogram("out").observe(out.get());
+  }
+
+  /**
+   * Get the histogram of bytes transferred per connection.
+   *
+   * @param direction Direction of the transfer.
+   * @return Histogram.
+   */
+  private static Histogram histogram(String direction) {
+    return Metrics.histogram(
+        "auth_connection_bytes",
+        "Bytes transferred per connection",
+        Metrics.SIZE_BUCKETS,
+        "direction",
+        direction);
+  }
+}
@@ -5,12 +5,31 @@ import java.util.Optional;
 /** Manager for clients connected to the server. */
 public interface IAuthClientManager {
   /**
-   * Add the client to the list of connected ones.
+   * Add the client to the list of connected ones. Client is considered pending until it claims an
+   * account.
    *
    * @param client Client.
    */
   void add(AuthClient client);
 
+  /**
+   * Claim the account for the client, unless another client holds it already. Check and
+   * registration happen in one step. Any other account held by the client is released.
+   *
+   * @param username Account username.
+   * @param client Client.
+   * @return Client that holds the account already or empty optional if claimed successfully.
+   */
+  Optional<AuthClient> claim(String username, AuthClient client);
+
+  /**
+   * Release the account claimed by the client earlier, the client is pending again.
+   *
+   * @param username Account username.
+   * @param client Client.
+   */
+  void release(String username, AuthClient client);
+
   /**
    * Find a connected client.
    *
@@ -25,4 +44,17 @@ public interface IAuthClientManager {
    * @param client Client.
    */
   void remove(AuthClient client);
+
+  /**
+   * Disconnect all the connected clients.
+   *
+   * @return Number of clients disconnected.
+   */
+  int disconnectAll();
+
+  /** Get the number of connected clients that have not claimed an account yet. */
+  int getPendingCount();
+
+  /** Get the number of connected clients that have claimed an account. */
+  int getSessionCount();
 }
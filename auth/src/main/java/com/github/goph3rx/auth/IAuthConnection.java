@@ -10,9 +10,13 @@ public interface IAuthConnection {
   SocketAddress getRemoteAddress();
 
   /**
-   * Send a message.
+   * Queue a message for sending. Messages are written in the order they were queued, either by this
+   * call or by the call that is already writing on another thread, so this may return before the
+   * message is written. A failed write closes the connection and drops the queued messages, the
+   * exception is only thrown to the thread that was writing.
    *
    * @param message Message.
+   * @throws IOException Data cannot be written by this call.
    */
   void send(Object message) throws IOException;
 
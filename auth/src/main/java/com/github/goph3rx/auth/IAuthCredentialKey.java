@@ -2,7 +2,10 @@ package com.github.goph3rx.auth;
 
 /** Encryption for credential keys. */
 public interface IAuthCredentialKey {
-  /** Get the modulus for the credential key. */
+  /**
+   * Get the modulus for the credential key, scrambled and ready to be sent. Shared by all the
+   * clients, so it must not be modified.
+   */
   byte[] getModulus();
 
   /**
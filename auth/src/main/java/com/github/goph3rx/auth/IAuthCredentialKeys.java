@@ -0,0 +1,11 @@
+package com.github.goph3rx.auth;
+
+/** Source of credential keys for new clients. */
+public interface IAuthCredentialKeys {
+  /**
+   * Select the key for a new client. The same key must be used for the whole session of the client.
+   *
+   * @return Key for the client.
+   */
+  IAuthCredentialKey select();
+}
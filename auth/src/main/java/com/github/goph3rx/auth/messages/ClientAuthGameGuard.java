@@ -1,4 +1,7 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Decode;
+
 /** Request to start the GG auth. */
-public record ClientAuthGameGuard() {}
+@Decode(opcode = 0x07)
+public record ClientAuthGameGuard() implements ClientMessage {}
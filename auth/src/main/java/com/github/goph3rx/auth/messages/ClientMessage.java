@@ -0,0 +1,8 @@
+package com.github.goph3rx.auth.messages;
+
+/** Message sent by the client to the server. */
+public sealed interface ClientMessage
+    permits ClientAuthGameGuard,
+        ClientRequestAuthLogin,
+        ClientRequestServerList,
+        ClientRequestServerLogin {}
@@ -1,5 +1,7 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Decode;
+import com.github.goph3rx.codec.Size;
 import java.util.Arrays;
 import java.util.HexFormat;
 
@@ -8,7 +10,8 @@ import java.util.HexFormat;
  *
  * @param credentials Encrypted username and password.
  */
-public record ClientRequestAuthLogin(byte[] credentials) {
+@Decode(opcode = 0x00)
+public record ClientRequestAuthLogin(@Size(128) byte[] credentials) implements ClientMessage {
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
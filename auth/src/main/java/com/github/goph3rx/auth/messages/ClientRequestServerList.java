@@ -1,8 +1,11 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Decode;
+
 /**
  * Request to display the list of worlds.
  *
  * @param authToken First part of the transfer token.
  */
-public record ClientRequestServerList(long authToken) {}
+@Decode(opcode = 0x05)
+public record ClientRequestServerList(long authToken) implements ClientMessage {}
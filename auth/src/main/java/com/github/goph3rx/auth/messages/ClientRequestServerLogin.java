@@ -1,9 +1,14 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Decode;
+import com.github.goph3rx.codec.Size;
+
 /**
  * Request to enter the specified world.
  *
  * @param authToken First part of the transfer token.
  * @param worldId Identifier of the chosen world.
  */
-public record ClientRequestServerLogin(long authToken, int worldId) {}
+@Decode(opcode = 0x02)
+public record ClientRequestServerLogin(long authToken, @Size(1) int worldId)
+    implements ClientMessage {}
@@ -1,8 +1,11 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /**
  * Response to indicate that the account is banned.
  *
  * @param reason Reason for the ban.
  */
-public record ServerAccountKicked(AccountKickedReason reason) {}
+@Encode(opcode = 0x02)
+public record ServerAccountKicked(AccountKickedReason reason) implements ServerMessage {}
@@ -1,8 +1,11 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /**
  * Response to indicate the outcome of GG auth.
  *
  * @param result Result.
  */
-public record ServerGGAuth(GGAuthResult result) {}
+@Encode(opcode = 0x0b, padding = 16)
+public record ServerGGAuth(GGAuthResult result) implements ServerMessage {}
@@ -11,7 +11,7 @@ import java.util.Objects;
  * @param modulus Modulus for username/password encryption.
  * @param cryptKey Key for traffic encryption.
  */
-public record ServerInit(int sessionId, byte[] modulus, byte[] cryptKey) {
+public record ServerInit(int sessionId, byte[] modulus, byte[] cryptKey) implements ServerMessage {
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
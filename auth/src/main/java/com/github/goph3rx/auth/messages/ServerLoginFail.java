@@ -1,8 +1,11 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /**
  * Response to indicate a failed login.
  *
  * @param reason Reason for the failure.
  */
-public record ServerLoginFail(LoginFailReason reason) {}
+@Encode(opcode = 0x01)
+public record ServerLoginFail(LoginFailReason reason) implements ServerMessage {}
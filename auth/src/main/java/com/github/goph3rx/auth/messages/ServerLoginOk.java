@@ -1,8 +1,11 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /**
  * Response to indicate a successful login.
  *
  * @param authToken First part of the transfer token.
  */
-public record ServerLoginOk(long authToken) {}
+@Encode(opcode = 0x03, padding = 40)
+public record ServerLoginOk(long authToken) implements ServerMessage {}
@@ -0,0 +1,12 @@
+package com.github.goph3rx.auth.messages;
+
+/** Message sent by the server to the client. */
+public sealed interface ServerMessage
+    permits ServerAccountKicked,
+        ServerGGAuth,
+        ServerInit,
+        ServerLoginFail,
+        ServerLoginOk,
+        ServerPlayFail,
+        ServerPlayOk,
+        ServerServerList {}
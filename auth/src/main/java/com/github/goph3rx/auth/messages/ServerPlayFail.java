@@ -1,8 +1,11 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /**
  * Response to indicate a failed transfer.
  *
  * @param reason Reason for the failure.
  */
-public record ServerPlayFail(LoginFailReason reason) {}
+@Encode(opcode = 0x06)
+public record ServerPlayFail(LoginFailReason reason) implements ServerMessage {}
@@ -1,8 +1,11 @@
 package com.github.goph3rx.auth.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /**
  * Response that completes the world transfer.
  *
  * @param playToken Second part of the transfer token.
  */
-public record ServerPlayOk(long playToken) {}
+@Encode(opcode = 0x07)
+public record ServerPlayOk(long playToken) implements ServerMessage {}
@@ -7,6 +7,6 @@ import java.util.List;
  * Response used to display the list of available worlds.
  *
  * @param lastWorld Last world entered.
- * @param worlds List of worlds.
+ * @param worlds List of worlds, must not be modified afterwards.
  */
-public record ServerServerList(int lastWorld, List<World> worlds) {}
+public record ServerServerList(int lastWorld, List<World> worlds) implements ServerMessage {}
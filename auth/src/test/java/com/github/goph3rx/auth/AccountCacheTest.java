@@ -0,0 +1,99 @@
+package com.github.goph3rx.auth;
+
+import static org.junit.Assert.*;
+
+import com.github.goph3rx.account.Account;
+import com.github.goph3rx.account.AccountCache;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class AccountCacheTest {
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private Optional<Account> load(String username) {
+    loads.incrementAndGet();
+    return Optional.of(new Account(username, "", "", -1, Optional.empty()));
+  }
+
+  @Test
+  public void getDisabled() {
+    // Given
+    var cache = new AccountCache(0, 60, 60);
+    cache.get("hello", this::load);
+
+    // When
+    var result = cache.get("hello", this::load);
+
+    // Then
+    assertEquals("hello", result.orElseThrow().username());
+    assertEquals(2, loads.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void getNegativeDisabled() {
+    // Given
+    var cache = new AccountCache(10, 60, 0);
+    cache.get("hello", username -> Optional.empty());
+
+    // When
+    var result = cache.get("hello", this::load);
+
+    // Then
+    assertTrue(result.isPresent());
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void getEvictsOldest() {
+    // Given
+    var cache = new AccountCache(2, 60, 60);
+    cache.get("a", this::load);
+    cache.get("b", this::load);
+    cache.get("c", this::load);
+
+    // When
+    cache.get("c", this::load);
+    cache.get("b", this::load);
+    cache.get("a", this::load);
+
+    // Then
+    assertEquals(2, cache.size());
+    assertEquals(4, loads.get());
+  }
+
+  @Test
+  public void invalidate() {
+    // Given
+    var cache = new AccountCache(10, 60, 60);
+    cache.get("hello", this::load);
+
+    // When
+    cache.invalidate("hello");
+    cache.get("hello", this::load);
+
+    // Then
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void invalidateWhilstLoading() {
+    // Given
+    var cache = new AccountCache(10, 60, 60);
+
+    // When
+    cache.get(
+        "hello",
+        username -> {
+          var result = load(username);
+          cache.invalidate(username);
+          return result;
+        });
+    cache.get("hello", this::load);
+
+    // Then
+    assertEquals(2, loads.get());
+    assertEquals(1, cache.size());
+  }
+}
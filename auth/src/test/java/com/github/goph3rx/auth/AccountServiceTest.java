@@ -2,13 +2,23 @@ package com.github.goph3rx.auth;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.github.goph3rx.account.Account;
+import com.github.goph3rx.account.AccountCache;
 import com.github.goph3rx.account.AccountService;
 import com.github.goph3rx.account.IAccountDatabase;
+import java.util.Map;
 import java.util.Optional;
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -17,6 +27,11 @@ public class AccountServiceTest extends MockitoTest {
   @Mock private IAccountDatabase database;
   @InjectMocks private AccountService service;
 
+  @Before
+  public void setUp() {
+    service.cache = new AccountCache(100, 60, 60);
+  }
+
   @Test
   public void findNotFound() {
     // Given
@@ -77,4 +92,161 @@ public class AccountServiceTest extends MockitoTest {
     // Then
     verify(database).setLastWorld("hello", 3);
   }
+
+  @Test
+  public void findCached() {
+    // Given
+    var expected =
+        Optional.of(
+            new Account(
+                "hello",
+                "1lW97hYhtDwM1QE0y25vJA==",
+                "zdzywoYQaRFgkClsIo6FWQ7x2U0NHtv2u0dhKIFavFw=",
+                -1,
+                Optional.empty()));
+    when(database.fetch("hello")).thenReturn(expected);
+    service.find("hello", "wrong");
+
+    // When
+    var actual = service.find("hello", "world");
+
+    // Then
+    assertEquals(expected, actual);
+    verify(database).fetch("hello");
+  }
+
+  @Test
+  public void findNotFoundCached() {
+    // Given
+    when(database.fetch("hello")).thenReturn(Optional.empty());
+    service.find("hello", "world");
+
+    // When
+    var account = service.find("hello", "world");
+
+    // Then
+    assertTrue(account.isEmpty());
+    verify(database).fetch("hello");
+  }
+
+  @Test
+  public void setLastWorldInvalidates() {
+    // Given
+    when(database.fetch("hello")).thenReturn(Optional.empty());
+    service.find("hello", "world");
+
+    // When
+    service.setLastWorld("hello", 3);
+    service.find("hello", "world");
+
+    // Then
+    verify(database, times(2)).fetch("hello");
+  }
+
+  @Test
+  public void invalidate() {
+    // Given
+    when(database.fetch("hello")).thenReturn(Optional.empty());
+    service.find("hello", "world");
+
+    // When
+    service.invalidate("hello");
+    service.find("hello", "world");
+
+    // Then
+    verify(database, times(2)).fetch("hello");
+  }
+
+  @Test
+  public void setLastWorldQueued() {
+    // Given
+    service.flushMillis = 1000;
+    service.batchSize = 500;
+    when(database.fetch("hello"))
+        .thenReturn(
+            Optional.of(
+                new Account(
+                    "hello",
+                    "1lW97hYhtDwM1QE0y25vJA==",
+                    "zdzywoYQaRFgkClsIo6FWQ7x2U0NHtv2u0dhKIFavFw=",
+                    -1,
+                    Optional.empty())));
+
+    // When
+    service.setLastWorld("hello", 3);
+    service.setLastWorld("hello", 4);
+    var account = service.find("hello", "world");
+
+    // Then
+    verify(database, never()).setLastWorld(anyString(), anyInt());
+    assertEquals(4, account.orElseThrow().lastWorld());
+  }
+
+  @Test
+  public void stopFlushes() {
+    // Given
+    service.flushMillis = 1000;
+    service.batchSize = 500;
+    service.setLastWorld("hello", 3);
+    service.setLastWorld("hello", 4);
+    service.setLastWorld("world", 5);
+
+    // When
+    service.stop();
+
+    // Then
+    verify(database).setLastWorlds(Map.of("hello", 4, "world", 5));
+  }
+
+  @Test
+  public void flushBatches() {
+    // Given
+    service.flushMillis = 1000;
+    service.batchSize = 2;
+    service.setLastWorld("a", 1);
+    service.setLastWorld("b", 2);
+    service.setLastWorld("c", 3);
+
+    // When
+    service.flush();
+
+    // Then
+    verify(database, times(2)).setLastWorlds(anyMap());
+  }
+
+  @Test
+  public void flushWritesOnlyPending() {
+    // Given
+    service.flushMillis = 60000;
+    service.batchSize = 500;
+    service.setLastWorld("a", 1);
+    doAnswer(
+            invocation -> {
+              // Keeps coming whilst writing
+              service.setLastWorld("b", 2);
+              return null;
+            })
+        .when(database)
+        .setLastWorlds(Map.of("a", 1));
+
+    // When
+    service.flush();
+
+    // Then
+    verify(database).setLastWorlds(Map.of("a", 1));
+    verify(database, never()).setLastWorlds(Map.of("b", 2));
+  }
+
+  @Test
+  public void setLastWorldBatchSizeReached() {
+    // Given
+    service.flushMillis = 60000;
+    service.batchSize = 1;
+
+    // When
+    service.setLastWorld("hello", 3);
+
+    // Then
+    verify(database, timeout(1000)).setLastWorlds(Map.of("hello", 3));
+  }
 }
@@ -0,0 +1,76 @@
+package com.github.goph3rx.auth;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AuthAdmissionTest {
+  private static final InetAddress first = InetAddress.getLoopbackAddress();
+  private static final InetAddress second = new InetSocketAddress("10.0.0.1", 0).getAddress();
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  public void admitBurst() {
+    // Given
+    var admission = new AuthAdmission(1, 2, 0);
+
+    // When
+    var firstResult = admission.admit(first, 0);
+    var secondResult = admission.admit(first, 0);
+    var thirdResult = admission.admit(first, 0);
+
+    // Then
+    assertTrue(firstResult.isPresent());
+    assertTrue(secondResult.isPresent());
+    assertTrue(thirdResult.isEmpty());
+  }
+
+  @Test
+  public void admitRefilled() {
+    // Given
+    var admission = new AuthAdmission(1, 1, 0);
+    admission.admit(first, 0);
+
+    // When
+    var early = admission.admit(first, SECOND / 2);
+    var later = admission.admit(first, SECOND);
+
+    // Then
+    assertTrue(early.isEmpty());
+    assertTrue(later.isPresent());
+  }
+
+  @Test
+  public void admitOtherAddress() {
+    // Given
+    var admission = new AuthAdmission(1, 1, 0);
+    admission.admit(first, 0);
+
+    // When
+    var result = admission.admit(second, 0);
+
+    // Then
+    assertTrue(result.isPresent());
+  }
+
+  @Test
+  public void admitTooManyHandshakes() {
+    // Given
+    var admission = new AuthAdmission(0, 0, 1);
+    var handshake = admission.admit(first, 0).orElseThrow();
+
+    // When
+    var rejected = admission.admit(second, 0);
+    handshake.finish();
+    handshake.finish();
+    var admitted = admission.admit(second, 0);
+
+    // Then
+    assertTrue(rejected.isEmpty());
+    assertTrue(admitted.isPresent());
+    assertEquals(1, admission.getHandshakeCount());
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.goph3rx.auth;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import javax.crypto.ShortBufferException;
+import org.junit.Test;
+
+public class AuthBlowfishEngineTest {
+  @Test
+  public void encrypt() {
+    // Given
+    var buffer = HexFormat.of().parseHex("0102030405060708090a0b0c0d0e0f10");
+    var cipher = new AuthBlowfishEngine();
+
+    // When
+    var length = cipher.encrypt(buffer, 0, buffer.length);
+
+    // Then
+    assertEquals(16, length);
+    assertEquals("569a83df25c8816a99368a84726f4fd7", HexFormat.of().formatHex(buffer));
+  }
+
+  @Test
+  public void decrypt() {
+    // Given
+    var buffer = HexFormat.of().parseHex("0102030405060708090a0b0c0d0e0f10");
+    var cipher = new AuthBlowfishEngine();
+
+    // When
+    var length = cipher.decrypt(buffer, 0, buffer.length);
+
+    // Then
+    assertEquals(16, length);
+    assertEquals("741fe2984851ecb0544f3ea3f29bcd35", HexFormat.of().formatHex(buffer));
+  }
+
+  @Test
+  public void sameAsReference() throws ShortBufferException {
+    // Given
+    var random = new Random(42);
+    for (var i = 0; i < 100; i++) {
+      var key = new byte[16];
+      random.nextBytes(key);
+      var data = new byte[8 + random.nextInt(256) * 8];
+      random.nextBytes(data);
+      var expected = Arrays.copyOf(data, data.length);
+      var actual = Arrays.copyOf(data, data.length);
+      var reference = new AuthBlowfish(key);
+      var engine = new AuthBlowfishEngine(key);
+
+      // When/Then
+      reference.encrypt(expected, 0, expected.length);
+      engine.encrypt(actual, 0, actual.length);
+      assertArrayEquals(expected, actual);
+      reference.decrypt(expected, 0, expected.length);
+      engine.decrypt(actual, 0, actual.length);
+      assertArrayEquals(data, actual);
+      assertArrayEquals(expected, actual);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.github.goph3rx.auth;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AuthBufferPoolTest {
+  private final AuthBufferPool pool = new AuthBufferPool(16, 1);
+
+  @Test
+  public void leaseNew() {
+    // When
+    var buffer = pool.lease();
+
+    // Then
+    assertEquals(16, buffer.length);
+    assertEquals(0, pool.size());
+  }
+
+  @Test
+  public void leaseReused() {
+    // Given
+    var buffer = pool.lease();
+    buffer[0] = 1;
+    buffer[3] = 1;
+    pool.release(buffer, 4);
+
+    // When
+    var result = pool.lease();
+
+    // Then
+    assertSame(buffer, result);
+    assertArrayEquals(new byte[16], result);
+  }
+
+  @Test
+  public void releaseFull() {
+    // Given
+    var first = pool.lease();
+    var second = pool.lease();
+
+    // When
+    pool.release(first, 0);
+    pool.release(second, 0);
+
+    // Then
+    assertEquals(1, pool.size());
+    assertSame(first, pool.lease());
+    assertNotSame(second, pool.lease());
+  }
+}
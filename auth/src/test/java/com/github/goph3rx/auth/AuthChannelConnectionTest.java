@@ -0,0 +1,183 @@
+package com.github.goph3rx.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+import com.github.goph3rx.auth.messages.ClientRequestServerList;
+import com.github.goph3rx.auth.messages.LoginFailReason;
+import com.github.goph3rx.auth.messages.ServerLoginFail;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.crypto.ShortBufferException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+public class AuthChannelConnectionTest extends MockitoTest {
+  @Mock private AuthClient client;
+  private ServerSocketChannel server;
+  private Socket socket;
+  private AuthEventLoop loop;
+  private ExecutorService executor;
+  private SocketChannel channel;
+  private AuthChannelConnection connection;
+
+  @Before
+  public void setUp() throws IOException {
+    server =
+        ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    socket = new Socket();
+    socket.connect(server.getLocalAddress());
+    channel = server.accept();
+    channel.configureBlocking(false);
+    loop = new AuthEventLoop();
+    Thread.ofPlatform().start(loop);
+    executor = Executors.newVirtualThreadPerTaskExecutor();
+    connection =
+        new AuthChannelConnection(channel, new AuthCodec(), new AuthBlowfish(), 0, loop, executor);
+    connection.setClient(client);
+    loop.register(connection);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    socket.close();
+    connection.close();
+    loop.close();
+    executor.shutdown();
+    server.close();
+  }
+
+  @Test
+  public void init() {
+    // Then
+    verify(client, timeout(5000)).init();
+  }
+
+  @Test
+  public void receive() throws IOException, ShortBufferException {
+    // Given
+    var packet = ByteBuffer.allocate(36).order(ByteOrder.LITTLE_ENDIAN);
+    packet.put(encodeServerList(1)).put(encodeServerList(2));
+
+    // When
+    socket.getOutputStream().write(packet.array());
+
+    // Then
+    var inOrder = inOrder(client);
+    inOrder.verify(client, timeout(5000)).init();
+    inOrder.verify(client, timeout(5000)).handle(new ClientRequestServerList(1));
+    inOrder.verify(client, timeout(5000)).handle(new ClientRequestServerList(2));
+  }
+
+  @Test
+  public void receiveSplit() throws IOException, ShortBufferException, InterruptedException {
+    // Given
+    var packet = encodeServerList(1);
+    var output = socket.getOutputStream();
+    verify(client, timeout(5000)).init();
+
+    // When
+    output.write(packet, 0, 7);
+    output.flush();
+    Thread.sleep(100);
+    output.write(packet, 7, packet.length - 7);
+
+    // Then
+    verify(client, timeout(5000)).handle(new ClientRequestServerList(1));
+  }
+
+  @Test
+  public void receiveInvalidSize() throws IOException {
+    // When
+    socket.getOutputStream().write(new byte[] {(byte) 0xff, (byte) 0xff});
+
+    // Then
+    verify(client, timeout(5000)).disconnect();
+  }
+
+  @Test
+  public void receiveEndOfStream() throws IOException {
+    // When
+    socket.shutdownOutput();
+
+    // Then
+    verify(client, timeout(5000)).disconnect();
+  }
+
+  @Test
+  public void send() throws IOException, ShortBufferException {
+    // Given
+    verify(client, timeout(5000)).init();
+
+    // When
+    connection.send(new ServerLoginFail(LoginFailReason.PASS_WRONG));
+
+    // Then
+    var packet = socket.getInputStream().readNBytes(18);
+    assertEquals(18, ByteBuffer.wrap(packet).order(ByteOrder.LITTLE_ENDIAN).getShort());
+    new AuthBlowfish().decrypt(packet, 2, 16);
+    assertEquals(0x01, packet[2]);
+    assertEquals(0x02, packet[3]);
+  }
+
+  @Test
+  public void sendInOrder() throws IOException, ShortBufferException {
+    // Given
+    verify(client, timeout(5000)).init();
+
+    // When
+    connection.send(new ServerLoginFail(LoginFailReason.PASS_WRONG));
+    connection.send(new ServerLoginFail(LoginFailReason.ACCESS_FAILED));
+
+    // Then
+    var crypt = new AuthBlowfish();
+    var first = socket.getInputStream().readNBytes(18);
+    crypt.decrypt(first, 2, 16);
+    assertEquals(0x02, first[3]);
+    var second = socket.getInputStream().readNBytes(18);
+    crypt.decrypt(second, 2, 16);
+    assertEquals(0x04, second[3]);
+  }
+
+  /**
+   * Build a complete packet for the server list request.
+   *
+   * @param authToken Token.
+   * @return Packet.
+   */
+  private static byte[] encodeServerList(long authToken) throws ShortBufferException {
+    var packet = ByteBuffer.allocate(18).order(ByteOrder.LITTLE_ENDIAN);
+    packet.putShort((short) 18).put((byte) 0x05).putLong(authToken);
+    var array = packet.array();
+    var checksum = AuthCryptUtil.calculateChecksum(array, 2, 12);
+    packet.putInt(14, checksum);
+    new AuthBlowfish().encrypt(array, 2, 16);
+    return array;
+  }
+
+  @Test
+  public void sendFailDisconnects() throws IOException {
+    // Given
+    channel.shutdownOutput();
+
+    // When
+    try {
+      connection.send(new ServerLoginFail(LoginFailReason.PASS_WRONG));
+    } catch (IOException e) {
+      // Expected, the sending thread is the one that writes
+    }
+
+    // Then
+    verify(client, timeout(5000)).disconnect();
+  }
+}
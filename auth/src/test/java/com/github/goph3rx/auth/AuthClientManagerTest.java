@@ -1,7 +1,7 @@
 package com.github.goph3rx.auth;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -9,6 +9,7 @@ import org.mockito.Mock;
 
 public class AuthClientManagerTest extends MockitoTest {
   @Mock private AuthClient client;
+  @Mock private AuthClient other;
   private AuthClientManager manager;
 
   @Before
@@ -19,21 +20,147 @@ public class AuthClientManagerTest extends MockitoTest {
   @Test
   public void add() {
     // Given
-    when(client.getUsername()).thenReturn("hello");
     manager.add(client);
 
     // When
     var result = manager.find("hello");
 
+    // Then
+    assertTrue(result.isEmpty());
+    assertEquals(1, manager.getPendingCount());
+    assertEquals(0, manager.getSessionCount());
+  }
+
+  @Test
+  public void claim() {
+    // Given
+    manager.add(client);
+    manager.claim("hello", client);
+
+    // When
+    var result = manager.find("hello");
+
     // Then
     assertTrue(result.isPresent());
     assertSame(result.get(), client);
+    assertEquals(0, manager.getPendingCount());
+    assertEquals(1, manager.getSessionCount());
+  }
+
+  @Test
+  public void claimDuplicate() {
+    // Given
+    manager.add(client);
+    manager.add(other);
+    manager.claim("hello", client);
+
+    // When
+    var result = manager.claim("hello", other);
+
+    // Then
+    assertTrue(result.isPresent());
+    assertSame(result.get(), client);
+    assertSame(manager.find("hello").orElseThrow(), client);
+  }
+
+  @Test
+  public void claimRemoved() {
+    // Given
+    manager.add(client);
+    manager.remove(client);
+
+    // When
+    var result = manager.claim("hello", client);
+
+    // Then
+    assertTrue(result.isEmpty());
+    assertTrue(manager.find("hello").isEmpty());
+  }
+
+  @Test
+  public void release() {
+    // Given
+    manager.add(client);
+    manager.claim("hello", client);
+
+    // When
+    manager.release("hello", client);
+
+    // Then
+    assertTrue(manager.find("hello").isEmpty());
+    assertEquals(1, manager.getPendingCount());
+    assertEquals(0, manager.getSessionCount());
+    assertTrue(manager.claim("hello", other).isEmpty());
+  }
+
+  @Test
+  public void claimAnother() {
+    // Given
+    manager.add(client);
+    manager.claim("hello", client);
+
+    // When
+    var result = manager.claim("world", client);
+
+    // Then
+    assertTrue(result.isEmpty());
+    assertTrue(manager.find("hello").isEmpty());
+    assertSame(manager.find("world").orElseThrow(), client);
+    assertEquals(1, manager.getSessionCount());
+  }
+
+  @Test
+  public void claimAnotherRemove() {
+    // Given
+    manager.add(client);
+    manager.claim("hello", client);
+    manager.claim("world", client);
+
+    // When
+    manager.remove(client);
+
+    // Then
+    assertEquals(0, manager.getPendingCount());
+    assertEquals(0, manager.getSessionCount());
+  }
+
+  @Test
+  public void releaseClaimAgain() {
+    // Given
+    manager.add(client);
+    manager.claim("hello", client);
+    manager.release("hello", client);
+
+    // When
+    var result = manager.claim("hello", client);
+
+    // Then
+    assertTrue(result.isEmpty());
+    assertSame(manager.find("hello").orElseThrow(), client);
+    assertEquals(0, manager.getPendingCount());
+    assertEquals(1, manager.getSessionCount());
+  }
+
+  @Test
+  public void releaseRemove() {
+    // Given
+    manager.add(client);
+    manager.claim("hello", client);
+    manager.release("hello", client);
+
+    // When
+    manager.remove(client);
+
+    // Then
+    assertEquals(0, manager.getPendingCount());
+    assertEquals(0, manager.getSessionCount());
   }
 
   @Test
   public void remove() {
     // Given
     manager.add(client);
+    manager.claim("hello", client);
     manager.remove(client);
 
     // When
@@ -41,5 +168,23 @@ public class AuthClientManagerTest extends MockitoTest {
 
     // Then
     assertTrue(result.isEmpty());
+    assertEquals(0, manager.getPendingCount());
+    assertEquals(0, manager.getSessionCount());
+  }
+
+  @Test
+  public void disconnectAll() {
+    // Given
+    manager.add(client);
+    manager.add(other);
+    manager.claim("hello", other);
+
+    // When
+    var result = manager.disconnectAll();
+
+    // Then
+    assertEquals(2, result);
+    verify(client).disconnect();
+    verify(other).disconnect();
   }
 }
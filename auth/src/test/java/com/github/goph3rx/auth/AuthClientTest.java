@@ -13,12 +13,14 @@ import com.github.goph3rx.world.IWorldService;
 import com.github.goph3rx.world.World;
 import java.io.IOException;
 import java.net.Inet4Address;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.time.LocalDateTime;
 import java.util.HexFormat;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.*;
 
@@ -31,6 +33,7 @@ public class AuthClientTest extends MockitoTest {
   private static final Transfer TRANSFER = new Transfer("hello", 123, 456, LocalDateTime.now());
 
   @Mock private IAuthConnection connection;
+  @Mock private IAuthCredentialKeys credentialKeys;
   @Mock private IAuthCredentialKey credentialKey;
   @Mock private IAuthClientManager clientManager;
   @Mock private IAccountService accounts;
@@ -40,6 +43,13 @@ public class AuthClientTest extends MockitoTest {
 
   @Captor private ArgumentCaptor<Object> response;
 
+  @Before
+  public void setUp() {
+    when(credentialKeys.select()).thenReturn(credentialKey);
+    client.credentialKeys = credentialKeys;
+    client.setCredentialKey(credentialKey);
+  }
+
   @Test
   public void initFail() {
     // Given
@@ -144,7 +154,7 @@ public class AuthClientTest extends MockitoTest {
     var request = new ClientRequestAuthLogin(CREDENTIALS);
     when(accounts.find("hello", "world")).thenReturn(Optional.of(ACCOUNT));
     var duplicate = mock(AuthClient.class);
-    when(clientManager.find("hello")).thenReturn(Optional.of(duplicate));
+    when(clientManager.claim("hello", client)).thenReturn(Optional.of(duplicate));
 
     // When
     client.handle(request);
@@ -156,6 +166,7 @@ public class AuthClientTest extends MockitoTest {
     verify(duplicate).send(response.capture());
     loginFail = (ServerLoginFail) response.getValue();
     assertEquals(LoginFailReason.ACCOUNT_IN_USE, loginFail.reason());
+    assertEquals("", client.getUsername());
   }
 
   @Test
@@ -163,7 +174,7 @@ public class AuthClientTest extends MockitoTest {
     // Given
     var request = new ClientRequestAuthLogin(CREDENTIALS);
     when(accounts.find("hello", "world")).thenReturn(Optional.of(ACCOUNT));
-    when(clientManager.find("hello")).thenReturn(Optional.empty());
+    when(clientManager.claim("hello", client)).thenReturn(Optional.empty());
     when(transfers.generate("hello")).thenThrow(new RuntimeException("DB Fail"));
 
     // When
@@ -173,6 +184,8 @@ public class AuthClientTest extends MockitoTest {
     verify(connection).send(response.capture());
     var loginFail = (ServerLoginFail) response.getValue();
     assertEquals(LoginFailReason.SYSTEM_ERROR, loginFail.reason());
+    verify(clientManager).release("hello", client);
+    assertEquals("", client.getUsername());
   }
 
   @Test
@@ -180,7 +193,7 @@ public class AuthClientTest extends MockitoTest {
     // Given
     var request = new ClientRequestAuthLogin(CREDENTIALS);
     when(accounts.find("hello", "world")).thenReturn(Optional.of(ACCOUNT));
-    when(clientManager.find("hello")).thenReturn(Optional.empty());
+    when(clientManager.claim("hello", client)).thenReturn(Optional.empty());
     when(transfers.generate("hello")).thenReturn(TRANSFER);
 
     // When
@@ -190,6 +203,24 @@ public class AuthClientTest extends MockitoTest {
     verify(connection).send(response.capture());
     var loginOk = (ServerLoginOk) response.getValue();
     assertEquals(123, loginOk.authToken());
+    assertEquals("hello", client.getUsername());
+  }
+
+  @Test
+  public void handleRequestAuthLoginSuccessFinishesHandshake() throws IOException {
+    // Given
+    var admission = new AuthAdmission(0, 0, 1);
+    client.setHandshake(admission.admit(InetAddress.getLoopbackAddress()).orElseThrow());
+    var request = new ClientRequestAuthLogin(CREDENTIALS);
+    when(accounts.find("hello", "world")).thenReturn(Optional.of(ACCOUNT));
+    when(clientManager.claim("hello", client)).thenReturn(Optional.empty());
+    when(transfers.generate("hello")).thenReturn(TRANSFER);
+
+    // When
+    client.handle(request);
+
+    // Then
+    assertEquals(0, admission.getHandshakeCount());
   }
 
   @Test(expected = NoSuchElementException.class)
@@ -310,4 +341,17 @@ public class AuthClientTest extends MockitoTest {
     var playOk = (ServerPlayOk) response.getValue();
     assertEquals(TRANSFER.play(), playOk.playToken());
   }
+
+  @Test
+  public void disconnectTwice() {
+    // Given
+    client.disconnect();
+
+    // When
+    client.disconnect();
+
+    // Then
+    verify(connection).close();
+    verify(clientManager).remove(client);
+  }
 }
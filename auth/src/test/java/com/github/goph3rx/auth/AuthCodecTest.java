@@ -29,7 +29,7 @@ public class AuthCodecTest {
             0xdeadbeef,
             HexFormat.of()
                 .parseHex(
-                    "9a277669023723947d0ebdccef967a24c715018df6ce66414fccd0f5bab54124b8caac6d7f52f8bbbab7de926b4f0ac4cc84793196e44928774a57737d0e4ee02962952257506e898846e353fa5fee31409a1d32124fb8df53d969dd7aa222866fa85e106f8a07e333d8ded4b10a8300b32d5f47cc5eab14033fa2bc0950b5c9"),
+                    "768ca46255674d1df5485e9f1556e7b0928f1cbfe481de9e1c15b928c01763a2d762f27d10d8ff58896f0046da4589c47fa926765abae23c7475f5cf745efb295fee3140023723947d0ebdccefccc0c6fb15018df6ce66414fccd0f5bab54124b8caac6d7f52f8bbbab7de926b4f0ac4cc84793196e44928774a57737d0e4ee0"),
             HexFormat.of().parseHex("060708090a"));
 
     // When
@@ -108,6 +108,21 @@ public class AuthCodecTest {
         HexFormat.of().formatHex(buffer, 0, length));
   }
 
+  @Test
+  public void encodeServerListReused() {
+    // Given
+    var worlds = List.of(new World(1, InetAddress.getLoopbackAddress(), 2106, 1000, 5000, true));
+    codec.encode(new ServerServerList(1, worlds), buffer, 0);
+
+    // When
+    var length = codec.encode(new ServerServerList(2, worlds), buffer, 0);
+
+    // Then
+    assertEquals(
+        "040102017f0000013a0800000001e8038813010000000000",
+        HexFormat.of().formatHex(buffer, 0, length));
+  }
+
   @Test
   public void encodePlayFail() {
     // Given
@@ -0,0 +1,69 @@
+package com.github.goph3rx.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.github.goph3rx.auth.messages.LoginFailReason;
+import com.github.goph3rx.auth.messages.ServerLoginFail;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import javax.crypto.ShortBufferException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AuthConnectionTest {
+  private ServerSocket server;
+  private Socket socket;
+  private Socket accepted;
+  private AuthConnection connection;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    socket = new Socket(server.getInetAddress(), server.getLocalPort());
+    accepted = server.accept();
+    connection = new AuthConnection(accepted, new AuthCodec(), new AuthBlowfish(), 0);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    socket.close();
+    connection.close();
+    server.close();
+  }
+
+  @Test
+  public void sendInOrder() throws IOException, ShortBufferException {
+    // When
+    connection.send(new ServerLoginFail(LoginFailReason.PASS_WRONG));
+    connection.send(new ServerLoginFail(LoginFailReason.ACCESS_FAILED));
+
+    // Then
+    var crypt = new AuthBlowfish();
+    var first = socket.getInputStream().readNBytes(18);
+    crypt.decrypt(first, 2, 16);
+    assertEquals(0x02, first[3]);
+    var second = socket.getInputStream().readNBytes(18);
+    crypt.decrypt(second, 2, 16);
+    assertEquals(0x04, second[3]);
+  }
+
+  @Test
+  public void sendFailCloses() throws IOException {
+    // Given
+    accepted.shutdownOutput();
+
+    // When
+    try {
+      connection.send(new ServerLoginFail(LoginFailReason.PASS_WRONG));
+    } catch (IOException e) {
+      // Expected, the sending thread is the one that writes
+    }
+
+    // Then
+    assertTrue(accepted.isClosed());
+  }
+}
@@ -0,0 +1,55 @@
+package com.github.goph3rx.auth;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import org.junit.Test;
+
+public class AuthCredentialKeyPoolTest {
+  @Test(expected = IllegalArgumentException.class)
+  public void createEmpty() {
+    // When/Then
+    new AuthCredentialKeyPool(0, 0);
+  }
+
+  @Test
+  public void select() {
+    // Given
+    var pool = new AuthCredentialKeyPool(2, 0);
+    var keys = new HashSet<IAuthCredentialKey>();
+
+    // When
+    for (var i = 0; i < 100; i++) {
+      keys.add(pool.select());
+    }
+
+    // Then
+    assertEquals(2, keys.size());
+  }
+
+  @Test
+  public void rotate() {
+    // Given
+    var pool = new AuthCredentialKeyPool(1, 0);
+    var key = pool.select();
+
+    // When
+    pool.rotate();
+
+    // Then
+    assertNotSame(key, pool.select());
+  }
+
+  @Test
+  public void selectSingle() {
+    // Given
+    var pool = new AuthCredentialKeyPool(1, 0);
+
+    // When
+    var key = pool.select();
+
+    // Then
+    assertSame(key, pool.select());
+    assertEquals(128, key.getModulus().length);
+  }
+}
@@ -1,7 +1,14 @@
 package com.github.goph3rx.auth;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Random;
+import javax.crypto.Cipher;
 import org.junit.Test;
 
 public class AuthCredentialKeyTest {
@@ -17,6 +24,18 @@ public class AuthCredentialKeyTest {
     assertEquals(128, modulus.length);
   }
 
+  @Test
+  public void getModulusShared() {
+    // Given
+    var credentialKey = new AuthCredentialKey();
+
+    // When
+    var modulus = credentialKey.getModulus();
+
+    // Then
+    assertSame(modulus, credentialKey.getModulus());
+  }
+
   @Test(expected = RuntimeException.class)
   public void decryptTooShort() {
     // Given
@@ -36,4 +55,29 @@ public class AuthCredentialKeyTest {
     // When/Then
     credentialKey.decrypt(credentials);
   }
+
+  @Test
+  public void decryptRepeated() throws GeneralSecurityException {
+    // Given
+    var credentialKey = new AuthCredentialKey();
+    var modulus = credentialKey.getModulus().clone();
+    AuthCryptUtil.unscrambleModulus(modulus);
+    var spec = new RSAPublicKeySpec(new BigInteger(1, modulus), RSAKeyGenParameterSpec.F4);
+    var cipher = Cipher.getInstance("RSA/ECB/NoPadding");
+    cipher.init(Cipher.ENCRYPT_MODE, KeyFactory.getInstance("RSA").generatePublic(spec));
+    var random = new Random(42);
+
+    for (var i = 0; i < 3; i++) {
+      var expected = new byte[128];
+      random.nextBytes(expected);
+      expected[0] = 0;
+      var credentials = cipher.doFinal(expected);
+
+      // When
+      credentialKey.decrypt(credentials);
+
+      // Then
+      assertArrayEquals(expected, credentials);
+    }
+  }
 }
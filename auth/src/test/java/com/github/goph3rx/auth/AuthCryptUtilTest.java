@@ -45,6 +45,35 @@ public class AuthCryptUtilTest {
     assertEquals("01020304f1c2b3eef4c4b4e6", HexFormat.of().formatHex(buffer));
   }
 
+  @Test
+  public void unscrambleModulus() {
+    // Given
+    var modulus =
+        HexFormat.of()
+            .parseHex(
+                "768ca46255674d1df5485e9f1556e7b0928f1cbfe481de9e1c15b928c01763a2d762f27d10d8ff58896f0046da4589c47fa926765abae23c7475f5cf745efb295fee3140023723947d0ebdccefccc0c6fb15018df6ce66414fccd0f5bab54124b8caac6d7f52f8bbbab7de926b4f0ac4cc84793196e44928774a57737d0e4ee0");
+
+    // When
+    AuthCryptUtil.unscrambleModulus(modulus);
+
+    // Then
+    assertEquals(
+        "9a277669023723947d0ebdccef967a24c715018df6ce66414fccd0f5bab54124b8caac6d7f52f8bbbab7de926b4f0ac4cc84793196e44928774a57737d0e4ee02962952257506e898846e353fa5fee31409a1d32124fb8df53d969dd7aa222866fa85e106f8a07e333d8ded4b10a8300b32d5f47cc5eab14033fa2bc0950b5c9",
+        HexFormat.of().formatHex(modulus));
+  }
+
+  @Test
+  public void unscrambleInit() {
+    // Given
+    var buffer = HexFormat.of().parseHex("01020304f1c2b3eef4c4b4e6");
+
+    // When
+    AuthCryptUtil.unscrambleInit(buffer, 0, buffer.length);
+
+    // Then
+    assertEquals("0102030405060708f4c4b4e6", HexFormat.of().formatHex(buffer));
+  }
+
   @Test(expected = IndexOutOfBoundsException.class)
   public void scrambleInitOverflow() {
     // Given
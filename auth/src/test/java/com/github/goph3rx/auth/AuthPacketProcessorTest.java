@@ -0,0 +1,82 @@
+package com.github.goph3rx.auth;
+
+import static org.junit.Assert.assertEquals;
+
+import com.github.goph3rx.auth.messages.ClientRequestServerList;
+import com.github.goph3rx.auth.messages.LoginFailReason;
+import com.github.goph3rx.auth.messages.ServerLoginFail;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HexFormat;
+import javax.crypto.ShortBufferException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AuthPacketProcessorTest {
+  private byte[] buffer;
+  private AuthPacketProcessor processor;
+
+  @Before
+  public void setUp() {
+    buffer = new byte[64];
+    processor = new AuthPacketProcessor(new AuthCodec(), new AuthBlowfish(), 0xdeadbeef);
+  }
+
+  @Test
+  public void pack() throws ShortBufferException {
+    // Given
+    var message = new ServerLoginFail(LoginFailReason.PASS_WRONG);
+
+    // When
+    var length = processor.pack(message, buffer, 0);
+
+    // Then
+    assertEquals(18, length);
+    assertEquals(18, ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN).getShort());
+    new AuthBlowfish().decrypt(buffer, 2, 16);
+    assertEquals("01020000000001020000000000000000", HexFormat.of().formatHex(buffer, 2, 18));
+  }
+
+  @Test
+  public void packAtOffset() throws ShortBufferException {
+    // Given
+    var message = new ServerLoginFail(LoginFailReason.PASS_WRONG);
+
+    // When
+    var length = processor.pack(message, buffer, 20);
+
+    // Then
+    assertEquals(18, length);
+    assertEquals(18, ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN).getShort(20));
+    new AuthBlowfish().decrypt(buffer, 22, 16);
+    assertEquals("01020000000001020000000000000000", HexFormat.of().formatHex(buffer, 22, 38));
+    assertEquals("0".repeat(40), HexFormat.of().formatHex(buffer, 0, 20));
+  }
+
+  @Test
+  public void unpack() throws ShortBufferException {
+    // Given
+    var body = HexFormat.of().parseHex("05e30568bbe125f8270400000000000000000000");
+    var checksum = AuthCryptUtil.calculateChecksum(body, 0, 12);
+    ByteBuffer.wrap(body, 12, 4).order(ByteOrder.LITTLE_ENDIAN).putInt(checksum);
+    new AuthBlowfish().encrypt(body, 0, 16);
+    System.arraycopy(body, 0, buffer, 0, 16);
+
+    // When
+    var message = processor.unpack(buffer, 16);
+
+    // Then
+    assertEquals(new ClientRequestServerList(2880093613145458147L), message);
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void unpackInvalidChecksum() throws ShortBufferException {
+    // Given
+    var body = HexFormat.of().parseHex("05e30568bbe125f827040000ffffffff");
+    new AuthBlowfish().encrypt(body, 0, 16);
+    System.arraycopy(body, 0, buffer, 0, 16);
+
+    // When/Then
+    processor.unpack(buffer, 16);
+  }
+}
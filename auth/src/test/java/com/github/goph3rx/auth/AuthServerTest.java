@@ -0,0 +1,262 @@
+package com.github.goph3rx.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+public class AuthServerTest extends MockitoTest {
+  @Mock private AuthComponent component;
+  @Mock private IAuthCredentialKeys credentialKeys;
+  @Mock private IAuthCredentialKey credentialKey;
+  private AuthServer server;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new AuthServer();
+    try (var free = new ServerSocket(0)) {
+      server.port = free.getLocalPort();
+    }
+    server.backlog = 10;
+    server.selectorThreads = 1;
+    server.shutdownTimeoutSeconds = 1;
+    server.admission = new AuthAdmission(0, 0, 0);
+    server.clientManager = new AuthClientManager();
+    when(credentialKeys.select()).thenReturn(credentialKey);
+    when(credentialKey.getModulus()).thenReturn(new byte[128]);
+    doAnswer(
+            invocation -> {
+              AuthClient client = invocation.getArgument(0);
+              client.credentialKeys = credentialKeys;
+              client.clientManager = server.clientManager;
+              return null;
+            })
+        .when(component)
+        .injectClient(any());
+  }
+
+  @Test(timeout = 10000)
+  public void stopBlocking() throws IOException, InterruptedException {
+    // Given
+    server.engine = AuthServer.ENGINE_BLOCKING;
+
+    // When/Then
+    runAndStop();
+  }
+
+  @Test(timeout = 10000)
+  public void stopSelector() throws IOException, InterruptedException {
+    // Given
+    server.engine = AuthServer.ENGINE_SELECTOR;
+
+    // When/Then
+    runAndStop();
+  }
+
+  @Test(timeout = 10000)
+  public void stopWaitsBlocking() throws IOException, InterruptedException {
+    // Given
+    server.engine = AuthServer.ENGINE_BLOCKING;
+
+    // When/Then
+    stopWaits();
+  }
+
+  @Test(timeout = 10000)
+  public void stopWaitsSelector() throws IOException, InterruptedException {
+    // Given
+    server.engine = AuthServer.ENGINE_SELECTOR;
+
+    // When/Then
+    stopWaits();
+  }
+
+  @Test(timeout = 10000)
+  public void stopDisconnectsBlocking() throws IOException, InterruptedException {
+    // Given
+    server.engine = AuthServer.ENGINE_BLOCKING;
+
+    // When/Then
+    stopDisconnects();
+  }
+
+  @Test(timeout = 10000)
+  public void stopDisconnectsSelector() throws IOException, InterruptedException {
+    // Given
+    server.engine = AuthServer.ENGINE_SELECTOR;
+
+    // When/Then
+    stopDisconnects();
+  }
+
+  @Test(timeout = 10000)
+  public void acceptFailBlocking() throws IOException, InterruptedException {
+    // Given
+    server.engine = AuthServer.ENGINE_BLOCKING;
+
+    // When/Then
+    acceptFail();
+  }
+
+  @Test(timeout = 10000)
+  public void acceptFailSelector() throws IOException, InterruptedException {
+    // Given
+    server.engine = AuthServer.ENGINE_SELECTOR;
+
+    // When/Then
+    acceptFail();
+  }
+
+  /**
+   * Stop the server whilst a client is connected, the client leaves before the deadline and the
+   * server waits for it.
+   */
+  private void stopWaits() throws IOException, InterruptedException {
+    // Given
+    server.shutdownTimeoutSeconds = 5;
+    var thread = start();
+    var socket = connectClient();
+    var left = new CountDownLatch(1);
+    Thread.ofPlatform().start(() -> closeLater(socket, left));
+
+    // When
+    var begin = System.nanoTime();
+    server.stop();
+    var elapsed = System.nanoTime() - begin;
+
+    // Then
+    assertEquals(0, left.getCount());
+    assertTrue(elapsed < TimeUnit.SECONDS.toNanos(server.shutdownTimeoutSeconds));
+    thread.join(5000);
+    assertFalse(thread.isAlive());
+  }
+
+  /**
+   * Stop the server whilst a client is connected, the client is still there at the deadline and the
+   * server disconnects it.
+   */
+  private void stopDisconnects() throws IOException, InterruptedException {
+    // Given
+    var thread = start();
+
+    try (var socket = connectClient()) {
+      // When
+      var begin = System.nanoTime();
+      server.stop();
+      var elapsed = System.nanoTime() - begin;
+
+      // Then
+      assertTrue(elapsed >= TimeUnit.SECONDS.toNanos(server.shutdownTimeoutSeconds));
+      assertEquals(-1, socket.getInputStream().read());
+      assertEquals(0, server.clientManager.getPendingCount());
+      thread.join(5000);
+      assertFalse(thread.isAlive());
+    }
+  }
+
+  /** Fail to set up the client and check that the connection is given up. */
+  private void acceptFail() throws IOException, InterruptedException {
+    // Given
+    server.admission = new AuthAdmission(0, 0, 1);
+    doThrow(new RuntimeException("Injection failed")).when(component).injectClient(any());
+    var thread = start();
+
+    // When
+    try (var socket = connect()) {
+      // Then
+      assertEquals(-1, socket.getInputStream().read());
+      assertEquals(0, server.admission.getHandshakeCount());
+    } finally {
+      server.stop();
+      thread.join(5000);
+    }
+  }
+
+  /** Run the server in the background, stop it and check that it exits. */
+  private void runAndStop() throws IOException, InterruptedException {
+    var thread = start();
+    connect().close();
+    server.stop();
+    thread.join(5000);
+    assertFalse(thread.isAlive());
+  }
+
+  /**
+   * Run the server in the background.
+   *
+   * @return Thread running the server.
+   */
+  private Thread start() {
+    var thread =
+        Thread.ofPlatform()
+            .start(
+                () -> {
+                  try {
+                    server.run(component);
+                  } catch (Exception e) {
+                    throw new RuntimeException(e);
+                  }
+                });
+    return thread;
+  }
+
+  /**
+   * Connect to the server, waiting for it to start listening.
+   *
+   * @return Connected socket.
+   */
+  private Socket connect() throws InterruptedException {
+    while (true) {
+      try {
+        return new Socket(InetAddress.getLoopbackAddress(), server.port);
+      } catch (IOException e) {
+        Thread.sleep(10);
+      }
+    }
+  }
+
+  /**
+   * Connect to the server, read the first message and wait until the client is registered.
+   *
+   * @return Connected socket.
+   */
+  private Socket connectClient() throws IOException, InterruptedException {
+    var socket = connect();
+    var input = socket.getInputStream();
+    var header = input.readNBytes(AuthPacketProcessor.HEADER_SIZE);
+    input.skipNBytes(AuthPacketProcessor.readSize(header) - header.length);
+    while (server.clientManager.getPendingCount() == 0) {
+      Thread.sleep(10);
+    }
+    return socket;
+  }
+
+  /**
+   * Close the socket once the server has had time to start stopping.
+   *
+   * @param socket Socket.
+   * @param left Released right before the socket is closed.
+   */
+  private static void closeLater(Socket socket, CountDownLatch left) {
+    try {
+      Thread.sleep(200);
+      left.countDown();
+      socket.close();
+    } catch (IOException | InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.github.goph3rx;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Entry point for running the benchmarks, always reporting the allocation rate. */
+public class BenchmarkMain {
+  /**
+   * Run the benchmarks.
+   *
+   * @param args Command line arguments, same as for JMH.
+   * @throws Exception Benchmarks failed to run.
+   */
+  public static void main(String[] args) throws Exception {
+    var options = new CommandLineOptions(args);
+    if (options.shouldHelp()) {
+      options.showHelp();
+      return;
+    }
+
+    var runner =
+        new Runner(new OptionsBuilder().parent(options).addProfiler(GCProfiler.class).build());
+    if (options.shouldList()) {
+      runner.list();
+      return;
+    }
+    runner.run();
+  }
+}
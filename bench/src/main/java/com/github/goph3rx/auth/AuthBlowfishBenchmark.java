@@ -0,0 +1,69 @@
+package com.github.goph3rx.auth;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.ShortBufferException;
+import org.openjdk.jmh.annotations.*;
+
+/** Comparison of the Blowfish implementations for traffic encryption. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class AuthBlowfishBenchmark {
+  /** Size of the packet to process. */
+  @Param({"16", "184", "1024"})
+  public int size;
+
+  /** Packet to process. */
+  private byte[] buffer;
+  /** Key for the session. */
+  private byte[] key;
+  /** Encryption through JCE. */
+  private AuthBlowfish reference;
+  /** Encryption in plain Java. */
+  private AuthBlowfishEngine engine;
+
+  @Setup
+  public void setUp() {
+    var random = new Random(42);
+    buffer = new byte[size];
+    random.nextBytes(buffer);
+    key = new byte[16];
+    random.nextBytes(key);
+    reference = new AuthBlowfish(key);
+    engine = new AuthBlowfishEngine(key);
+  }
+
+  @Benchmark
+  public int encryptReference() throws ShortBufferException {
+    return reference.encrypt(buffer, 0, buffer.length);
+  }
+
+  @Benchmark
+  public int encryptEngine() {
+    return engine.encrypt(buffer, 0, buffer.length);
+  }
+
+  @Benchmark
+  public int decryptReference() throws ShortBufferException {
+    return reference.decrypt(buffer, 0, buffer.length);
+  }
+
+  @Benchmark
+  public int decryptEngine() {
+    return engine.decrypt(buffer, 0, buffer.length);
+  }
+
+  @Benchmark
+  public IAuthCrypt keyScheduleReference() {
+    return new AuthBlowfish(key);
+  }
+
+  @Benchmark
+  public IAuthCrypt keyScheduleEngine() {
+    return new AuthBlowfishEngine(key);
+  }
+}
@@ -0,0 +1,123 @@
+package com.github.goph3rx.auth;
+
+import com.github.goph3rx.auth.messages.*;
+import com.github.goph3rx.world.World;
+import java.net.InetAddress;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Encoding and decoding of every auth message. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class AuthCodecBenchmark {
+  /** Codec under test. */
+  private final AuthCodec codec = new AuthCodec();
+  /** Buffer for encoding messages. */
+  private final byte[] buffer = new byte[1024];
+
+  /** Message for encoding init. */
+  private ServerInit init;
+  /** Message for encoding server list. */
+  private ServerServerList serverList;
+  /** Packet for decoding login request. */
+  private byte[] requestAuthLogin;
+  /** Packet for decoding server list request. */
+  private byte[] requestServerList;
+  /** Packet for decoding world login request. */
+  private byte[] requestServerLogin;
+  /** Packet for decoding game guard check. */
+  private byte[] authGameGuard;
+
+  @Setup
+  public void setUp() {
+    var random = new Random(42);
+    var modulus = new byte[128];
+    random.nextBytes(modulus);
+    var cryptKey = new byte[16];
+    random.nextBytes(cryptKey);
+    init = new ServerInit(0xdeadbeef, modulus, cryptKey);
+
+    var address = InetAddress.getLoopbackAddress();
+    serverList =
+        new ServerServerList(
+            2,
+            List.of(
+                new World(1, address, 7777, 100, 1000, true),
+                new World(2, address, 7778, 200, 1000, true),
+                new World(3, address, 7779, 0, 1000, false)));
+
+    requestAuthLogin = new byte[130];
+    random.nextBytes(requestAuthLogin);
+    requestAuthLogin[0] = 0x00;
+    requestServerList = HexFormat.of().parseHex("05e30568bbe125f82704");
+    requestServerLogin = HexFormat.of().parseHex("028e92b0e741062dd401");
+    authGameGuard = HexFormat.of().parseHex("0725c7892400000000000000000000000000000000000000");
+  }
+
+  @Benchmark
+  public int encodeInit() {
+    return codec.encode(init, buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeGGAuth() {
+    return codec.encode(new ServerGGAuth(GGAuthResult.SKIP), buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeLoginFail() {
+    return codec.encode(new ServerLoginFail(LoginFailReason.USER_OR_PASS_WRONG), buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeAccountKicked() {
+    return codec.encode(new ServerAccountKicked(AccountKickedReason.PERMANENTLY_BANNED), buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeLoginOk() {
+    return codec.encode(new ServerLoginOk(123), buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeServerList() {
+    return codec.encode(serverList, buffer, 0);
+  }
+
+  @Benchmark
+  public int encodePlayFail() {
+    return codec.encode(new ServerPlayFail(LoginFailReason.ACCESS_FAILED), buffer, 0);
+  }
+
+  @Benchmark
+  public int encodePlayOk() {
+    return codec.encode(new ServerPlayOk(456), buffer, 0);
+  }
+
+  @Benchmark
+  public Object decodeRequestAuthLogin() {
+    return codec.decode(requestAuthLogin, 0, requestAuthLogin.length);
+  }
+
+  @Benchmark
+  public Object decodeRequestServerList() {
+    return codec.decode(requestServerList, 0, requestServerList.length);
+  }
+
+  @Benchmark
+  public Object decodeRequestServerLogin() {
+    return codec.decode(requestServerLogin, 0, requestServerLogin.length);
+  }
+
+  @Benchmark
+  public Object decodeAuthGameGuard() {
+    return codec.decode(authGameGuard, 0, authGameGuard.length);
+  }
+}
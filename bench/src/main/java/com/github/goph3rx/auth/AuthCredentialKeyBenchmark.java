@@ -0,0 +1,64 @@
+package com.github.goph3rx.auth;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Decryption of the login credentials, alone and with several clients logging in at once. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class AuthCredentialKeyBenchmark {
+  /** Key shared by all the clients. */
+  private AuthCredentialKey key;
+
+  @Setup
+  public void setUp() {
+    key = new AuthCredentialKey();
+  }
+
+  @Benchmark
+  public byte[] decrypt(Credentials credentials) {
+    var buffer = credentials.reset();
+    key.decrypt(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  @Threads(4)
+  public byte[] decryptContended(Credentials credentials) {
+    var buffer = credentials.reset();
+    key.decrypt(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public byte[] getModulus() {
+    return key.getModulus();
+  }
+
+  /** Credentials of a single client. */
+  @State(Scope.Thread)
+  public static class Credentials {
+    /** Encrypted credentials, as sent by the client. */
+    private final byte[] encrypted = new byte[128];
+    /** Buffer that is decrypted in place. */
+    private final byte[] buffer = new byte[128];
+
+    @Setup
+    public void setUp() {
+      new Random(42).nextBytes(encrypted);
+      // Must be smaller than the modulus
+      encrypted[0] = 0;
+    }
+
+    /** Restore the encrypted credentials. */
+    byte[] reset() {
+      System.arraycopy(encrypted, 0, buffer, 0, buffer.length);
+      return buffer;
+    }
+  }
+}
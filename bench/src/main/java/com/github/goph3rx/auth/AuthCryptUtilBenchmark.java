@@ -0,0 +1,48 @@
+package com.github.goph3rx.auth;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Checksums and scrambling applied to auth packets. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class AuthCryptUtilBenchmark {
+  /** Size of the packet to process. */
+  @Param({"16", "184", "1024"})
+  public int size;
+
+  /** Packet to process. */
+  private byte[] buffer;
+  /** Modulus of the credential key. */
+  private byte[] modulus;
+
+  @Setup
+  public void setUp() {
+    var random = new Random(42);
+    buffer = new byte[size + 8];
+    random.nextBytes(buffer);
+    modulus = new byte[128];
+    random.nextBytes(modulus);
+  }
+
+  @Benchmark
+  public int calculateChecksum() {
+    return AuthCryptUtil.calculateChecksum(buffer, 0, size);
+  }
+
+  @Benchmark
+  public int scrambleInit() {
+    return AuthCryptUtil.scrambleInit(buffer, 0, size, 0xdeadbeef);
+  }
+
+  @Benchmark
+  public byte[] scrambleModulus() {
+    AuthCryptUtil.scrambleModulus(modulus);
+    return modulus;
+  }
+}
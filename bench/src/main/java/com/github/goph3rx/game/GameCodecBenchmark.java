@@ -0,0 +1,169 @@
+package com.github.goph3rx.game;
+
+import com.github.goph3rx.character.Character;
+import com.github.goph3rx.character.CharacterGender;
+import com.github.goph3rx.character.CharacterRace;
+import com.github.goph3rx.character.CharacterTemplate;
+import com.github.goph3rx.game.messages.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Encoding and decoding of every game message. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class GameCodecBenchmark {
+  /** Codec under test. */
+  private final GameCodec codec = new GameCodec();
+  /** Buffer for encoding messages. */
+  private final byte[] buffer = new byte[8192];
+
+  /** Message for encoding the key. */
+  private ServerKeyPacket keyPacket;
+  /** Message for encoding a full character list. */
+  private ServerCharSelectInfo charSelectInfo;
+  /** Message for encoding the character templates. */
+  private ServerCharTemplates charTemplates;
+  /** Packet for decoding protocol version. */
+  private byte[] protocolVersion;
+  /** Packet for decoding auth login. */
+  private byte[] authLogin;
+  /** Packet for decoding new character request. */
+  private byte[] newCharacter;
+  /** Packet for decoding character creation. */
+  private byte[] charCreate;
+  /** Packet for decoding lobby request. */
+  private byte[] requestGotoLobby;
+  /** Packet for decoding character deletion. */
+  private byte[] charDelete;
+  /** Packet for decoding character restoration. */
+  private byte[] charRestore;
+
+  @Setup
+  public void setUp() {
+    keyPacket = new ServerKeyPacket(HexFormat.of().parseHex("83a5ef0a3caab8af"));
+
+    var now = LocalDateTime.now();
+    var characters = new ArrayList<CharacterInfo>();
+    for (var i = 0; i < 7; i++) {
+      var character =
+          new Character(
+              Character.PREFIX + i,
+              "Character" + i,
+              "account",
+              CharacterRace.HUMAN,
+              0,
+              CharacterGender.MALE,
+              new byte[12],
+              now,
+              i == 0 ? Optional.of(now.plusDays(1)) : Optional.empty(),
+              Optional.of(now.minusMinutes(i)));
+      characters.add(new CharacterInfo(i + 1, character));
+    }
+    charSelectInfo = new ServerCharSelectInfo(characters);
+
+    var templates = new ArrayList<CharacterTemplate>();
+    for (var race : CharacterRace.values()) {
+      templates.add(new CharacterTemplate(race, 0, Optional.empty()));
+    }
+    charTemplates = new ServerCharTemplates(templates);
+
+    protocolVersion = HexFormat.of().parseHex("0e53000000");
+    authLogin =
+        HexFormat.of()
+            .parseHex(
+                "2b7400650073007400000076b6e579670290c1ef9e144baa9a555c010000000000000000000000");
+    newCharacter = HexFormat.of().parseHex("13");
+    charCreate =
+        HexFormat.of()
+            .parseHex(
+                "0c4b0061006d00610065006c00000005000000010000007c000000280000002800000028000000280000002800000028000000060000000000000002000000");
+    requestGotoLobby = HexFormat.of().parseHex("d03600");
+    charDelete = HexFormat.of().parseHex("0d06000000");
+    charRestore = HexFormat.of().parseHex("7b06000000");
+  }
+
+  @Benchmark
+  public int encodeKeyPacket() {
+    return codec.encode(keyPacket, buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeAuthLoginFail() {
+    return codec.encode(
+        new ServerAuthLoginFail(AuthLoginFailReason.SYSTEM_ERROR_LOGIN_LATER), buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeCharSelectInfo() {
+    return codec.encode(charSelectInfo, buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeCharTemplates() {
+    return codec.encode(charTemplates, buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeCharCreateFail() {
+    return codec.encode(
+        new ServerCharCreateFail(CharCreateFailReason.NAME_ALREADY_EXISTS), buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeCharCreateOk() {
+    return codec.encode(new ServerCharCreateOk(), buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeCharDeleteFail() {
+    return codec.encode(new ServerCharDeleteFail(CharDeleteFailReason.DELETION_FAILED), buffer, 0);
+  }
+
+  @Benchmark
+  public int encodeCharDeleteOk() {
+    return codec.encode(new ServerCharDeleteOk(), buffer, 0);
+  }
+
+  @Benchmark
+  public Object decodeProtocolVersion() {
+    return codec.decode(protocolVersion, 0, protocolVersion.length);
+  }
+
+  @Benchmark
+  public Object decodeAuthLogin() {
+    return codec.decode(authLogin, 0, authLogin.length);
+  }
+
+  @Benchmark
+  public Object decodeNewCharacter() {
+    return codec.decode(newCharacter, 0, newCharacter.length);
+  }
+
+  @Benchmark
+  public Object decodeCharCreate() {
+    return codec.decode(charCreate, 0, charCreate.length);
+  }
+
+  @Benchmark
+  public Object decodeRequestGotoLobby() {
+    return codec.decode(requestGotoLobby, 0, requestGotoLobby.length);
+  }
+
+  @Benchmark
+  public Object decodeCharDelete() {
+    return codec.decode(charDelete, 0, charDelete.length);
+  }
+
+  @Benchmark
+  public Object decodeCharRestore() {
+    return codec.decode(charRestore, 0, charRestore.length);
+  }
+}
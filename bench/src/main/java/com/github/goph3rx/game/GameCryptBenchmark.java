@@ -0,0 +1,60 @@
+package com.github.goph3rx.game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Comparison of word and byte processing for traffic encryption. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class GameCryptBenchmark {
+  /** Size of the packet to process. */
+  @Param({"16", "256", "4096"})
+  public int size;
+
+  /** Packet to process. */
+  private byte[] buffer;
+  /** Encryption one byte at a time. */
+  private GameCryptBytewise bytewise;
+  /** Encryption one word at a time. */
+  private GameCrypt crypt;
+
+  @Setup
+  public void setUp() {
+    var random = new Random(42);
+    buffer = new byte[size];
+    random.nextBytes(buffer);
+    var key = new byte[8];
+    random.nextBytes(key);
+    bytewise = new GameCryptBytewise(key);
+    crypt = new GameCrypt(key);
+  }
+
+  @Benchmark
+  public byte[] encryptBytewise() {
+    bytewise.encrypt(buffer, 0, buffer.length);
+    return buffer;
+  }
+
+  @Benchmark
+  public byte[] encryptWords() {
+    crypt.encrypt(buffer, 0, buffer.length);
+    return buffer;
+  }
+
+  @Benchmark
+  public byte[] decryptBytewise() {
+    bytewise.decrypt(buffer, 0, buffer.length);
+    return buffer;
+  }
+
+  @Benchmark
+  public byte[] decryptWords() {
+    crypt.decrypt(buffer, 0, buffer.length);
+    return buffer;
+  }
+}
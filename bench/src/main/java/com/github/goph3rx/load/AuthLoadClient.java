@@ -0,0 +1,207 @@
+package com.github.goph3rx.load;
+
+import com.github.goph3rx.auth.AuthBlowfish;
+import com.github.goph3rx.auth.AuthCryptUtil;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.security.spec.RSAPublicKeySpec;
+import javax.crypto.Cipher;
+
+/** Client side of the auth protocol, going through a single login. */
+public class AuthLoadClient {
+  /** Size of the packet header. */
+  private static final int HEADER_SIZE = 2;
+  /** Position of username data in the credential blob. */
+  private static final int NAME_OFFSET = 94;
+  /** Position of password data in the credential blob. */
+  private static final int PASSWORD_OFFSET = 108;
+  /** Size of the modulus for the credential key. */
+  private static final int MODULUS_SIZE = 128;
+  /** Position of the modulus in the init message. */
+  private static final int MODULUS_OFFSET = 9;
+  /** Position of the traffic key in the init message. */
+  private static final int CRYPT_KEY_OFFSET = MODULUS_OFFSET + MODULUS_SIZE + 16;
+
+  /** Address of the server. */
+  private final InetSocketAddress address;
+  /** Account username. */
+  private final String username;
+  /** Account password. */
+  private final String password;
+  /** Traffic encryption. */
+  private AuthBlowfish crypt = new AuthBlowfish();
+  /** Input from the server. */
+  private InputStream input;
+  /** Output to the server. */
+  private OutputStream output;
+
+  /**
+   * Create a new client.
+   *
+   * @param address Address of the server.
+   * @param username Account username.
+   * @param password Account password.
+   */
+  public AuthLoadClient(InetSocketAddress address, String username, String password) {
+    this.address = address;
+    this.username = username;
+    this.password = password;
+  }
+
+  /**
+   * Log in and request the transfer to the first world.
+   *
+   * @param latencies Where to put the time taken by every stage, in nanoseconds.
+   * @throws IOException Server did not respond as expected.
+   * @throws GeneralSecurityException Credentials cannot be encrypted.
+   */
+  public void run(long[] latencies) throws IOException, GeneralSecurityException {
+    try (var socket = new Socket()) {
+      // Init
+      var start = System.nanoTime();
+      socket.setTcpNoDelay(true);
+      socket.connect(address);
+      input = socket.getInputStream();
+      output = socket.getOutputStream();
+      var init = receive(0x00);
+      AuthCryptUtil.unscrambleInit(init, 0, init.length - AuthCryptUtil.BLOCK_SIZE);
+      var modulus = new byte[MODULUS_SIZE];
+      System.arraycopy(init, MODULUS_OFFSET, modulus, 0, modulus.length);
+      var cryptKey = new byte[16];
+      System.arraycopy(init, CRYPT_KEY_OFFSET, cryptKey, 0, cryptKey.length);
+      AuthCryptUtil.unscrambleModulus(modulus);
+      crypt = new AuthBlowfish(cryptKey);
+      start = mark(latencies, AuthLoadStage.INIT, start);
+
+      // Login
+      send(0x00, encryptCredentials(modulus));
+      var loginOk = receive(0x03);
+      var authToken = wrap(loginOk).getLong(1);
+      start = mark(latencies, AuthLoadStage.LOGIN, start);
+
+      // Server list
+      send(0x05, wrap(new byte[8]).putLong(authToken).array());
+      var serverList = receive(0x04);
+      var worldId = serverList[3];
+      start = mark(latencies, AuthLoadStage.SERVER_LIST, start);
+
+      // Server login
+      send(0x02, wrap(new byte[9]).putLong(authToken).put(worldId).array());
+      receive(0x07);
+      mark(latencies, AuthLoadStage.SERVER_LOGIN, start);
+    }
+  }
+
+  /**
+   * Encrypt the credentials with the key from the server.
+   *
+   * @param modulus Modulus of the key.
+   * @return Encrypted credentials.
+   * @throws GeneralSecurityException Credentials cannot be encrypted.
+   */
+  private byte[] encryptCredentials(byte[] modulus) throws GeneralSecurityException {
+    var credentials = new byte[MODULUS_SIZE];
+    var name = username.getBytes(StandardCharsets.ISO_8859_1);
+    System.arraycopy(name, 0, credentials, NAME_OFFSET, name.length);
+    var pass = password.getBytes(StandardCharsets.ISO_8859_1);
+    System.arraycopy(pass, 0, credentials, PASSWORD_OFFSET, pass.length);
+
+    var spec = new RSAPublicKeySpec(new BigInteger(1, modulus), RSAKeyGenParameterSpec.F4);
+    var cipher = Cipher.getInstance("RSA/ECB/NoPadding");
+    cipher.init(Cipher.ENCRYPT_MODE, KeyFactory.getInstance("RSA").generatePublic(spec));
+    return cipher.doFinal(credentials);
+  }
+
+  /**
+   * Send a message to the server.
+   *
+   * @param id Message identifier.
+   * @param body Message body.
+   * @throws IOException Message cannot be sent.
+   */
+  private void send(int id, byte[] body) throws IOException {
+    var buffer = new byte[HEADER_SIZE + body.length + 16];
+    buffer[HEADER_SIZE] = (byte) id;
+    System.arraycopy(body, 0, buffer, HEADER_SIZE + 1, body.length);
+    var length = 1 + body.length;
+
+    // Checksum
+    length +=
+        (AuthCryptUtil.BLOCK_SIZE - length % AuthCryptUtil.BLOCK_SIZE) % AuthCryptUtil.BLOCK_SIZE;
+    var checksum = AuthCryptUtil.calculateChecksum(buffer, HEADER_SIZE, length);
+    wrap(buffer).putInt(HEADER_SIZE + length, checksum);
+    length += AuthCryptUtil.BLOCK_SIZE;
+
+    // Encryption
+    length += (crypt.getBlockSize() - length % crypt.getBlockSize()) % crypt.getBlockSize();
+    try {
+      crypt.encrypt(buffer, HEADER_SIZE, length);
+    } catch (GeneralSecurityException e) {
+      throw new IOException(e);
+    }
+    wrap(buffer).putShort(0, (short) (HEADER_SIZE + length));
+    output.write(buffer, 0, HEADER_SIZE + length);
+  }
+
+  /**
+   * Receive a message from the server.
+   *
+   * @param id Expected message identifier.
+   * @return Decrypted message body.
+   * @throws IOException Message cannot be received or is not the expected one.
+   */
+  private byte[] receive(int id) throws IOException {
+    var header = input.readNBytes(HEADER_SIZE);
+    if (header.length < HEADER_SIZE) {
+      throw new IOException("Connection closed by the server");
+    }
+    var size = wrap(header).getShort(0) & 0xffff;
+    var body = input.readNBytes(size - HEADER_SIZE);
+    if (body.length < size - HEADER_SIZE) {
+      throw new IOException("Connection closed by the server");
+    }
+    try {
+      crypt.decrypt(body, 0, body.length);
+    } catch (GeneralSecurityException e) {
+      throw new IOException(e);
+    }
+    if (body[0] != id) {
+      throw new IOException("Unexpected message id=%h".formatted(body[0]));
+    }
+    return body;
+  }
+
+  /**
+   * Record the time taken by the stage.
+   *
+   * @param latencies Time taken by every stage.
+   * @param stage Stage that completed.
+   * @param start When the stage started.
+   * @return When the next stage starts.
+   */
+  private static long mark(long[] latencies, AuthLoadStage stage, long start) {
+    var now = System.nanoTime();
+    latencies[stage.ordinal()] = now - start;
+    return now;
+  }
+
+  /**
+   * Wrap the buffer for little-endian access.
+   *
+   * @param buffer Buffer.
+   * @return Wrapped buffer.
+   */
+  private static ByteBuffer wrap(byte[] buffer) {
+    return ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
@@ -0,0 +1,113 @@
+package com.github.goph3rx.load;
+
+import com.github.goph3rx.account.AccountCache;
+import com.github.goph3rx.account.AccountModule;
+import com.github.goph3rx.account.AccountService;
+import com.github.goph3rx.account.IAccountService;
+import com.github.goph3rx.auth.AuthAdmission;
+import com.github.goph3rx.auth.AuthClient;
+import com.github.goph3rx.auth.AuthClientManager;
+import com.github.goph3rx.auth.AuthComponent;
+import com.github.goph3rx.auth.AuthCredentialKeyPool;
+import com.github.goph3rx.auth.AuthModule;
+import com.github.goph3rx.auth.AuthServer;
+import com.github.goph3rx.metrics.MetricsServer;
+import com.github.goph3rx.transfer.ITransferService;
+import com.github.goph3rx.transfer.SignedTransferService;
+import com.github.goph3rx.transfer.TransferModule;
+import com.github.goph3rx.transfer.TransferService;
+import com.github.goph3rx.world.IWorldService;
+import com.github.goph3rx.world.World;
+import com.github.goph3rx.world.WorldService;
+import java.net.InetAddress;
+
+/** Component for the auth server that keeps all the data in memory. */
+public class AuthLoadComponent implements AuthComponent {
+  /** Keys for credential encryption. */
+  private final AuthCredentialKeyPool credentialKeys = new AuthCredentialKeyPool(1, 0);
+  /** Manager for clients connected to the server. */
+  private final AuthClientManager clientManager = new AuthClientManager();
+  /** Service for managing accounts. */
+  private final AccountService accounts = new AccountService();
+  /** Service for managing world transfers. */
+  private final ITransferService transfers;
+  /** Service for managing registered worlds. */
+  private final WorldService worlds = new WorldService();
+  /** Metrics are read straight from the registry, so the server is disabled. */
+  private final MetricsServer metrics = new MetricsServer(0);
+  /** Settings for the server. */
+  private final AuthLoadSettings settings;
+
+  /**
+   * Create a new component.
+   *
+   * @param settings Settings for the load test.
+   */
+  public AuthLoadComponent(AuthLoadSettings settings) {
+    this.settings = settings;
+    accounts.database = new MemoryAccountDatabase(settings.password());
+    accounts.cache =
+        new AccountCache(
+            AccountModule.provideCacheSize(),
+            AccountModule.provideCacheTtl(),
+            AccountModule.provideCacheNegativeTtl());
+    accounts.flushMillis = AccountModule.provideLastWorldFlush();
+    accounts.batchSize = AccountModule.provideLastWorldBatchSize();
+
+    // Transfers
+    if (TransferModule.MODE_SIGNED.equals(settings.transferMode())) {
+      transfers = new SignedTransferService("load-generator-secret-0123456789");
+    } else {
+      var service = new TransferService();
+      service.database = new MemoryTransferDatabase();
+      transfers = service;
+    }
+
+    // Worlds
+    var database = new MemoryWorldDatabase();
+    database.save(new World(1, InetAddress.getLoopbackAddress(), 7777, 0, 5000, true));
+    worlds.database = database;
+  }
+
+  @Override
+  public void injectClient(AuthClient client) {
+    client.credentialKeys = credentialKeys;
+    client.clientManager = clientManager;
+    client.accounts = accounts;
+    client.transfers = transfers;
+    client.worlds = worlds;
+  }
+
+  @Override
+  public void injectServer(AuthServer server) {
+    server.port = settings.port();
+    server.backlog = settings.concurrency();
+    server.engine = settings.engine();
+    server.selectorThreads = settings.selectorThreads();
+    server.shutdownTimeoutSeconds = AuthModule.provideShutdownTimeout();
+    server.clientManager = clientManager;
+
+    // All the clients share the loopback address, so only the handshakes are limited
+    server.admission = new AuthAdmission(0, 0, AuthModule.provideMaxHandshakes());
+  }
+
+  @Override
+  public IAccountService accounts() {
+    return accounts;
+  }
+
+  @Override
+  public MetricsServer metrics() {
+    return metrics;
+  }
+
+  @Override
+  public ITransferService transfers() {
+    return transfers;
+  }
+
+  @Override
+  public IWorldService worlds() {
+    return worlds;
+  }
+}
@@ -0,0 +1,181 @@
+package com.github.goph3rx.load;
+
+import ch.qos.logback.classic.Level;
+import com.github.goph3rx.auth.AuthServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load test that starts the auth server with all the data in memory and logs in a large number of
+ * clients at once, each on its own virtual thread. Reports the latency of every stage and the rate
+ * of logins.
+ */
+public class AuthLoadGenerator {
+  /** How long to wait for the server to start. */
+  private static final int STARTUP_TIMEOUT_MILLIS = 10_000;
+
+  /** Settings for the load test. */
+  private final AuthLoadSettings settings;
+  /** Time taken by every stage, by client. */
+  private final long[][] latencies;
+  /** Number of failures, by reason. */
+  private final ConcurrentHashMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+  /**
+   * Create a new load test.
+   *
+   * @param settings Settings for the load test.
+   */
+  public AuthLoadGenerator(AuthLoadSettings settings) {
+    this.settings = settings;
+    this.latencies = new long[settings.clients()][AuthLoadStage.values().length];
+  }
+
+  /**
+   * Run the load test with the settings from the system properties.
+   *
+   * @param args CLI arguments.
+   * @throws Exception Load test cannot be run.
+   */
+  public static void main(String[] args) throws Exception {
+    // Server logging would dominate the results
+    var logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+    logger.setLevel(Level.toLevel(System.getProperty("load.log", "WARN")));
+
+    var generator = new AuthLoadGenerator(AuthLoadSettings.fromProperties());
+    generator.startServer();
+    var failed = generator.run();
+    System.exit(failed == 0 ? 0 : 1);
+  }
+
+  /**
+   * Start the auth server in the background and wait for it to accept connections.
+   *
+   * @throws Exception Server did not start.
+   */
+  public void startServer() throws Exception {
+    var component = new AuthLoadComponent(settings);
+    var server = new AuthServer();
+    component.injectServer(server);
+    component.accounts().start();
+    Thread.ofPlatform()
+        .name("auth-server")
+        .daemon()
+        .start(
+            () -> {
+              try {
+                server.run(component);
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+
+    var deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+    while (true) {
+      try (var socket = new Socket()) {
+        socket.connect(address());
+        return;
+      } catch (IOException e) {
+        if (System.currentTimeMillis() > deadline) {
+          throw e;
+        }
+        Thread.sleep(100);
+      }
+    }
+  }
+
+  /**
+   * Log in all the clients and print the report.
+   *
+   * @return Number of clients that failed.
+   * @throws InterruptedException Interrupted whilst waiting for clients.
+   */
+  public long run() throws InterruptedException {
+    System.out.printf(
+        "Logging in %d client(s), %d at once, engine=%s transferMode=%s%n",
+        settings.clients(), settings.concurrency(), settings.engine(), settings.transferMode());
+    var permits = new Semaphore(settings.concurrency());
+    var start = System.nanoTime();
+    try (var pool = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (var i = 0; i < settings.clients(); i++) {
+        permits.acquire();
+        var id = i;
+        pool.submit(
+            () -> {
+              try {
+                var client = new AuthLoadClient(address(), "load" + id, settings.password());
+                client.run(latencies[id]);
+              } catch (Exception e) {
+                Arrays.fill(latencies[id], -1);
+                failures.computeIfAbsent(e.toString(), key -> new LongAdder()).increment();
+              } finally {
+                permits.release();
+              }
+            });
+      }
+    }
+    var elapsed = (System.nanoTime() - start) / 1e9;
+    return report(elapsed);
+  }
+
+  /**
+   * Print the results of the load test.
+   *
+   * @param elapsed Time taken by the whole test in seconds.
+   * @return Number of clients that failed.
+   */
+  private long report(double elapsed) {
+    var failed = failures.values().stream().mapToLong(LongAdder::sum).sum();
+    var succeeded = settings.clients() - failed;
+    System.out.printf(
+        "Succeeded: %d, failed: %d, elapsed: %.2fs, logins/s: %.1f%n",
+        succeeded, failed, elapsed, succeeded / elapsed);
+    System.out.printf(
+        "%-14s %10s %10s %10s %10s%n", "Stage", "p50 (ms)", "p99 (ms)", "p999 (ms)", "max (ms)");
+    for (var stage : AuthLoadStage.values()) {
+      var values =
+          Arrays.stream(latencies).mapToLong(row -> row[stage.ordinal()]).filter(v -> v >= 0);
+      var sorted = values.sorted().toArray();
+      System.out.printf(
+          "%-14s %10.2f %10.2f %10.2f %10.2f%n",
+          stage,
+          percentile(sorted, 0.5),
+          percentile(sorted, 0.99),
+          percentile(sorted, 0.999),
+          percentile(sorted, 1));
+    }
+    Map<String, LongAdder> sortedFailures = new TreeMap<>(failures);
+    sortedFailures.forEach((reason, count) -> System.out.printf("%6d x %s%n", count.sum(), reason));
+    return failed;
+  }
+
+  /**
+   * Find the percentile in the sorted latencies.
+   *
+   * @param sorted Sorted latencies in nanoseconds.
+   * @param quantile Quantile between 0 and 1.
+   * @return Percentile in milliseconds.
+   */
+  private static double percentile(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return Double.NaN;
+    }
+    var index = (int) Math.ceil(quantile * sorted.length) - 1;
+    return sorted[Math.max(index, 0)] / 1e6;
+  }
+
+  /** Get the address of the server. */
+  private InetSocketAddress address() {
+    return new InetSocketAddress("127.0.0.1", settings.port());
+  }
+}
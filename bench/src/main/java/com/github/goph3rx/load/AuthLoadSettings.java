@@ -0,0 +1,36 @@
+package com.github.goph3rx.load;
+
+import com.github.goph3rx.auth.AuthServer;
+import com.github.goph3rx.transfer.TransferModule;
+
+/**
+ * Settings for the load test.
+ *
+ * @param clients Total number of clients to log in.
+ * @param concurrency Maximum number of clients connected at once.
+ * @param port Port for the auth server.
+ * @param engine Engine for handling connections.
+ * @param selectorThreads Number of event loop threads for the selector engine.
+ * @param transferMode How world transfers are kept.
+ * @param password Password for all the accounts.
+ */
+public record AuthLoadSettings(
+    int clients,
+    int concurrency,
+    int port,
+    String engine,
+    int selectorThreads,
+    String transferMode,
+    String password) {
+  /** Read the settings from the system properties. */
+  public static AuthLoadSettings fromProperties() {
+    return new AuthLoadSettings(
+        Integer.parseInt(System.getProperty("load.clients", "10000")),
+        Integer.parseInt(System.getProperty("load.concurrency", "1000")),
+        Integer.parseInt(System.getProperty("load.port", "2106")),
+        System.getProperty("load.engine", AuthServer.ENGINE_BLOCKING),
+        Integer.parseInt(System.getProperty("load.selectorThreads", "2")),
+        System.getProperty("load.transferMode", TransferModule.MODE_DATABASE),
+        "password");
+  }
+}
@@ -0,0 +1,13 @@
+package com.github.goph3rx.load;
+
+/** Stages of a single login. */
+public enum AuthLoadStage {
+  /** Connecting and receiving the init message. */
+  INIT,
+  /** Sending the credentials and receiving the token. */
+  LOGIN,
+  /** Requesting the list of worlds. */
+  SERVER_LIST,
+  /** Requesting the transfer to the world. */
+  SERVER_LOGIN
+}
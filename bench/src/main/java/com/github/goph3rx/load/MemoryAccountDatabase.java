@@ -0,0 +1,57 @@
+package com.github.goph3rx.load;
+
+import com.github.goph3rx.account.Account;
+import com.github.goph3rx.account.IAccountDatabase;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Database stand-in where every account exists and shares the same password. */
+public class MemoryAccountDatabase implements IAccountDatabase {
+  /** Base64 representation of the salt. */
+  private final String salt;
+  /** Base64 representation of the password hash. */
+  private final String password;
+  /** Last world entered, by username. */
+  private final ConcurrentHashMap<String, Integer> lastWorlds = new ConcurrentHashMap<>();
+
+  /**
+   * Create a new database.
+   *
+   * @param password Password for all the accounts.
+   */
+  public MemoryAccountDatabase(String password) {
+    try {
+      var saltBytes = new byte[16];
+      new SecureRandom().nextBytes(saltBytes);
+      var digest = MessageDigest.getInstance("SHA-256");
+      digest.update(saltBytes);
+      digest.update(password.getBytes());
+      this.salt = Base64.getEncoder().encodeToString(saltBytes);
+      this.password = Base64.getEncoder().encodeToString(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public Optional<Account> fetch(String username) {
+    return Optional.of(
+        new Account(
+            username, salt, password, lastWorlds.getOrDefault(username, 0), Optional.empty()));
+  }
+
+  @Override
+  public void setLastWorld(String username, int lastWorld) {
+    lastWorlds.put(username, lastWorld);
+  }
+
+  @Override
+  public void setLastWorlds(Map<String, Integer> lastWorlds) {
+    this.lastWorlds.putAll(lastWorlds);
+  }
+}
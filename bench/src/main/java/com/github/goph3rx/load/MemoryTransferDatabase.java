@@ -0,0 +1,54 @@
+package com.github.goph3rx.load;
+
+import com.github.goph3rx.transfer.ITransferDatabase;
+import com.github.goph3rx.transfer.Transfer;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Database stand-in that keeps the transfers in memory. */
+public class MemoryTransferDatabase implements ITransferDatabase {
+  /** Transfers by account. */
+  private final ConcurrentHashMap<String, Transfer> transfers = new ConcurrentHashMap<>();
+
+  @Override
+  public void create(Transfer transfer) {
+    transfers.put(transfer.account(), transfer);
+  }
+
+  @Override
+  public Optional<Transfer> fetch(String account) {
+    return Optional.ofNullable(transfers.get(account));
+  }
+
+  @Override
+  public Optional<Transfer> consume(String account, long auth, long play) {
+    var now = LocalDateTime.now();
+    var consumed = new Transfer[1];
+    transfers.computeIfPresent(
+        account,
+        (key, transfer) -> {
+          if (transfer.auth() != auth
+              || transfer.play() != play
+              || transfer.expiry().isBefore(now)) {
+            return transfer;
+          }
+          consumed[0] = transfer;
+          return null;
+        });
+    return Optional.ofNullable(consumed[0]);
+  }
+
+  @Override
+  public void remove(String account) {
+    transfers.remove(account);
+  }
+
+  @Override
+  public int removeExpired() {
+    var now = LocalDateTime.now();
+    var before = transfers.size();
+    transfers.values().removeIf(transfer -> transfer.expiry().isBefore(now));
+    return before - transfers.size();
+  }
+}
@@ -0,0 +1,27 @@
+package com.github.goph3rx.load;
+
+import com.github.goph3rx.world.IWorldDatabase;
+import com.github.goph3rx.world.World;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/** Database stand-in that keeps the worlds in memory. */
+public class MemoryWorldDatabase implements IWorldDatabase {
+  /** Worlds by identifier. */
+  private final ConcurrentSkipListMap<Integer, World> worlds = new ConcurrentSkipListMap<>();
+
+  @Override
+  public List<World> list() {
+    return List.copyOf(worlds.values());
+  }
+
+  @Override
+  public void save(World world) {
+    worlds.put(world.id(), world);
+  }
+
+  @Override
+  public int updateOffline() {
+    return 0;
+  }
+}
@@ -0,0 +1,20 @@
+package com.github.goph3rx.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate the decoder for the message record. The decoder is looked up by operation code, then the
+ * components are read in order of declaration.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Decode {
+  /** Operation code. */
+  int opcode();
+
+  /** Extended operation code read as two bytes after the operation code, -1 if there is none. */
+  int extended() default -1;
+}
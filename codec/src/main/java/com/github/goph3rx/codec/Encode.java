@@ -0,0 +1,23 @@
+package com.github.goph3rx.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate the encoder for the message record. The operation code is written first, then the
+ * components in order of declaration and then the padding.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Encode {
+  /** Operation code. */
+  int opcode();
+
+  /** Extended operation code written as two bytes after the operation code, -1 if there is none. */
+  int extended() default -1;
+
+  /** Number of zero bytes written after the components. */
+  int padding() default 0;
+}
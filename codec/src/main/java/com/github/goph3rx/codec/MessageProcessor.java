@@ -0,0 +1,743 @@
+package com.github.goph3rx.codec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor that generates the encoders and decoders for the message records annotated
+ * with {@link Encode} and {@link Decode}. Every package with such messages gets a {@code
+ * MessageCodec} class with a static encoder per message and a decoder table indexed by operation
+ * code. Messages with computed fields are not annotated and stay with the hand-written codecs.
+ *
+ * <p>Supported components are booleans, numbers, byte arrays, strings (UTF-16LE with a zero
+ * terminator) and enums with an integer {@code code} field and a static {@code valueOf(int)}.
+ */
+@SupportedAnnotationTypes({"com.github.goph3rx.codec.Encode", "com.github.goph3rx.codec.Decode"})
+public class MessageProcessor extends AbstractProcessor {
+  /** Simple name of the class generated in every package. */
+  public static final String CLASS_NAME = "MessageCodec";
+  /** Number of distinct operation codes. */
+  private static final int OPCODES = 256;
+  /** Number of distinct extended operation codes. */
+  private static final int EXTENDED_OPCODES = 65536;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+    // Group the messages by package, as every package gets its own codec
+    var packages = new TreeMap<String, List<TypeElement>>();
+    for (var element : round.getElementsAnnotatedWithAny(Set.of(Encode.class, Decode.class))) {
+      if (element.getKind() != ElementKind.RECORD) {
+        error(element, "Only records can be encoded or decoded");
+        continue;
+      }
+      var type = (TypeElement) element;
+      var name = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+      packages.computeIfAbsent(name, key -> new ArrayList<>()).add(type);
+    }
+
+    // Generate the codecs
+    for (var entry : packages.entrySet()) {
+      var messages = entry.getValue();
+      messages.sort(Comparator.comparing(type -> type.getSimpleName().toString()));
+      new Generator(entry.getKey(), messages).generate();
+    }
+    return true;
+  }
+
+  /**
+   * Report an error on the element, which fails the build.
+   *
+   * @param element Element that caused the error.
+   * @param message Error message.
+   */
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  /** Generator of the codec for a single package. */
+  private class Generator {
+    /** Package of the messages. */
+    private final String packageName;
+    /** Annotated messages. */
+    private final List<TypeElement> messages;
+    /** Encoder methods. */
+    private final StringBuilder encoders = new StringBuilder();
+    /** Decoder methods. */
+    private final StringBuilder decoders = new StringBuilder();
+    /** Decoder method by operation code. */
+    private final TreeMap<Integer, String> table = new TreeMap<>();
+    /** Decoder method by extended operation code, by operation code. */
+    private final TreeMap<Integer, TreeMap<Integer, String>> extendedTables = new TreeMap<>();
+    /** Flag to indicate that the string writer is needed. */
+    private boolean writesStrings;
+    /** Flag to indicate that the string reader is needed. */
+    private boolean readsStrings;
+    /** Flag to indicate that the padding helper is needed. */
+    private boolean usesPadding;
+    /** Flag to indicate that an error was reported. */
+    private boolean failed;
+
+    /**
+     * Create a new generator.
+     *
+     * @param packageName Package of the messages.
+     * @param messages Annotated messages.
+     */
+    Generator(String packageName, List<TypeElement> messages) {
+      this.packageName = packageName;
+      this.messages = messages;
+    }
+
+    /** Generate the codec and write it out. */
+    void generate() {
+      for (var message : messages) {
+        var encode = message.getAnnotation(Encode.class);
+        if (encode != null) {
+          addEncoder(message, encode);
+        }
+        var decode = message.getAnnotation(Decode.class);
+        if (decode != null) {
+          addDecoder(message, decode);
+        }
+      }
+      if (failed) {
+        return;
+      }
+
+      // Write the class
+      var name = packageName.isEmpty() ? CLASS_NAME : packageName + "." + CLASS_NAME;
+      try (var writer =
+          processingEnv
+              .getFiler()
+              .createSourceFile(name, messages.toArray(new Element[0]))
+              .openWriter()) {
+        writer.write(source());
+      } catch (IOException e) {
+        error(messages.get(0), "Failed to write %s: %s".formatted(name, e.getMessage()));
+      }
+    }
+
+    /**
+     * Add the encoder for the message.
+     *
+     * @param message Message record.
+     * @param encode Annotation.
+     */
+    private void addEncoder(TypeElement message, Encode encode) {
+      if (!checkOpcodes(message, encode.opcode(), encode.extended())) {
+        return;
+      }
+      var code = new StringBuilder();
+      code.append("  /** Encode {@link %s}. */\n".formatted(message.getSimpleName()));
+      code.append(
+          "  public static void encode(%s message, ByteBuffer buffer) {\n"
+              .formatted(message.getQualifiedName()));
+      code.append("    buffer.put((byte) 0x%02x);\n".formatted(encode.opcode()));
+      if (encode.extended() >= 0) {
+        code.append("    buffer.putShort((short) 0x%02x);\n".formatted(encode.extended()));
+      }
+      for (var component : message.getRecordComponents()) {
+        var skip = component.getAnnotation(Skip.class);
+        if (skip != null) {
+          usesPadding = true;
+          code.append("    pad(buffer, %d);\n".formatted(skip.value()));
+        }
+        var value = "message.%s()".formatted(component.getSimpleName());
+        var statement = write(component, value);
+        if (statement != null) {
+          code.append("    ").append(statement).append("\n");
+        }
+      }
+      if (encode.padding() > 0) {
+        usesPadding = true;
+        code.append("    pad(buffer, %d);\n".formatted(encode.padding()));
+      }
+      code.append("  }\n\n");
+      encoders.append(code);
+    }
+
+    /**
+     * Add the decoder for the message.
+     *
+     * @param message Message record.
+     * @param decode Annotation.
+     */
+    private void addDecoder(TypeElement message, Decode decode) {
+      if (!checkOpcodes(message, decode.opcode(), decode.extended())) {
+        return;
+      }
+      var method = "decode" + message.getSimpleName();
+
+      // Register in the table
+      if (decode.extended() < 0) {
+        if (table.containsKey(decode.opcode()) || extendedTables.containsKey(decode.opcode())) {
+          error(message, "Duplicate decoder for opcode 0x%02x".formatted(decode.opcode()));
+          return;
+        }
+        table.put(decode.opcode(), method);
+      } else {
+        if (table.containsKey(decode.opcode())) {
+          error(message, "Duplicate decoder for opcode 0x%02x".formatted(decode.opcode()));
+          return;
+        }
+        var extendedTable = extendedTables.computeIfAbsent(decode.opcode(), key -> new TreeMap<>());
+        if (extendedTable.put(decode.extended(), method) != null) {
+          error(
+              message,
+              "Duplicate decoder for opcode 0x%02x extended 0x%02x"
+                  .formatted(decode.opcode(), decode.extended()));
+          return;
+        }
+      }
+
+      // Read the components in order
+      var code = new StringBuilder();
+      code.append("  /** Decode {@link %s}. */\n".formatted(message.getSimpleName()));
+      code.append(
+          "  private static %s %s(ByteBuffer buffer) {\n"
+              .formatted(message.getQualifiedName(), method));
+      var arguments = new ArrayList<String>();
+      for (var component : message.getRecordComponents()) {
+        var skip = component.getAnnotation(Skip.class);
+        if (skip != null) {
+          code.append("    buffer.position(buffer.position() + %d);\n".formatted(skip.value()));
+        }
+        var local = component.getSimpleName().toString();
+        var statement = read(component, local);
+        if (statement != null) {
+          code.append("    ").append(statement).append("\n");
+        }
+        arguments.add(local);
+      }
+      code.append(
+          "    return new %s(%s);\n"
+              .formatted(message.getQualifiedName(), String.join(", ", arguments)));
+      code.append("  }\n\n");
+      decoders.append(code);
+    }
+
+    /**
+     * Check that the operation codes are in range.
+     *
+     * @param message Message record.
+     * @param opcode Operation code.
+     * @param extended Extended operation code, -1 if there is none.
+     * @return Flag to indicate that the codes are valid.
+     */
+    private boolean checkOpcodes(TypeElement message, int opcode, int extended) {
+      if (opcode < 0 || opcode >= OPCODES) {
+        fail(message, "Opcode must be between 0x00 and 0xff");
+        return false;
+      }
+      if (extended < -1 || extended >= EXTENDED_OPCODES) {
+        fail(message, "Extended opcode must be between 0x00 and 0xffff");
+        return false;
+      }
+      return true;
+    }
+
+    /**
+     * Generate the statement that writes the component.
+     *
+     * @param component Record component.
+     * @param value Expression for the value.
+     * @return Statement or null if the component is not supported.
+     */
+    private String write(RecordComponentElement component, String value) {
+      var type = component.asType();
+      var size = component.getAnnotation(Size.class);
+      switch (type.getKind()) {
+        case BOOLEAN:
+          return "buffer.put((byte) (%s ? 1 : 0));".formatted(value);
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+          var width = width(component, natural(type.getKind()));
+          if (width == 0) {
+            return null;
+          }
+          var cast = width < natural(type.getKind()) ? "(%s) ".formatted(primitive(width)) : "";
+          return "buffer.%s(%s%s);".formatted(putter(width), cast, value);
+        case FLOAT:
+          return size == null ? "buffer.putFloat(%s);".formatted(value) : noSize(component);
+        case DOUBLE:
+          return size == null ? "buffer.putDouble(%s);".formatted(value) : noSize(component);
+        case ARRAY:
+          if (!isByteArray(type)) {
+            return unsupported(component);
+          }
+          return "buffer.put(%s);".formatted(value);
+        case DECLARED:
+          if (isString(type)) {
+            writesStrings = true;
+            return size == null ? "putString(buffer, %s);".formatted(value) : noSize(component);
+          }
+          if (isEnum(type)) {
+            if (!hasCode(component, type)) {
+              return null;
+            }
+            var enumWidth = width(component, 4);
+            if (enumWidth == 0) {
+              return null;
+            }
+            var enumCast = enumWidth < 4 ? "(%s) ".formatted(primitive(enumWidth)) : "";
+            return "buffer.%s(%s%s.code);".formatted(putter(enumWidth), enumCast, value);
+          }
+          return unsupported(component);
+        default:
+          return unsupported(component);
+      }
+    }
+
+    /**
+     * Generate the statement that reads the component into a local variable.
+     *
+     * @param component Record component.
+     * @param local Name of the local variable.
+     * @return Statement or null if the component is not supported.
+     */
+    private String read(RecordComponentElement component, String local) {
+      var type = component.asType();
+      var size = component.getAnnotation(Size.class);
+      switch (type.getKind()) {
+        case BOOLEAN:
+          return "var %s = buffer.get() != 0;".formatted(local);
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+          var width = width(component, natural(type.getKind()));
+          if (width == 0) {
+            return null;
+          }
+          return "%s %s = buffer.%s();".formatted(type, local, getter(width));
+        case FLOAT:
+          return size == null ? "var %s = buffer.getFloat();".formatted(local) : noSize(component);
+        case DOUBLE:
+          return size == null ? "var %s = buffer.getDouble();".formatted(local) : noSize(component);
+        case ARRAY:
+          if (!isByteArray(type)) {
+            return unsupported(component);
+          }
+          if (size == null || size.value() < 0) {
+            return fail(component, "Byte arrays need @Size with the length to be decoded");
+          }
+          return "var %s = new byte[%d];\n    buffer.get(%s);"
+              .formatted(local, size.value(), local);
+        case DECLARED:
+          if (isString(type)) {
+            readsStrings = true;
+            return size == null
+                ? "var %s = getString(buffer);".formatted(local)
+                : noSize(component);
+          }
+          if (isEnum(type)) {
+            if (!hasValueOf(component, type)) {
+              return null;
+            }
+            var enumWidth = width(component, 4);
+            if (enumWidth == 0) {
+              return null;
+            }
+            return "var %s = %s.valueOf(buffer.%s());"
+                .formatted(local, qualifiedName(type), getter(enumWidth));
+          }
+          return unsupported(component);
+        default:
+          return unsupported(component);
+      }
+    }
+
+    /**
+     * Get the width of the number on the wire.
+     *
+     * @param component Record component.
+     * @param natural Width of the Java type.
+     * @return Width in bytes or zero if it is not valid.
+     */
+    private int width(RecordComponentElement component, int natural) {
+      var size = component.getAnnotation(Size.class);
+      if (size == null) {
+        return natural;
+      }
+      var width = size.value();
+      if (Integer.bitCount(width) != 1 || width > natural) {
+        fail(component, "Size must be 1, 2, 4 or 8 bytes and fit the type");
+        return 0;
+      }
+      return width;
+    }
+
+    /**
+     * Check that the enum can be encoded.
+     *
+     * @param component Record component.
+     * @param type Enum type.
+     * @return Flag to indicate that the enum has a code field.
+     */
+    private boolean hasCode(RecordComponentElement component, TypeMirror type) {
+      for (var member : processingEnv.getTypeUtils().asElement(type).getEnclosedElements()) {
+        if (member.getKind() == ElementKind.FIELD
+            && member.getSimpleName().contentEquals("code")
+            && member.asType().getKind() == TypeKind.INT
+            && !member.getModifiers().contains(Modifier.PRIVATE)) {
+          return true;
+        }
+      }
+      fail(component, "Enum %s needs an integer field named code".formatted(type));
+      return false;
+    }
+
+    /**
+     * Check that the enum can be decoded.
+     *
+     * @param component Record component.
+     * @param type Enum type.
+     * @return Flag to indicate that the enum has a static valueOf(int) method.
+     */
+    private boolean hasValueOf(RecordComponentElement component, TypeMirror type) {
+      for (var member : processingEnv.getTypeUtils().asElement(type).getEnclosedElements()) {
+        if (member.getKind() == ElementKind.METHOD
+            && member.getSimpleName().contentEquals("valueOf")
+            && member.getModifiers().contains(Modifier.STATIC)
+            && !member.getModifiers().contains(Modifier.PRIVATE)) {
+          var parameters = ((ExecutableElement) member).getParameters();
+          if (parameters.size() == 1 && parameters.get(0).asType().getKind() == TypeKind.INT) {
+            return true;
+          }
+        }
+      }
+      fail(component, "Enum %s needs a static method valueOf(int)".formatted(type));
+      return false;
+    }
+
+    /**
+     * Report that the component cannot have a size.
+     *
+     * @param component Record component.
+     * @return Always null.
+     */
+    private String noSize(RecordComponentElement component) {
+      return fail(component, "Size is not supported for %s".formatted(component.asType()));
+    }
+
+    /**
+     * Report that the component type is not supported.
+     *
+     * @param component Record component.
+     * @return Always null.
+     */
+    private String unsupported(RecordComponentElement component) {
+      return fail(
+          component,
+          "Type %s is not supported, write the codec for this message by hand"
+              .formatted(component.asType()));
+    }
+
+    /**
+     * Report an error and remember not to write the codec.
+     *
+     * @param element Element that caused the error.
+     * @param message Error message.
+     * @return Always null.
+     */
+    private String fail(Element element, String message) {
+      error(element, message);
+      failed = true;
+      return null;
+    }
+
+    /**
+     * Build the source of the codec class.
+     *
+     * @return Java source.
+     */
+    private String source() {
+      var source = new StringBuilder();
+      if (!packageName.isEmpty()) {
+        source.append("package ").append(packageName).append(";\n\n");
+      }
+      source.append("import java.nio.ByteBuffer;\n");
+      source.append("import javax.annotation.processing.Generated;\n\n");
+      source.append(
+          """
+          /**
+           * Encoders and decoders for the messages in this package, generated from their @Encode and
+           * @Decode annotations. Buffers must be in little endian order.
+           */
+          @Generated("com.github.goph3rx.codec.MessageProcessor")
+          public final class MessageCodec {
+          """);
+
+      // Decoder tables
+      if (!table.isEmpty() || !extendedTables.isEmpty()) {
+        source.append(
+            """
+              /** Reads the message that follows the operation code. */
+              private interface Decoder {
+                Object decode(ByteBuffer buffer);
+              }
+
+              /** Decoders by operation code. */
+              private static final Decoder[] DECODERS = new Decoder[%d];
+            """
+                .formatted(OPCODES));
+        for (var entry : extendedTables.entrySet()) {
+          source.append(
+              """
+                /** Decoders by extended operation code, for operation code 0x%02x. */
+                private static final Decoder[] DECODERS_%02X = new Decoder[%d];
+              """
+                  .formatted(entry.getKey(), entry.getKey(), entry.getValue().lastKey() + 1));
+        }
+        source.append("\n  static {\n");
+        for (var entry : table.entrySet()) {
+          source.append(
+              "    DECODERS[0x%02x] = MessageCodec::%s;\n"
+                  .formatted(entry.getKey(), entry.getValue()));
+        }
+        for (var entry : extendedTables.entrySet()) {
+          source.append(
+              "    DECODERS[0x%02x] = MessageCodec::decodeExtended%02X;\n"
+                  .formatted(entry.getKey(), entry.getKey()));
+          for (var extended : entry.getValue().entrySet()) {
+            source.append(
+                "    DECODERS_%02X[0x%02x] = MessageCodec::%s;\n"
+                    .formatted(entry.getKey(), extended.getKey(), extended.getValue()));
+          }
+        }
+        source.append("  }\n\n");
+      }
+      source.append("  private MessageCodec() {}\n\n");
+
+      // Decoding
+      if (!table.isEmpty() || !extendedTables.isEmpty()) {
+        source.append(
+            """
+              /**
+               * Decode the message with a generated decoder.
+               *
+               * @param opcode Operation code, already read from the buffer.
+               * @param buffer Buffer positioned after the operation code.
+               * @return Decoded message or null if there is no generated decoder for the operation code.
+               */
+              public static Object decode(int opcode, ByteBuffer buffer) {
+                var decoder = DECODERS[opcode & 0xff];
+                return decoder != null ? decoder.decode(buffer) : null;
+              }
+
+            """);
+        for (var opcode : extendedTables.keySet()) {
+          source.append(
+              """
+                /** Decode the message with operation code 0x%02x by its extended operation code. */
+                private static Object decodeExtended%02X(ByteBuffer buffer) {
+                  var id = buffer.getShort() & 0xffff;
+                  var decoder = id < DECODERS_%02X.length ? DECODERS_%02X[id] : null;
+                  if (decoder == null) {
+                    throw new IllegalArgumentException(
+                        "Cannot decode message with extended id=%%h".formatted(id));
+                  }
+                  return decoder.decode(buffer);
+                }
+
+              """
+                  .formatted(opcode, opcode, opcode, opcode));
+        }
+      }
+      source.append(encoders);
+      source.append(decoders);
+
+      // Helpers, the string helpers are shared with the hand-written codec
+      if (usesPadding) {
+        source.append(
+            """
+              /** Write zeros. */
+              private static void pad(ByteBuffer buffer, int length) {
+                for (; length >= 8; length -= 8) {
+                  buffer.putLong(0);
+                }
+                for (; length > 0; length--) {
+                  buffer.put((byte) 0);
+                }
+              }
+
+            """);
+      }
+      if (writesStrings) {
+        source.append(
+            """
+              /** Write the string as UTF-16LE followed by a zero terminator. */
+              public static void putString(ByteBuffer buffer, String value) {
+                for (var i = 0; i < value.length(); i++) {
+                  buffer.putChar(value.charAt(i));
+                }
+                buffer.putShort((short) 0);
+              }
+
+            """);
+      }
+      if (readsStrings) {
+        source.append(
+            """
+              /**
+               * Read the string as UTF-16LE up to the zero terminator. Characters are read straight from
+               * the backing array, which avoids the charset decoder that UTF-16 would otherwise need.
+               */
+              public static String getString(ByteBuffer buffer) {
+                var array = buffer.array();
+                var start = buffer.arrayOffset() + buffer.position();
+                var limit = buffer.arrayOffset() + buffer.limit();
+                var end = start;
+                while (true) {
+                  if (end + 2 > limit) {
+                    throw new java.nio.BufferUnderflowException();
+                  }
+                  if (array[end] == 0 && array[end + 1] == 0) {
+                    break;
+                  }
+                  end += 2;
+                }
+                var chars = new char[(end - start) / 2];
+                for (var i = 0; i < chars.length; i++) {
+                  var position = start + i * 2;
+                  chars[i] = (char) ((array[position] & 0xff) | (array[position + 1] << 8));
+                }
+                buffer.position(end + 2 - buffer.arrayOffset());
+                return new String(chars);
+              }
+
+            """);
+      }
+      source.setLength(source.length() - 1);
+      source.append("}\n");
+      return source.toString();
+    }
+  }
+
+  /**
+   * Get the width of the primitive type.
+   *
+   * @param kind Primitive type.
+   * @return Width in bytes.
+   */
+  private static int natural(TypeKind kind) {
+    return switch (kind) {
+      case BYTE -> 1;
+      case SHORT -> 2;
+      case INT -> 4;
+      default -> 8;
+    };
+  }
+
+  /**
+   * Get the primitive type with the width.
+   *
+   * @param width Width in bytes.
+   * @return Name of the type.
+   */
+  private static String primitive(int width) {
+    return switch (width) {
+      case 1 -> "byte";
+      case 2 -> "short";
+      case 4 -> "int";
+      default -> "long";
+    };
+  }
+
+  /**
+   * Get the buffer method that writes the number.
+   *
+   * @param width Width in bytes.
+   * @return Name of the method.
+   */
+  private static String putter(int width) {
+    return switch (width) {
+      case 1 -> "put";
+      case 2 -> "putShort";
+      case 4 -> "putInt";
+      default -> "putLong";
+    };
+  }
+
+  /**
+   * Get the buffer method that reads the number.
+   *
+   * @param width Width in bytes.
+   * @return Name of the method.
+   */
+  private static String getter(int width) {
+    return switch (width) {
+      case 1 -> "get";
+      case 2 -> "getShort";
+      case 4 -> "getInt";
+      default -> "getLong";
+    };
+  }
+
+  /**
+   * Check whether the type is a byte array.
+   *
+   * @param type Type.
+   * @return Flag to indicate a byte array.
+   */
+  private static boolean isByteArray(TypeMirror type) {
+    return ((ArrayType) type).getComponentType().getKind() == TypeKind.BYTE;
+  }
+
+  /**
+   * Check whether the type is a string.
+   *
+   * @param type Type.
+   * @return Flag to indicate a string.
+   */
+  private boolean isString(TypeMirror type) {
+    return qualifiedName(type).equals("java.lang.String");
+  }
+
+  /**
+   * Check whether the type is an enum.
+   *
+   * @param type Type.
+   * @return Flag to indicate an enum.
+   */
+  private boolean isEnum(TypeMirror type) {
+    return processingEnv.getTypeUtils().asElement(type).getKind() == ElementKind.ENUM;
+  }
+
+  /**
+   * Get the qualified name of the declared type.
+   *
+   * @param type Type.
+   * @return Name that can be used in the generated source.
+   */
+  private String qualifiedName(TypeMirror type) {
+    return ((TypeElement) processingEnv.getTypeUtils().asElement(type))
+        .getQualifiedName()
+        .toString();
+  }
+}
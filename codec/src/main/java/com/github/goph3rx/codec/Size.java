@@ -0,0 +1,18 @@
+package com.github.goph3rx.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Size of the component on the wire. For numbers and enums this is the width in bytes (1, 2, 4 or
+ * 8), which may be smaller than the Java type. For byte arrays this is the length, which is
+ * required for decoding.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface Size {
+  /** Size in bytes. */
+  int value();
+}
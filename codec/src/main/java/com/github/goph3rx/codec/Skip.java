@@ -0,0 +1,14 @@
+package com.github.goph3rx.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Bytes before the component that are written as zeros and skipped when reading. */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface Skip {
+  /** Number of bytes. */
+  int value();
+}
@@ -0,0 +1,271 @@
+package com.github.goph3rx.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MessageProcessorTest {
+  private static final String REASON =
+      """
+      package sample;
+
+      public enum Reason {
+        FIRST(0x03);
+
+        public final int code;
+
+        Reason(int code) {
+          this.code = code;
+        }
+
+        public static Reason valueOf(int code) {
+          return FIRST;
+        }
+      }
+      """;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void roundTrip() throws Exception {
+    // Given
+    var sources =
+        Map.of(
+            "sample.Reason",
+            REASON,
+            "sample.ServerSample",
+            """
+            package sample;
+
+            import com.github.goph3rx.codec.*;
+
+            @Encode(opcode = 0x01, padding = 2)
+            public record ServerSample(
+                boolean flag, @Size(2) int small, long big, Reason reason, String name) {}
+            """,
+            "sample.ClientSample",
+            """
+            package sample;
+
+            import com.github.goph3rx.codec.*;
+
+            @Decode(opcode = 0x02)
+            public record ClientSample(
+                @Size(1) int small, String name, Reason reason, @Skip(2) @Size(3) byte[] data) {}
+            """,
+            "sample.ClientExtended",
+            """
+            package sample;
+
+            import com.github.goph3rx.codec.*;
+
+            @Decode(opcode = 0xd0, extended = 0x05)
+            public record ClientExtended() {}
+            """);
+    var loader = compile(sources);
+    var codec = loader.loadClass("sample.MessageCodec");
+    var server = loader.loadClass("sample.ServerSample");
+    var reason = loader.loadClass("sample.Reason").getEnumConstants()[0];
+    var message = server.getConstructors()[0].newInstance(true, 0x0102, 0x0a0b0c0dL, reason, "Hi");
+    var buffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+    var input =
+        ByteBuffer.wrap(HexFormat.of().parseHex("ff480069000000030000000000050607"))
+            .order(ByteOrder.LITTLE_ENDIAN);
+    var extended = ByteBuffer.wrap(HexFormat.of().parseHex("0500")).order(ByteOrder.LITTLE_ENDIAN);
+
+    // When
+    codec.getMethod("encode", server, ByteBuffer.class).invoke(null, message, buffer);
+    var decode = codec.getMethod("decode", int.class, ByteBuffer.class);
+    var decoded = decode.invoke(null, 0x02, input);
+    var decodedExtended = decode.invoke(null, 0xd0, extended);
+    var missing = decode.invoke(null, 0x03, ByteBuffer.allocate(0));
+
+    // Then
+    assertEquals(
+        "010102010d0c0b0a00000000030000004800690000000000",
+        HexFormat.of().formatHex(buffer.array(), 0, buffer.position()));
+    assertEquals(-1, decoded.getClass().getMethod("small").invoke(decoded));
+    assertEquals("Hi", decoded.getClass().getMethod("name").invoke(decoded));
+    assertEquals(reason, decoded.getClass().getMethod("reason").invoke(decoded));
+    assertArrayEquals(
+        new byte[] {5, 6, 7}, (byte[]) decoded.getClass().getMethod("data").invoke(decoded));
+    assertFalse(input.hasRemaining());
+    assertEquals("sample.ClientExtended", decodedExtended.getClass().getName());
+    assertNull(missing);
+  }
+
+  @Test
+  public void unsupportedType() throws Exception {
+    // Given
+    var sources =
+        Map.of(
+            "sample.ServerSample",
+            """
+            package sample;
+
+            import com.github.goph3rx.codec.*;
+
+            @Encode(opcode = 0x01)
+            public record ServerSample(java.util.List<String> names) {}
+            """);
+
+    // When
+    var errors = compileErrors(sources);
+
+    // Then
+    assertTrue(errors, errors.contains("write the codec for this message by hand"));
+  }
+
+  @Test
+  public void duplicateOpcode() throws Exception {
+    // Given
+    var sources =
+        Map.of(
+            "sample.ClientFirst",
+            """
+            package sample;
+
+            @com.github.goph3rx.codec.Decode(opcode = 0x01)
+            public record ClientFirst() {}
+            """,
+            "sample.ClientSecond",
+            """
+            package sample;
+
+            @com.github.goph3rx.codec.Decode(opcode = 0x01)
+            public record ClientSecond() {}
+            """);
+
+    // When
+    var errors = compileErrors(sources);
+
+    // Then
+    assertTrue(errors, errors.contains("Duplicate decoder for opcode 0x01"));
+  }
+
+  @Test
+  public void byteArrayWithoutSize() throws Exception {
+    // Given
+    var sources =
+        Map.of(
+            "sample.ClientSample",
+            """
+            package sample;
+
+            @com.github.goph3rx.codec.Decode(opcode = 0x01)
+            public record ClientSample(byte[] data) {}
+            """);
+
+    // When
+    var errors = compileErrors(sources);
+
+    // Then
+    assertTrue(errors, errors.contains("Byte arrays need @Size"));
+  }
+
+  @Test
+  public void notRecord() throws Exception {
+    // Given
+    var sources =
+        Map.of(
+            "sample.ClientSample",
+            """
+            package sample;
+
+            @com.github.goph3rx.codec.Decode(opcode = 0x01)
+            public class ClientSample {}
+            """);
+
+    // When
+    var errors = compileErrors(sources);
+
+    // Then
+    assertTrue(errors, errors.contains("Only records can be encoded or decoded"));
+  }
+
+  /**
+   * Compile the sources with the processor, expecting success.
+   *
+   * @param sources Sources by class name.
+   * @return Loader for the compiled classes.
+   */
+  private ClassLoader compile(Map<String, String> sources) throws IOException {
+    var output = folder.newFolder();
+    var log = new StringWriter();
+    assertTrue(log.toString(), run(sources, output, log));
+    return new URLClassLoader(new URL[] {output.toURI().toURL()}, getClass().getClassLoader());
+  }
+
+  /**
+   * Compile the sources with the processor, expecting failure.
+   *
+   * @param sources Sources by class name.
+   * @return Compiler output.
+   */
+  private String compileErrors(Map<String, String> sources) throws IOException {
+    var log = new StringWriter();
+    assertFalse(run(sources, folder.newFolder(), log));
+    return log.toString();
+  }
+
+  /**
+   * Run the compiler with the processor.
+   *
+   * @param sources Sources by class name.
+   * @param output Directory for the classes and the generated sources.
+   * @param log Compiler output.
+   * @return Flag to indicate success.
+   */
+  private static boolean run(Map<String, String> sources, File output, StringWriter log) {
+    var units =
+        sources.entrySet().stream()
+            .map(entry -> (JavaFileObject) new Source(entry.getKey(), entry.getValue()))
+            .toList();
+    var options =
+        List.of(
+            "-classpath",
+            System.getProperty("java.class.path"),
+            "-d",
+            output.getPath(),
+            "-s",
+            output.getPath());
+    var task = ToolProvider.getSystemJavaCompiler().getTask(log, null, null, options, null, units);
+    task.setProcessors(List.of(new MessageProcessor()));
+    return task.call();
+  }
+
+  /** Source file held in memory. */
+  private static class Source extends SimpleJavaFileObject {
+    private final String code;
+
+    Source(String name, String code) {
+      super(URI.create("string:///" + name.replace('.', '/') + ".java"), Kind.SOURCE);
+      this.code = code;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return code;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.github.goph3rx.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Value that only goes up. */
+public class Counter {
+  /** Current value. */
+  private final LongAdder value = new LongAdder();
+
+  /** Increase the value by one. */
+  public void inc() {
+    value.increment();
+  }
+
+  /**
+   * Increase the value.
+   *
+   * @param amount Amount to add, must not be negative.
+   */
+  public void add(long amount) {
+    value.add(amount);
+  }
+
+  /** Get the current value. */
+  public long get() {
+    return value.sum();
+  }
+}
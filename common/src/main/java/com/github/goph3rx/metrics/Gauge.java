@@ -0,0 +1,32 @@
+package com.github.goph3rx.metrics;
+
+import java.util.function.LongSupplier;
+
+/** Value that is sampled whenever the metrics are collected. */
+public class Gauge {
+  /** Source of the value. */
+  private volatile LongSupplier supplier;
+
+  /**
+   * Create a new gauge.
+   *
+   * @param supplier Source of the value.
+   */
+  Gauge(LongSupplier supplier) {
+    this.supplier = supplier;
+  }
+
+  /**
+   * Change the source of the value.
+   *
+   * @param supplier Source of the value.
+   */
+  void setSupplier(LongSupplier supplier) {
+    this.supplier = supplier;
+  }
+
+  /** Get the current value. */
+  public long get() {
+    return supplier.getAsLong();
+  }
+}
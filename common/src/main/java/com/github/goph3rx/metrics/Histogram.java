@@ -0,0 +1,101 @@
+package com.github.goph3rx.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/** Distribution of values over a fixed set of buckets. Recording never takes a lock. */
+public class Histogram {
+  /** Upper bounds of the buckets, in increasing order. */
+  private final double[] bounds;
+  /** Number of values in every bucket, the last one is for values above all bounds. */
+  private final LongAdder[] counts;
+  /** Sum of all the values. */
+  private final DoubleAdder sum = new DoubleAdder();
+
+  /**
+   * Create a new histogram.
+   *
+   * @param bounds Upper bounds of the buckets, in increasing order.
+   */
+  Histogram(double[] bounds) {
+    this.bounds = bounds.clone();
+    this.counts = new LongAdder[bounds.length + 1];
+    for (var i = 0; i < counts.length; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Record a value.
+   *
+   * @param value Value.
+   */
+  public void observe(double value) {
+    var i = 0;
+    while (i < bounds.length && value > bounds[i]) {
+      i++;
+    }
+    counts[i].increment();
+    sum.add(value);
+  }
+
+  /**
+   * Record a duration in seconds.
+   *
+   * @param nanos Duration in nanoseconds.
+   */
+  public void observeNanos(long nanos) {
+    observe(nanos / 1e9);
+  }
+
+  /**
+   * Run the action and record how long it took in seconds.
+   *
+   * @param action Action.
+   * @param <T> Type of the result.
+   * @return Result of the action.
+   */
+  public <T> T time(Supplier<T> action) {
+    var start = System.nanoTime();
+    try {
+      return action.get();
+    } finally {
+      observeNanos(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Run the action and record how long it took in seconds.
+   *
+   * @param action Action.
+   */
+  public void time(Runnable action) {
+    var start = System.nanoTime();
+    try {
+      action.run();
+    } finally {
+      observeNanos(System.nanoTime() - start);
+    }
+  }
+
+  /** Get the upper bounds of the buckets. */
+  double[] getBounds() {
+    return bounds;
+  }
+
+  /**
+   * Get the number of values in the bucket, not including the ones before.
+   *
+   * @param bucket Bucket, the one after the last bound is for the values above all bounds.
+   * @return Number of values.
+   */
+  long getCount(int bucket) {
+    return counts[bucket].sum();
+  }
+
+  /** Get the sum of all the values. */
+  double getSum() {
+    return sum.sum();
+  }
+}
@@ -0,0 +1,80 @@
+package com.github.goph3rx.metrics;
+
+import java.util.function.LongSupplier;
+
+/** Registry shared by the whole process, so that any class can record metrics. */
+public final class Metrics {
+  /** Buckets for durations in seconds, from 100us to 10s. */
+  public static final double[] LATENCY_BUCKETS = {
+    0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+  };
+  /** Buckets for sizes in bytes, from 64B to 64KB. */
+  public static final double[] SIZE_BUCKETS = {64, 256, 1024, 4096, 16384, 65536};
+  /** Registry for all metrics. */
+  private static final MetricsRegistry registry = new MetricsRegistry();
+
+  private Metrics() {
+    // Only static methods
+  }
+
+  /** Get the registry for all metrics. */
+  public static MetricsRegistry getRegistry() {
+    return registry;
+  }
+
+  /**
+   * Get the counter, creating it if needed.
+   *
+   * @param name Name of the metric.
+   * @param help Description of the metric.
+   * @param labels Label names and values, one after the other.
+   * @return Counter.
+   */
+  public static Counter counter(String name, String help, String... labels) {
+    return registry.counter(name, help, labels);
+  }
+
+  /**
+   * Register the gauge, replacing the source of the value if it exists already.
+   *
+   * @param name Name of the metric.
+   * @param help Description of the metric.
+   * @param supplier Source of the value.
+   * @param labels Label names and values, one after the other.
+   * @return Gauge.
+   */
+  public static Gauge gauge(String name, String help, LongSupplier supplier, String... labels) {
+    return registry.gauge(name, help, supplier, labels);
+  }
+
+  /**
+   * Get the histogram, creating it if needed.
+   *
+   * @param name Name of the metric.
+   * @param help Description of the metric.
+   * @param bounds Upper bounds of the buckets, in increasing order.
+   * @param labels Label names and values, one after the other.
+   * @return Histogram.
+   */
+  public static Histogram histogram(String name, String help, double[] bounds, String... labels) {
+    return registry.histogram(name, help, bounds, labels);
+  }
+
+  /**
+   * Get the histogram for the duration of database calls.
+   *
+   * @param database Name of the database adapter.
+   * @param call Name of the call.
+   * @return Histogram.
+   */
+  public static Histogram database(String database, String call) {
+    return histogram(
+        "db_call_seconds",
+        "Duration of database calls",
+        LATENCY_BUCKETS,
+        "database",
+        database,
+        "call",
+        call);
+  }
+}
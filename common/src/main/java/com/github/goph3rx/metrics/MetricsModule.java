@@ -0,0 +1,15 @@
+package com.github.goph3rx.metrics;
+
+import dagger.Module;
+import dagger.Provides;
+import javax.inject.Named;
+
+/** Module that provides the configuration for exposing metrics. */
+@Module
+public interface MetricsModule {
+  @Provides
+  @Named("metrics.port")
+  static int providePort() {
+    return Integer.parseInt(System.getProperty("metrics.port", "9106"));
+  }
+}
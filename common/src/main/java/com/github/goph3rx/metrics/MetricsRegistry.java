@@ -0,0 +1,216 @@
+package com.github.goph3rx.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Collection of metrics that can be exported in the Prometheus text format. Metrics are identified
+ * by name and labels, asking for the same metric twice returns the same instance.
+ */
+public class MetricsRegistry {
+  /** Metrics by name. */
+  private final ConcurrentSkipListMap<String, Family> families = new ConcurrentSkipListMap<>();
+
+  /**
+   * Get the counter, creating it if needed.
+   *
+   * @param name Name of the metric.
+   * @param help Description of the metric.
+   * @param labels Label names and values, one after the other.
+   * @return Counter.
+   */
+  public Counter counter(String name, String help, String... labels) {
+    return family(name, help, Type.COUNTER).get(labels, key -> new Counter());
+  }
+
+  /**
+   * Register the gauge, replacing the source of the value if it exists already.
+   *
+   * @param name Name of the metric.
+   * @param help Description of the metric.
+   * @param supplier Source of the value.
+   * @param labels Label names and values, one after the other.
+   * @return Gauge.
+   */
+  public Gauge gauge(String name, String help, LongSupplier supplier, String... labels) {
+    var gauge = family(name, help, Type.GAUGE).get(labels, key -> new Gauge(supplier));
+    gauge.setSupplier(supplier);
+    return gauge;
+  }
+
+  /**
+   * Get the histogram, creating it if needed.
+   *
+   * @param name Name of the metric.
+   * @param help Description of the metric.
+   * @param bounds Upper bounds of the buckets, in increasing order.
+   * @param labels Label names and values, one after the other.
+   * @return Histogram.
+   */
+  public Histogram histogram(String name, String help, double[] bounds, String... labels) {
+    return family(name, help, Type.HISTOGRAM).get(labels, key -> new Histogram(bounds));
+  }
+
+  /**
+   * Write all metrics in the Prometheus text format.
+   *
+   * @param output Where to write the metrics.
+   */
+  public void write(StringBuilder output) {
+    for (var family : families.values()) {
+      output.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+      output
+          .append("# TYPE ")
+          .append(family.name)
+          .append(' ')
+          .append(family.type.name().toLowerCase())
+          .append('\n');
+      for (var entry : family.metrics.entrySet()) {
+        switch (entry.getValue()) {
+          case Counter m -> sample(output, family.name, entry.getKey(), m.get());
+          case Gauge m -> sample(output, family.name, entry.getKey(), m.get());
+          case Histogram m -> write(output, family.name, entry.getKey(), m);
+          default -> throw new IllegalStateException("Unknown metric");
+        }
+      }
+    }
+  }
+
+  /**
+   * Write the samples for a histogram.
+   *
+   * @param output Where to write the samples.
+   * @param name Name of the metric.
+   * @param labels Formatted labels.
+   * @param histogram Histogram.
+   */
+  private void write(StringBuilder output, String name, String labels, Histogram histogram) {
+    var bounds = histogram.getBounds();
+    var prefix = labels.isEmpty() ? "" : labels + ",";
+    var total = 0L;
+    for (var i = 0; i < bounds.length; i++) {
+      total += histogram.getCount(i);
+      sample(output, name + "_bucket", prefix + "le=\"" + bounds[i] + "\"", total);
+    }
+    total += histogram.getCount(bounds.length);
+    sample(output, name + "_bucket", prefix + "le=\"+Inf\"", total);
+    sample(output, name + "_sum", labels, histogram.getSum());
+    sample(output, name + "_count", labels, total);
+  }
+
+  /**
+   * Write a single sample.
+   *
+   * @param output Where to write the sample.
+   * @param name Name of the sample.
+   * @param labels Formatted labels.
+   * @param value Value.
+   */
+  private void sample(StringBuilder output, String name, String labels, Object value) {
+    output.append(name);
+    if (!labels.isEmpty()) {
+      output.append('{').append(labels).append('}');
+    }
+    output.append(' ').append(value).append('\n');
+  }
+
+  /**
+   * Get the family of metrics, creating it if needed.
+   *
+   * @param name Name of the metric.
+   * @param help Description of the metric.
+   * @param type Type of the metric.
+   * @return Family.
+   */
+  private Family family(String name, String help, Type type) {
+    var family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+    if (family.type != type) {
+      throw new IllegalArgumentException(
+          "Metric '%s' is already registered as %s".formatted(name, family.type));
+    }
+    return family;
+  }
+
+  /**
+   * Format the labels for the text format.
+   *
+   * @param labels Label names and values, one after the other.
+   * @return Formatted labels.
+   */
+  private static String format(String... labels) {
+    if (labels.length % 2 != 0) {
+      throw new IllegalArgumentException("Labels must come in name and value pairs");
+    }
+    var result = new StringBuilder();
+    for (var i = 0; i < labels.length; i += 2) {
+      if (i > 0) {
+        result.append(',');
+      }
+      var value = labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+      result.append(labels[i]).append("=\"").append(value).append('"');
+    }
+    return result.toString();
+  }
+
+  /** Type of the metric. */
+  private enum Type {
+    COUNTER,
+    GAUGE,
+    HISTOGRAM
+  }
+
+  /** Metrics that share the name, but differ in labels. */
+  private static class Family {
+    /** Name of the metric. */
+    private final String name;
+    /** Description of the metric. */
+    private final String help;
+    /** Type of the metric. */
+    private final Type type;
+    /** Metrics by formatted labels. */
+    private final Map<String, Object> metrics = new ConcurrentSkipListMap<>();
+    /** Metrics by label values, to avoid formatting on every lookup. */
+    private final ConcurrentHashMap<LabelKey, Object> lookup = new ConcurrentHashMap<>();
+
+    private Family(String name, String help, Type type) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+    }
+
+    /**
+     * Get the metric with the labels, creating it if needed.
+     *
+     * @param labels Label names and values, one after the other.
+     * @param factory Creates a new metric.
+     * @param <T> Type of the metric.
+     * @return Metric.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T get(String[] labels, Function<String, T> factory) {
+      return (T)
+          lookup.computeIfAbsent(
+              new LabelKey(labels), key -> metrics.computeIfAbsent(format(labels), factory::apply));
+    }
+  }
+
+  /**
+   * Label names and values, compared by content.
+   *
+   * @param labels Label names and values, one after the other.
+   */
+  private record LabelKey(String[] labels) {
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof LabelKey other && java.util.Arrays.equals(labels, other.labels);
+    }
+
+    @Override
+    public int hashCode() {
+      return java.util.Arrays.hashCode(labels);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.github.goph3rx.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** HTTP server that exposes the metrics for scraping in the Prometheus text format. */
+@Singleton
+public class MetricsServer {
+  /** Path that serves the metrics. */
+  public static final String PATH = "/metrics";
+  /** Content type of the text format. */
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  /** Logger for this class. */
+  private static final Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+
+  /** Port, 0 to disable the server. */
+  private final int port;
+  /** Registry to expose. */
+  private final MetricsRegistry registry;
+  /** Running server. */
+  private HttpServer server;
+
+  /**
+   * Create a new server for the shared registry.
+   *
+   * @param port Port, 0 to disable the server.
+   */
+  @Inject
+  public MetricsServer(@Named("metrics.port") int port) {
+    this(port, Metrics.getRegistry());
+  }
+
+  /**
+   * Create a new server.
+   *
+   * @param port Port, 0 to disable the server.
+   * @param registry Registry to expose.
+   */
+  public MetricsServer(int port, MetricsRegistry registry) {
+    this.port = port;
+    this.registry = registry;
+  }
+
+  /**
+   * Start serving the metrics in the background.
+   *
+   * @throws IOException Server cannot be started.
+   */
+  public void start() throws IOException {
+    if (port == 0) {
+      logger.info("Metrics are disabled");
+      return;
+    }
+    server = HttpServer.create(new InetSocketAddress(port), 0);
+    server.createContext(PATH, this::handle);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.start();
+    logger.info("Serving metrics on {}", server.getAddress());
+  }
+
+  /** Stop serving the metrics. */
+  public void stop() {
+    if (server != null) {
+      server.stop(0);
+      server = null;
+    }
+  }
+
+  /**
+   * Serve a single request.
+   *
+   * @param exchange Request and response.
+   * @throws IOException Response cannot be written.
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      var output = new StringBuilder();
+      registry.write(output);
+      var body = output.toString().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.github.goph3rx.timer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Handle for a task scheduled on the {@link TimingWheel}. */
+public class Timeout {
+  /** Task is waiting to be executed. */
+  static final int WAITING = 0;
+  /** Task was cancelled before it was executed. */
+  static final int CANCELLED = 1;
+  /** Task was handed over for execution. */
+  static final int EXPIRED = 2;
+
+  /** Wheel that holds this timeout. */
+  final TimingWheel wheel;
+  /** Task to execute. */
+  final Runnable task;
+  /** Time when the task is due, relative to the start of the wheel, in nanoseconds. */
+  final long deadline;
+  /** Full turns of the wheel left before the task is due. */
+  long remainingRounds;
+  /** Slot that holds this timeout. */
+  TimingWheel.Slot slot;
+  /** Previous timeout in the same slot. */
+  Timeout prev;
+  /** Next timeout in the same slot. */
+  Timeout next;
+
+  /** Current state of the task. */
+  private final AtomicInteger state = new AtomicInteger(WAITING);
+
+  /**
+   * Create a new timeout.
+   *
+   * @param wheel Wheel that holds this timeout.
+   * @param task Task to execute.
+   * @param deadline Time when the task is due, relative to the start of the wheel.
+   */
+  Timeout(TimingWheel wheel, Runnable task, long deadline) {
+    this.wheel = wheel;
+    this.task = task;
+    this.deadline = deadline;
+  }
+
+  /**
+   * Cancel the task, unless it has been executed already.
+   *
+   * @return Whether the task was cancelled.
+   */
+  public boolean cancel() {
+    if (!state.compareAndSet(WAITING, CANCELLED)) {
+      return false;
+    }
+    wheel.cancelled(this);
+    return true;
+  }
+
+  /** Check whether the task was cancelled. */
+  public boolean isCancelled() {
+    return state.get() == CANCELLED;
+  }
+
+  /** Check whether the task was handed over for execution. */
+  public boolean isExpired() {
+    return state.get() == EXPIRED;
+  }
+
+  /**
+   * Mark the task as handed over for execution.
+   *
+   * @return Whether the task should be executed.
+   */
+  boolean expire() {
+    return state.compareAndSet(WAITING, EXPIRED);
+  }
+}
@@ -0,0 +1,237 @@
+package com.github.goph3rx.timer;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel for large numbers of timeouts that are usually cancelled before they are due.
+ * Scheduling and cancelling only add the timeout to a queue, which is processed by the wheel thread
+ * once per tick, so both take constant time. Tasks are executed no earlier than requested and at
+ * most one tick late.
+ */
+public class TimingWheel {
+  /** Logger for this class. */
+  private static final Logger logger = LoggerFactory.getLogger(TimingWheel.class);
+
+  /** Duration of a single tick in nanoseconds. */
+  private final long tickNanos;
+  /** Mask for finding the slot of a tick. */
+  private final int mask;
+  /** Slots of the wheel, one per tick. */
+  private final Slot[] slots;
+  /** Executor for the tasks that are due. */
+  private final Executor executor;
+  /** Time when the wheel was started in nanoseconds. */
+  private final long startTime;
+  /** Timeouts waiting to be put on the wheel. */
+  private final ConcurrentLinkedQueue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+  /** Timeouts waiting to be taken off the wheel. */
+  private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+  /** Number of timeouts that are waiting. */
+  private final AtomicInteger pending = new AtomicInteger();
+  /** Thread that turns the wheel. */
+  private final Thread worker;
+  /** Flag to indicate that the wheel should stop. */
+  private volatile boolean stopped;
+  /** Current tick, only used by the wheel thread. */
+  private long tick;
+
+  /**
+   * Create a new wheel and start turning it.
+   *
+   * @param name Name of the thread that turns the wheel.
+   * @param tickDuration Duration of a single tick.
+   * @param unit Unit of the duration.
+   * @param wheelSize Number of slots, rounded up to a power of two.
+   * @param executor Executor for the tasks that are due.
+   */
+  public TimingWheel(
+      String name, long tickDuration, TimeUnit unit, int wheelSize, Executor executor) {
+    if (tickDuration <= 0 || wheelSize <= 0) {
+      throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+    }
+    this.tickNanos = unit.toNanos(tickDuration);
+    var size = Integer.highestOneBit(wheelSize - 1) << 1;
+    size = Math.max(size, 1);
+    this.mask = size - 1;
+    this.slots = new Slot[size];
+    for (var i = 0; i < slots.length; i++) {
+      slots[i] = new Slot();
+    }
+    this.executor = executor;
+    this.startTime = System.nanoTime();
+    this.worker = Thread.ofVirtual().name(name).start(this::run);
+  }
+
+  /**
+   * Schedule the task for execution after the delay.
+   *
+   * @param task Task.
+   * @param delay Delay.
+   * @param unit Unit of the delay.
+   * @return Handle for cancelling the task.
+   */
+  public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    var deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0));
+    var timeout = new Timeout(this, task, deadline);
+    pending.incrementAndGet();
+    scheduled.add(timeout);
+    return timeout;
+  }
+
+  /** Get the number of tasks waiting to be executed. */
+  public int size() {
+    return pending.get();
+  }
+
+  /** Stop turning the wheel, tasks that are waiting will not be executed. */
+  public void stop() {
+    stopped = true;
+    LockSupport.unpark(worker);
+  }
+
+  /**
+   * Take the cancelled timeout off the wheel on the next tick.
+   *
+   * @param timeout Timeout.
+   */
+  void cancelled(Timeout timeout) {
+    pending.decrementAndGet();
+    cancelled.add(timeout);
+  }
+
+  /** Turn the wheel until stopped. */
+  private void run() {
+    logger.debug("Starting timing wheel");
+    while (!stopped) {
+      var deadline = waitForNextTick();
+      if (stopped) {
+        break;
+      }
+      removeCancelled();
+      transferScheduled();
+      expire(slots[(int) (tick & mask)], deadline);
+      tick++;
+    }
+    logger.debug("Timing wheel stopped");
+  }
+
+  /**
+   * Sleep until the end of the current tick.
+   *
+   * @return Time at the end of the tick, relative to the start of the wheel.
+   */
+  private long waitForNextTick() {
+    var deadline = tickNanos * (tick + 1);
+    while (!stopped) {
+      var remaining = deadline - (System.nanoTime() - startTime);
+      if (remaining <= 0) {
+        break;
+      }
+      LockSupport.parkNanos(remaining);
+    }
+    return deadline;
+  }
+
+  /** Take the cancelled timeouts off the wheel. */
+  private void removeCancelled() {
+    Timeout timeout;
+    while ((timeout = cancelled.poll()) != null) {
+      if (timeout.slot != null) {
+        timeout.slot.remove(timeout);
+      }
+    }
+  }
+
+  /** Put the newly scheduled timeouts on the wheel. */
+  private void transferScheduled() {
+    Timeout timeout;
+    while ((timeout = scheduled.poll()) != null) {
+      if (timeout.isCancelled()) {
+        continue;
+      }
+      var due = timeout.deadline / tickNanos;
+      timeout.remainingRounds = (due - tick) / slots.length;
+      slots[(int) (Math.max(due, tick) & mask)].add(timeout);
+    }
+  }
+
+  /**
+   * Execute the tasks in the slot that are due.
+   *
+   * @param slot Slot for the current tick.
+   * @param deadline Time at the end of the tick, relative to the start of the wheel.
+   */
+  private void expire(Slot slot, long deadline) {
+    var timeout = slot.head;
+    while (timeout != null) {
+      var next = timeout.next;
+      if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+        slot.remove(timeout);
+        if (timeout.expire()) {
+          pending.decrementAndGet();
+          try {
+            executor.execute(timeout.task);
+          } catch (Exception e) {
+            logger.error("Failed to execute timeout", e);
+          }
+        }
+      } else if (timeout.isCancelled()) {
+        slot.remove(timeout);
+      } else {
+        timeout.remainingRounds--;
+      }
+      timeout = next;
+    }
+  }
+
+  /** Timeouts that are due on the same tick of the wheel, modulo full turns. */
+  static class Slot {
+    /** First timeout in the slot. */
+    private Timeout head;
+    /** Last timeout in the slot. */
+    private Timeout tail;
+
+    /**
+     * Add the timeout to the end of the slot.
+     *
+     * @param timeout Timeout.
+     */
+    private void add(Timeout timeout) {
+      timeout.slot = this;
+      if (tail == null) {
+        head = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+      }
+      tail = timeout;
+    }
+
+    /**
+     * Remove the timeout from the slot.
+     *
+     * @param timeout Timeout.
+     */
+    private void remove(Timeout timeout) {
+      if (timeout.prev == null) {
+        head = timeout.next;
+      } else {
+        timeout.prev.next = timeout.next;
+      }
+      if (timeout.next == null) {
+        tail = timeout.prev;
+      } else {
+        timeout.next.prev = timeout.prev;
+      }
+      timeout.slot = null;
+      timeout.prev = null;
+      timeout.next = null;
+    }
+  }
+}
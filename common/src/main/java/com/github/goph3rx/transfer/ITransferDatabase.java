@@ -19,6 +19,17 @@ public interface ITransferDatabase {
    */
   Optional<Transfer> fetch(String account);
 
+  /**
+   * Delete the transfer for the account if the tokens match and it has not expired. Checking and
+   * deleting happen atomically, so the transfer can only be consumed once.
+   *
+   * @param account Account name.
+   * @param auth Token for auth server.
+   * @param play Token for game server.
+   * @return Consumed transfer, if found.
+   */
+  Optional<Transfer> consume(String account, long auth, long play);
+
   /**
    * Delete the transfer for the account.
    *
@@ -22,4 +22,7 @@ public interface ITransferService {
 
   /** Start the background tasks for this service. */
   void start();
+
+  /** Stop the background tasks for this service. */
+  void stop();
 }
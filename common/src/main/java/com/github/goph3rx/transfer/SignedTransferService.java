@@ -0,0 +1,170 @@
+package com.github.goph3rx.transfer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.inject.Inject;
+import javax.inject.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Service for world transfers that does not use the database. The first part of the token holds the
+ * expiry and a random nonce, while the second part is a MAC over the account and the first part,
+ * keyed with a secret shared between the servers. Every token is accepted only once by this
+ * process.
+ */
+public class SignedTransferService implements ITransferService {
+  /** Logger for this class. */
+  private static final Logger logger = LoggerFactory.getLogger(SignedTransferService.class);
+  /** How long the transfer token is valid for. */
+  private static final int TOKEN_VALIDITY_MINUTES = 10;
+  /** How often to clean up the expired tokens. */
+  private static final int TOKEN_CLEANUP_SECONDS = 10;
+  /** Algorithm for signing the tokens. */
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+  /** Shortest secret accepted, in bytes. Matches the output length of the MAC. */
+  private static final int MINIMUM_SECRET_BYTES = 32;
+  /** Secure random number generation. */
+  private static final SecureRandom random = new SecureRandom();
+  /** Executor for scheduled tasks originating from this class. */
+  private static final ScheduledExecutorService executor =
+      Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+
+  /** Key for signing the tokens. */
+  private final SecretKeySpec key;
+  /** Tokens that have been used already, with their expiry in epoch seconds. */
+  private final ConcurrentHashMap<UsedToken, Long> used = new ConcurrentHashMap<>();
+  /** Background task, if started. */
+  private ScheduledFuture<?> task;
+
+  /**
+   * Create a new service.
+   *
+   * @param secret Secret shared between the servers, at least 32 bytes long.
+   */
+  @Inject
+  public SignedTransferService(@Named("transfer.secret") String secret) {
+    var bytes = secret.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length < MINIMUM_SECRET_BYTES) {
+      throw new IllegalArgumentException(
+          "Transfer secret must be at least %d bytes long, set transfer.secret"
+              .formatted(MINIMUM_SECRET_BYTES));
+    }
+    key = new SecretKeySpec(bytes, MAC_ALGORITHM);
+  }
+
+  @Override
+  public Transfer generate(String account) {
+    logger.debug("Generating transfer for account='{}'", account);
+
+    // Generate the token
+    var expiry = Instant.now().plusSeconds(TOKEN_VALIDITY_MINUTES * 60L).getEpochSecond();
+    var auth = (expiry << 32) | (random.nextInt() & 0xffffffffL);
+    var play = sign(account, auth);
+    var transfer =
+        new Transfer(
+            account,
+            auth,
+            play,
+            LocalDateTime.ofInstant(Instant.ofEpochSecond(expiry), ZoneId.systemDefault()));
+    logger.debug("Transfer is {}", transfer);
+    return transfer;
+  }
+
+  @Override
+  public boolean complete(String account, long auth, long play) {
+    logger.debug("Completing transfer account='{}' auth={} play={}", account, auth, play);
+    // Check the signature
+    var expected = sign(account, auth);
+    if (expected != play) {
+      logger.warn("Invalid play token expected={} actual={}", expected, play);
+      return false;
+    }
+
+    // Check the expiry
+    var expiry = auth >>> 32;
+    if (expiry < Instant.now().getEpochSecond()) {
+      logger.warn("Transfer expired account='{}'", account);
+      return false;
+    }
+
+    // Token can only be used once
+    if (used.putIfAbsent(new UsedToken(account, auth), expiry) != null) {
+      logger.warn("Transfer already used account='{}'", account);
+      return false;
+    }
+    logger.debug("Success");
+    return true;
+  }
+
+  @Override
+  public void start() {
+    task =
+        executor.scheduleAtFixedRate(
+            () -> {
+              try {
+                var now = Instant.now().getEpochSecond();
+                var before = used.size();
+                used.values().removeIf(expiry -> expiry < now);
+                var total = before - used.size();
+                if (total > 0) {
+                  logger.info("Cleaned up {} expired transfer(s)", total);
+                }
+              } catch (Exception e) {
+                logger.warn("Failed to clean up expired transfers", e);
+              }
+            },
+            0,
+            TOKEN_CLEANUP_SECONDS,
+            TimeUnit.SECONDS);
+  }
+
+  @Override
+  public void stop() {
+    logger.debug("Stopping the clean up of expired transfers");
+    if (task != null) {
+      task.cancel(false);
+      task = null;
+    }
+    logger.debug("Success");
+  }
+
+  /**
+   * Calculate the second part of the token.
+   *
+   * @param account Account name.
+   * @param auth First part of the token.
+   * @return Second part of the token.
+   */
+  private long sign(String account, long auth) {
+    try {
+      var mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(key);
+      mac.update(account.getBytes(StandardCharsets.UTF_8));
+      mac.update(ByteBuffer.allocate(Long.BYTES).putLong(auth).array());
+      return ByteBuffer.wrap(mac.doFinal()).getLong();
+    } catch (GeneralSecurityException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Token that has been used already.
+   *
+   * @param account Account name.
+   * @param auth First part of the token.
+   */
+  private record UsedToken(String account, long auth) {}
+}
@@ -1,5 +1,6 @@
 package com.github.goph3rx.transfer;
 
+import com.github.goph3rx.metrics.Metrics;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import java.util.Optional;
@@ -35,16 +36,19 @@ public class TransferDatabase implements ITransferDatabase {
   @Override
   public void create(Transfer transfer) {
     logger.debug("Creating transfer {}", transfer);
-    db.useHandle(
-        handle ->
-            handle
-                .createUpdate(
-                    "INSERT INTO transfers (account, auth, play, expiry) VALUES (?, ?, ?, ?) ON CONFLICT (account) DO UPDATE SET auth = EXCLUDED.auth, play = EXCLUDED.play, expiry = EXCLUDED.expiry")
-                .bind(0, transfer.account())
-                .bind(1, transfer.auth())
-                .bind(2, transfer.play())
-                .bind(3, transfer.expiry())
-                .execute());
+    Metrics.database("transfers", "create")
+        .time(
+            () ->
+                db.useHandle(
+                    handle ->
+                        handle
+                            .createUpdate(
+                                "INSERT INTO transfers (account, auth, play, expiry) VALUES (?, ?, ?, ?) ON CONFLICT (account) DO UPDATE SET auth = EXCLUDED.auth, play = EXCLUDED.play, expiry = EXCLUDED.expiry")
+                            .bind(0, transfer.account())
+                            .bind(1, transfer.auth())
+                            .bind(2, transfer.play())
+                            .bind(3, transfer.expiry())
+                            .execute()));
     logger.debug("Success");
   }
 
@@ -52,14 +56,38 @@ public class TransferDatabase implements ITransferDatabase {
   public Optional<Transfer> fetch(String account) {
     logger.debug("Fetching transfer with account='{}'", account);
     var transfer =
-        db.withHandle(
-            handle ->
-                handle
-                    .createQuery(
-                        "SELECT account, auth, play, expiry FROM transfers WHERE account = ?")
-                    .bind(0, account)
-                    .mapTo(Transfer.class)
-                    .findOne());
+        Metrics.database("transfers", "fetch")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "SELECT account, auth, play, expiry FROM transfers WHERE account = ?")
+                                .bind(0, account)
+                                .mapTo(Transfer.class)
+                                .findOne()));
+    logger.debug("Transfer is {}", transfer);
+    return transfer;
+  }
+
+  @Override
+  public Optional<Transfer> consume(String account, long auth, long play) {
+    logger.debug("Consuming transfer account='{}' auth={} play={}", account, auth, play);
+    var transfer =
+        Metrics.database("transfers", "consume")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "DELETE FROM transfers WHERE account = ? AND auth = ? AND play = ? AND expiry >= NOW() RETURNING account, auth, play, expiry")
+                                .bind(0, account)
+                                .bind(1, auth)
+                                .bind(2, play)
+                                .mapTo(Transfer.class)
+                                .findOne()));
     logger.debug("Transfer is {}", transfer);
     return transfer;
   }
@@ -67,12 +95,15 @@ public class TransferDatabase implements ITransferDatabase {
   @Override
   public void remove(String account) {
     logger.debug("Removing transfer account='{}'", account);
-    db.useHandle(
-        handle ->
-            handle
-                .createUpdate("DELETE FROM transfers WHERE account = ?")
-                .bind(0, account)
-                .execute());
+    Metrics.database("transfers", "remove")
+        .time(
+            () ->
+                db.useHandle(
+                    handle ->
+                        handle
+                            .createUpdate("DELETE FROM transfers WHERE account = ?")
+                            .bind(0, account)
+                            .execute()));
     logger.debug("Success");
   }
 
@@ -80,8 +111,14 @@ public class TransferDatabase implements ITransferDatabase {
   public int removeExpired() {
     logger.debug("Removing expired transfers");
     var total =
-        db.withHandle(
-            handle -> handle.createUpdate("DELETE FROM transfers WHERE expiry < NOW()").execute());
+        Metrics.database("transfers", "removeExpired")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createUpdate("DELETE FROM transfers WHERE expiry < NOW()")
+                                .execute()));
     logger.debug("Cleaned up {} expired transfer(s)", total);
     return total;
   }
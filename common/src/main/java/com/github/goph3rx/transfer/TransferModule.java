@@ -4,18 +4,45 @@ import dagger.Binds;
 import dagger.Module;
 import dagger.Provides;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 /** Module that binds all transfer services. */
 @Module
 public interface TransferModule {
+  /** Transfers are stored in the database. */
+  String MODE_DATABASE = "database";
+  /** Transfers are signed and checked without the database. */
+  String MODE_SIGNED = "signed";
+
   @Binds
   @Singleton
   ITransferDatabase bindDatabase(TransferDatabase impl);
 
-  @Binds
+  @Provides
   @Singleton
-  ITransferService bindService(TransferService impl);
+  static ITransferService provideService(
+      @Named("transfer.mode") String mode,
+      Provider<TransferService> database,
+      Provider<SignedTransferService> signed) {
+    return switch (mode) {
+      case MODE_DATABASE -> database.get();
+      case MODE_SIGNED -> signed.get();
+      default -> throw new IllegalArgumentException("Unknown transfer mode '%s'".formatted(mode));
+    };
+  }
+
+  @Provides
+  @Named("transfer.mode")
+  static String provideMode() {
+    return System.getProperty("transfer.mode", MODE_DATABASE);
+  }
+
+  @Provides
+  @Named("transfer.secret")
+  static String provideSecret() {
+    return System.getProperty("transfer.secret", "");
+  }
 
   @Provides
   @Named("transfer.db")
@@ -4,6 +4,7 @@ import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import org.slf4j.Logger;
@@ -26,6 +27,9 @@ public class TransferService implements ITransferService {
   /** Adapter for the database. */
   @Inject public ITransferDatabase database;
 
+  /** Background task, if started. */
+  private ScheduledFuture<?> task;
+
   /** Create a new service. */
   @Inject
   public TransferService() {
@@ -51,49 +55,42 @@ public class TransferService implements ITransferService {
   @Override
   public boolean complete(String account, long auth, long play) {
     logger.debug("Completing transfer account='{}' auth={} play={}", account, auth, play);
-    // Fetch the details
-    var transfer = database.fetch(account);
+    // Check and delete the token in one go, so that it can only be used once
+    var transfer = database.consume(account, auth, play);
     if (transfer.isEmpty()) {
-      logger.warn("Transfer not found account='{}'", account);
-      return false;
-    }
-
-    // Check the tokens
-    var myTransfer = transfer.get();
-    if (myTransfer.auth() != auth) {
-      logger.warn("Invalid auth token expected={} actual={}", myTransfer.auth(), auth);
+      logger.warn("Transfer not found, expired or tokens do not match account='{}'", account);
       return false;
     }
-    if (myTransfer.play() != play) {
-      logger.warn("Invalid play token expected={} actual={}", myTransfer.play(), play);
-      return false;
-    }
-
-    // Delete the token now that we've used it
-    try {
-      database.remove(account);
-    } catch (Exception e) {
-      logger.warn("Failed to delete token", e);
-    }
     logger.debug("Success");
     return true;
   }
 
   @Override
   public void start() {
-    executor.scheduleAtFixedRate(
-        () -> {
-          try {
-            var total = database.removeExpired();
-            if (total > 0) {
-              logger.info("Cleaned up {} expired transfer(s)", total);
-            }
-          } catch (Exception e) {
-            logger.warn("Failed to clean up expired transfers", e);
-          }
-        },
-        0,
-        TOKEN_CLEANUP_SECONDS,
-        TimeUnit.SECONDS);
+    task =
+        executor.scheduleAtFixedRate(
+            () -> {
+              try {
+                var total = database.removeExpired();
+                if (total > 0) {
+                  logger.info("Cleaned up {} expired transfer(s)", total);
+                }
+              } catch (Exception e) {
+                logger.warn("Failed to clean up expired transfers", e);
+              }
+            },
+            0,
+            TOKEN_CLEANUP_SECONDS,
+            TimeUnit.SECONDS);
+  }
+
+  @Override
+  public void stop() {
+    logger.debug("Stopping the clean up of expired transfers");
+    if (task != null) {
+      task.cancel(false);
+      task = null;
+    }
+    logger.debug("Success");
   }
 }
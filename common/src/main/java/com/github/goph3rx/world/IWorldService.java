@@ -4,7 +4,10 @@ import java.util.List;
 
 /** Service for managing registered worlds. */
 public interface IWorldService {
-  /** Fetch the list of all worlds. */
+  /**
+   * Fetch the list of all worlds. Served from a snapshot that is refreshed in the background, the
+   * same list instance is returned until the next refresh.
+   */
   List<World> list();
 
   /**
@@ -16,4 +19,7 @@ public interface IWorldService {
 
   /** Start the background tasks for this service. */
   void start();
+
+  /** Stop the background tasks for this service. */
+  void stop();
 }
@@ -1,5 +1,6 @@
 package com.github.goph3rx.world;
 
+import com.github.goph3rx.metrics.Metrics;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import java.util.List;
@@ -31,13 +32,16 @@ public class WorldDatabase implements IWorldDatabase {
   public List<World> list() {
     logger.debug("Fetching list of worlds");
     var result =
-        db.withHandle(
-            handle ->
-                handle
-                    .createQuery(
-                        "SELECT id, ip, port, current_players, maximum_players, is_online FROM worlds ORDER BY id")
-                    .mapTo(World.class)
-                    .list());
+        Metrics.database("worlds", "list")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "SELECT id, ip, port, current_players, maximum_players, is_online FROM worlds ORDER BY id")
+                                .mapTo(World.class)
+                                .list()));
     logger.debug("Worlds are {}", result);
     return result;
   }
@@ -45,18 +49,21 @@ public class WorldDatabase implements IWorldDatabase {
   @Override
   public void save(World world) {
     logger.debug("Saving world {}", world);
-    db.useHandle(
-        handle ->
-            handle
-                .createUpdate(
-                    "INSERT INTO worlds (id, ip, port, current_players, maximum_players, is_online, last_updated) VALUES (?, ?::inet, ?, ?, ?, ?, NOW()) ON CONFLICT (id) DO UPDATE SET ip = EXCLUDED.ip, port = EXCLUDED.port, current_players = EXCLUDED.current_players, maximum_players = EXCLUDED.maximum_players, is_online = EXCLUDED.is_online, last_updated = EXCLUDED.last_updated")
-                .bind(0, world.id())
-                .bind(1, world.ip())
-                .bind(2, world.port())
-                .bind(3, world.currentPlayers())
-                .bind(4, world.maximumPlayers())
-                .bind(5, world.isOnline())
-                .execute());
+    Metrics.database("worlds", "save")
+        .time(
+            () ->
+                db.useHandle(
+                    handle ->
+                        handle
+                            .createUpdate(
+                                "INSERT INTO worlds (id, ip, port, current_players, maximum_players, is_online, last_updated) VALUES (?, ?::inet, ?, ?, ?, ?, NOW()) ON CONFLICT (id) DO UPDATE SET ip = EXCLUDED.ip, port = EXCLUDED.port, current_players = EXCLUDED.current_players, maximum_players = EXCLUDED.maximum_players, is_online = EXCLUDED.is_online, last_updated = EXCLUDED.last_updated")
+                            .bind(0, world.id())
+                            .bind(1, world.ip())
+                            .bind(2, world.port())
+                            .bind(3, world.currentPlayers())
+                            .bind(4, world.maximumPlayers())
+                            .bind(5, world.isOnline())
+                            .execute()));
     logger.debug("Success");
   }
 
@@ -64,12 +71,15 @@ public class WorldDatabase implements IWorldDatabase {
   public int updateOffline() {
     logger.debug("Setting worlds as offline");
     var total =
-        db.withHandle(
-            handle ->
-                handle
-                    .createUpdate(
-                        "UPDATE worlds SET is_online = false WHERE last_updated < NOW() - INTERVAL '10 seconds' AND is_online = true")
-                    .execute());
+        Metrics.database("worlds", "updateOffline")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createUpdate(
+                                    "UPDATE worlds SET is_online = false WHERE last_updated < NOW() - INTERVAL '10 seconds' AND is_online = true")
+                                .execute()));
     logger.debug("{} world(s) went offline", total);
     return total;
   }
@@ -3,6 +3,7 @@ package com.github.goph3rx.world;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import org.slf4j.Logger;
@@ -21,6 +22,11 @@ public class WorldService implements IWorldService {
   /** Adapter for the database. */
   @Inject public IWorldDatabase database;
 
+  /** Immutable snapshot of the worlds, refreshed by the background task. */
+  private volatile List<World> snapshot;
+  /** Background task, if started. */
+  private ScheduledFuture<?> task;
+
   /** Create a new service. */
   @Inject
   public WorldService() {
@@ -30,7 +36,10 @@ public class WorldService implements IWorldService {
   @Override
   public List<World> list() {
     logger.debug("Fetching list of worlds");
-    var result = database.list();
+    var result = snapshot;
+    if (result == null) {
+      result = refresh();
+    }
     logger.debug("Worlds are {}", result);
     return result;
   }
@@ -44,19 +53,42 @@ public class WorldService implements IWorldService {
 
   @Override
   public void start() {
-    executor.scheduleAtFixedRate(
-        () -> {
-          try {
-            var total = database.updateOffline();
-            if (total > 0) {
-              logger.info("{} world(s) went offline", total);
-            }
-          } catch (Exception e) {
-            logger.warn("Failed to update the worlds", e);
-          }
-        },
-        0,
-        WORLD_UPDATE_SECONDS,
-        TimeUnit.SECONDS);
+    task =
+        executor.scheduleAtFixedRate(
+            () -> {
+              try {
+                var total = database.updateOffline();
+                if (total > 0) {
+                  logger.info("{} world(s) went offline", total);
+                }
+                refresh();
+              } catch (Exception e) {
+                logger.warn("Failed to update the worlds", e);
+              }
+            },
+            0,
+            WORLD_UPDATE_SECONDS,
+            TimeUnit.SECONDS);
+  }
+
+  @Override
+  public void stop() {
+    logger.debug("Stopping the updates of worlds");
+    if (task != null) {
+      task.cancel(false);
+      task = null;
+    }
+    logger.debug("Success");
+  }
+
+  /**
+   * Replace the snapshot with the worlds from the database.
+   *
+   * @return New snapshot.
+   */
+  private List<World> refresh() {
+    var result = List.copyOf(database.list());
+    snapshot = result;
+    return result;
   }
 }
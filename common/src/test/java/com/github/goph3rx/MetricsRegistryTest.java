@@ -0,0 +1,138 @@
+package com.github.goph3rx;
+
+import static org.junit.Assert.*;
+
+import com.github.goph3rx.metrics.MetricsRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+  private MetricsRegistry registry;
+
+  @Before
+  public void setUp() {
+    registry = new MetricsRegistry();
+  }
+
+  @Test
+  public void counterSame() {
+    // Given
+    var counter = registry.counter("hello_total", "Hello", "a", "b");
+
+    // When
+    var result = registry.counter("hello_total", "Hello", "a", "b");
+
+    // Then
+    assertSame(counter, result);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void counterWrongType() {
+    // Given
+    registry.gauge("hello", "Hello", () -> 1);
+
+    // When/Then
+    registry.counter("hello", "Hello");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void counterOddLabels() {
+    // When/Then
+    registry.counter("hello_total", "Hello", "a");
+  }
+
+  @Test
+  public void writeCounter() {
+    // Given
+    registry.counter("hello_total", "Hello", "result", "OK").add(5);
+    registry.counter("hello_total", "Hello", "result", "\"FAIL\"").inc();
+
+    // When
+    var output = new StringBuilder();
+    registry.write(output);
+
+    // Then
+    assertEquals(
+        """
+        # HELP hello_total Hello
+        # TYPE hello_total counter
+        hello_total{result="OK"} 5
+        hello_total{result="\\"FAIL\\""} 1
+        """,
+        output.toString());
+  }
+
+  @Test
+  public void writeGauge() {
+    // Given
+    registry.gauge("hello", "Hello", () -> 1);
+    registry.gauge("hello", "Hello", () -> 2);
+
+    // When
+    var output = new StringBuilder();
+    registry.write(output);
+
+    // Then
+    assertEquals(
+        """
+        # HELP hello Hello
+        # TYPE hello gauge
+        hello 2
+        """,
+        output.toString());
+  }
+
+  @Test
+  public void writeHistogram() {
+    // Given
+    var histogram = registry.histogram("hello_seconds", "Hello", new double[] {1, 2}, "a", "b");
+    histogram.observe(0.5);
+    histogram.observe(2);
+    histogram.observe(3);
+
+    // When
+    var output = new StringBuilder();
+    registry.write(output);
+
+    // Then
+    assertEquals(
+        """
+        # HELP hello_seconds Hello
+        # TYPE hello_seconds histogram
+        hello_seconds_bucket{a="b",le="1.0"} 1
+        hello_seconds_bucket{a="b",le="2.0"} 2
+        hello_seconds_bucket{a="b",le="+Inf"} 3
+        hello_seconds_sum{a="b"} 5.5
+        hello_seconds_count{a="b"} 3
+        """,
+        output.toString());
+  }
+
+  @Test
+  public void histogramConcurrent() throws Exception {
+    // Given
+    var histogram = registry.histogram("hello_seconds", "Hello", new double[] {1});
+    var threads = new Thread[4];
+    for (var i = 0; i < threads.length; i++) {
+      threads[i] =
+          Thread.ofVirtual()
+              .start(
+                  () -> {
+                    for (var j = 0; j < 1000; j++) {
+                      histogram.observe(j % 2);
+                    }
+                  });
+    }
+
+    // When
+    for (var thread : threads) {
+      thread.join();
+    }
+    var output = new StringBuilder();
+    registry.write(output);
+
+    // Then
+    assertTrue(output.toString().contains("hello_seconds_count 4000\n"));
+    assertTrue(output.toString().contains("hello_seconds_sum 2000.0\n"));
+  }
+}
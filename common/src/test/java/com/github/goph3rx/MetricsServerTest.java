@@ -0,0 +1,64 @@
+package com.github.goph3rx;
+
+import static org.junit.Assert.*;
+
+import com.github.goph3rx.metrics.MetricsRegistry;
+import com.github.goph3rx.metrics.MetricsServer;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsServerTest {
+  private MetricsRegistry registry;
+  private MetricsServer server;
+  private int port;
+
+  @Before
+  public void setUp() throws Exception {
+    try (var socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    registry = new MetricsRegistry();
+    server = new MetricsServer(port, registry);
+  }
+
+  @After
+  public void tearDown() {
+    server.stop();
+  }
+
+  @Test
+  public void serveMetrics() throws Exception {
+    // Given
+    registry.counter("hello_total", "Hello").inc();
+    server.start();
+
+    // When
+    var response =
+        HttpClient.newHttpClient()
+            .send(
+                HttpRequest.newBuilder(URI.create("http://127.0.0.1:%d/metrics".formatted(port)))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+    // Then
+    assertEquals(200, response.statusCode());
+    assertTrue(
+        response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/plain"));
+    assertTrue(response.body().contains("hello_total 1\n"));
+  }
+
+  @Test
+  public void startDisabled() throws Exception {
+    // Given
+    server = new MetricsServer(0, registry);
+
+    // When/Then
+    server.start();
+  }
+}
@@ -0,0 +1,126 @@
+package com.github.goph3rx;
+
+import static org.junit.Assert.*;
+
+import com.github.goph3rx.transfer.SignedTransferService;
+import java.time.LocalDateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SignedTransferServiceTest {
+  private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+  private SignedTransferService service;
+
+  @Before
+  public void setUp() {
+    service = new SignedTransferService(SECRET);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void createEmptySecret() {
+    // When/Then
+    new SignedTransferService("");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void createShortSecret() {
+    // When/Then
+    new SignedTransferService(SECRET.substring(1));
+  }
+
+  @Test
+  public void generate() {
+    // When
+    var result = service.generate("hello");
+
+    // Then
+    assertEquals("hello", result.account());
+    assertTrue(LocalDateTime.now().isBefore(result.expiry()));
+  }
+
+  @Test
+  public void completeSuccess() {
+    // Given
+    var transfer = service.generate("hello");
+
+    // When
+    var result = service.complete("hello", transfer.auth(), transfer.play());
+
+    // Then
+    assertTrue(result);
+  }
+
+  @Test
+  public void completeOtherService() {
+    // Given
+    var transfer = new SignedTransferService(SECRET).generate("hello");
+
+    // When
+    var result = service.complete("hello", transfer.auth(), transfer.play());
+
+    // Then
+    assertTrue(result);
+  }
+
+  @Test
+  public void completeAccountMismatch() {
+    // Given
+    var transfer = service.generate("hello");
+
+    // When
+    var result = service.complete("world", transfer.auth(), transfer.play());
+
+    // Then
+    assertFalse(result);
+  }
+
+  @Test
+  public void completeAuthMismatch() {
+    // Given
+    var transfer = service.generate("hello");
+
+    // When
+    var result = service.complete("hello", transfer.auth() + 1, transfer.play());
+
+    // Then
+    assertFalse(result);
+  }
+
+  @Test
+  public void completePlayMismatch() {
+    // Given
+    var transfer = service.generate("hello");
+
+    // When
+    var result = service.complete("hello", transfer.auth(), transfer.play() + 1);
+
+    // Then
+    assertFalse(result);
+  }
+
+  @Test
+  public void completeSecretMismatch() {
+    // Given
+    var transfer = new SignedTransferService("fedcba9876543210fedcba9876543210").generate("hello");
+
+    // When
+    var result = service.complete("hello", transfer.auth(), transfer.play());
+
+    // Then
+    assertFalse(result);
+  }
+
+  @Test
+  public void completeUsed() {
+    // Given
+    var transfer = service.generate("hello");
+    service.complete("hello", transfer.auth(), transfer.play());
+
+    // When
+    var result = service.complete("hello", transfer.auth(), transfer.play());
+
+    // Then
+    assertFalse(result);
+  }
+}
@@ -0,0 +1,91 @@
+package com.github.goph3rx;
+
+import static org.junit.Assert.*;
+
+import com.github.goph3rx.timer.TimingWheel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimingWheelTest {
+  private TimingWheel wheel;
+
+  @Before
+  public void setUp() {
+    wheel = new TimingWheel("test-timers", 1, TimeUnit.MILLISECONDS, 4, Runnable::run);
+  }
+
+  @After
+  public void tearDown() {
+    wheel.stop();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void createInvalidTick() {
+    // When/Then
+    new TimingWheel("test-timers", 0, TimeUnit.MILLISECONDS, 4, Runnable::run);
+  }
+
+  @Test
+  public void scheduleExpires() throws Exception {
+    // Given
+    var latch = new CountDownLatch(1);
+    var start = System.nanoTime();
+
+    // When
+    var timeout = wheel.schedule(latch::countDown, 20, TimeUnit.MILLISECONDS);
+
+    // Then
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+    assertTrue(timeout.isExpired());
+    assertFalse(timeout.cancel());
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void scheduleMany() throws Exception {
+    // Given
+    var latch = new CountDownLatch(100);
+
+    // When
+    for (var i = 0; i < 100; i++) {
+      wheel.schedule(latch::countDown, i % 10, TimeUnit.MILLISECONDS);
+    }
+
+    // Then
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void cancel() throws Exception {
+    // Given
+    var latch = new CountDownLatch(1);
+    var timeout = wheel.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+
+    // When
+    var result = timeout.cancel();
+
+    // Then
+    assertTrue(result);
+    assertTrue(timeout.isCancelled());
+    assertEquals(0, wheel.size());
+    assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void cancelAfterTransfer() throws Exception {
+    // Given
+    var latch = new CountDownLatch(1);
+    var timeout = wheel.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+    Thread.sleep(10);
+
+    // When
+    timeout.cancel();
+
+    // Then
+    assertFalse(latch.await(100, TimeUnit.MILLISECONDS));
+  }
+}
@@ -36,33 +36,7 @@ public class TransferServiceTest extends MockitoTest {
   @Test
   public void completeNotFound() {
     // Given
-    when(database.fetch("hello")).thenReturn(Optional.empty());
-
-    // When
-    var result = service.complete("hello", 123, 456);
-
-    // Then
-    assertFalse(result);
-  }
-
-  @Test
-  public void completeAuthMismatch() {
-    // Given
-    when(database.fetch("hello"))
-        .thenReturn(Optional.of(new Transfer("hello", 999, 456, LocalDateTime.now())));
-
-    // When
-    var result = service.complete("hello", 123, 456);
-
-    // Then
-    assertFalse(result);
-  }
-
-  @Test
-  public void completePlayMismatch() {
-    // Given
-    when(database.fetch("hello"))
-        .thenReturn(Optional.of(new Transfer("hello", 123, 999, LocalDateTime.now())));
+    when(database.consume("hello", 123, 456)).thenReturn(Optional.empty());
 
     // When
     var result = service.complete("hello", 123, 456);
@@ -74,7 +48,7 @@ public class TransferServiceTest extends MockitoTest {
   @Test
   public void completeSuccess() {
     // Given
-    when(database.fetch("hello"))
+    when(database.consume("hello", 123, 456))
         .thenReturn(Optional.of(new Transfer("hello", 123, 456, LocalDateTime.now())));
 
     // When
@@ -82,19 +56,16 @@ public class TransferServiceTest extends MockitoTest {
 
     // Then
     assertTrue(result);
+    verify(database, never()).fetch("hello");
+    verify(database, never()).remove("hello");
   }
 
-  @Test
-  public void completeSuccessDeleteFailed() {
+  @Test(expected = RuntimeException.class)
+  public void completeDatabaseFailed() {
     // Given
-    when(database.fetch("hello"))
-        .thenReturn(Optional.of(new Transfer("hello", 123, 456, LocalDateTime.now())));
-    doThrow(new RuntimeException("DB Fail")).when(database).remove("hello");
-
-    // When
-    var result = service.complete("hello", 123, 456);
+    when(database.consume("hello", 123, 456)).thenThrow(new RuntimeException("DB Fail"));
 
-    // Then
-    assertTrue(result);
+    // When/Then
+    service.complete("hello", 123, 456);
   }
 }
@@ -1,6 +1,7 @@
 package com.github.goph3rx;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +38,20 @@ public class WorldServiceTest extends MockitoTest {
     assertSame(expected, actual);
   }
 
+  @Test
+  public void listSnapshot() {
+    // Given
+    when(database.list()).thenReturn(List.of(WORLD));
+    var expected = service.list();
+
+    // When
+    var actual = service.list();
+
+    // Then
+    assertSame(expected, actual);
+    verify(database, times(1)).list();
+  }
+
   @Test
   public void save() {
     // When
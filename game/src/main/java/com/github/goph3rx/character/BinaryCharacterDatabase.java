@@ -0,0 +1,254 @@
+package com.github.goph3rx.character;
+
+import com.github.goph3rx.metrics.Metrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import javax.inject.Inject;
+import javax.inject.Named;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jdbi.v3.core.statement.StatementException;
+import org.postgresql.util.PSQLException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adapter for the database that holds general character information in the binary schema. The
+ * identifier is stored as a UUID and the appearance as raw bytes, see sql/CharacterBinary.sql.
+ */
+public class BinaryCharacterDatabase implements ICharacterDatabase {
+  /** Logger for this class. */
+  private static final Logger logger = LoggerFactory.getLogger(BinaryCharacterDatabase.class);
+  /** Columns of the character, in the order expected by the row mapper. */
+  private static final String COLUMNS =
+      "id, name, account, race, class, gender, appearance, created_on, delete_on, last_used_on";
+
+  /** Database. */
+  private final Jdbi db;
+
+  /**
+   * Create a new database adapter.
+   *
+   * @param jdbcUrl Connection URL.
+   */
+  @Inject
+  public BinaryCharacterDatabase(@Named("character.db") String jdbcUrl) {
+    var config = new HikariConfig();
+    config.setJdbcUrl(jdbcUrl);
+    config.setPoolName("characters");
+    db = Jdbi.create(new HikariDataSource(config));
+    db.registerRowMapper(Character.class, BinaryCharacterDatabase::map);
+  }
+
+  /**
+   * Map the row to the character, reading the columns by position.
+   *
+   * @param rs Result set positioned at the row.
+   * @param ctx Statement context.
+   * @return Character information.
+   * @throws SQLException Columns cannot be read.
+   */
+  private static Character map(ResultSet rs, StatementContext ctx) throws SQLException {
+    return new Character(
+        toId(rs.getObject(1, UUID.class)),
+        rs.getString(2),
+        rs.getString(3),
+        CharacterRace.valueOf(rs.getInt(4)),
+        rs.getInt(5),
+        CharacterGender.valueOf(rs.getInt(6)),
+        rs.getBytes(7),
+        rs.getObject(8, LocalDateTime.class),
+        Optional.ofNullable(rs.getObject(9, LocalDateTime.class)),
+        Optional.ofNullable(rs.getObject(10, LocalDateTime.class)));
+  }
+
+  /**
+   * Convert the character identifier to the stored form.
+   *
+   * @param id Character identifier.
+   * @return Stored identifier.
+   */
+  private static UUID toUuid(String id) {
+    return UUID.fromString(id.substring(Character.PREFIX.length()));
+  }
+
+  /**
+   * Convert the stored identifier to the character identifier.
+   *
+   * @param uuid Stored identifier.
+   * @return Character identifier.
+   */
+  private static String toId(UUID uuid) {
+    return Character.PREFIX + uuid;
+  }
+
+  @Override
+  public void create(Character character) throws CharacterDuplicateException {
+    logger.debug("Creating character {}", character);
+    try {
+      Metrics.database("characters", "create")
+          .time(
+              () ->
+                  db.useHandle(
+                      handle ->
+                          handle
+                              .createUpdate(
+                                  "INSERT INTO characters ("
+                                      + COLUMNS
+                                      + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")
+                              .bind(0, toUuid(character.id()))
+                              .bind(1, character.name())
+                              .bind(2, character.account())
+                              .bind(3, character.race().code)
+                              .bind(4, character.clazz())
+                              .bind(5, character.gender().code)
+                              .bind(6, character.appearance())
+                              .bind(7, character.createdOn())
+                              .bind(8, character.deleteOn())
+                              .bind(9, character.lastUsedOn())
+                              .execute()));
+    } catch (StatementException e) {
+      if (e.getCause() instanceof PSQLException psqlException
+          && psqlException.getMessage().contains("duplicate key")) {
+        throw new CharacterDuplicateException(character.name());
+      }
+      throw e;
+    }
+    logger.debug("Success");
+  }
+
+  @Override
+  public List<Character> list(String account) {
+    logger.debug("Fetching list of characters account='{}'", account);
+    var result =
+        Metrics.database("characters", "list")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "SELECT "
+                                        + COLUMNS
+                                        + " FROM characters WHERE account = ? ORDER BY created_on")
+                                .bind(0, account)
+                                .mapTo(Character.class)
+                                .list()));
+    logger.debug("Characters are {}", result);
+    return result;
+  }
+
+  @Override
+  public void setDeleteOn(String id, Optional<LocalDateTime> deleteOn) {
+    logger.debug("Updating deletion date id='{}' deleteOn={}", id, deleteOn);
+    Metrics.database("characters", "setDeleteOn")
+        .time(
+            () ->
+                db.useHandle(
+                    handle ->
+                        handle
+                            .createUpdate("UPDATE characters SET delete_on = ? WHERE id = ?")
+                            .bind(0, deleteOn)
+                            .bind(1, toUuid(id))
+                            .execute()));
+    logger.debug("Success");
+  }
+
+  @Override
+  public void delete(String id) {
+    logger.debug("Deleting character id='{}'", id);
+    Metrics.database("characters", "delete")
+        .time(
+            () ->
+                db.useHandle(
+                    handle ->
+                        handle
+                            .createUpdate("DELETE FROM characters WHERE id = ?")
+                            .bind(0, toUuid(id))
+                            .execute()));
+    logger.debug("Success");
+  }
+
+  @Override
+  public Map<String, LocalDateTime> listDeleteOn() {
+    logger.debug("Fetching characters queued for deletion");
+    var result =
+        Metrics.database("characters", "listDeleteOn")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "SELECT id, delete_on FROM characters WHERE delete_on IS NOT NULL")
+                                .reduceRows(
+                                    new HashMap<String, LocalDateTime>(),
+                                    (map, row) -> {
+                                      map.put(
+                                          toId(row.getColumn("id", UUID.class)),
+                                          row.getColumn("delete_on", LocalDateTime.class));
+                                      return map;
+                                    })));
+    logger.debug("Found {} character(s) queued for deletion", result.size());
+    return result;
+  }
+
+  @Override
+  public Map<String, LocalDateTime> listDeleteOn(List<String> ids) {
+    logger.debug("Fetching deletion dates ids={}", ids);
+    var result =
+        Metrics.database("characters", "listDeleteOn")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "SELECT id, delete_on FROM characters WHERE id = ANY(?) AND delete_on IS NOT NULL")
+                                .bindArray(
+                                    0,
+                                    UUID.class,
+                                    ids.stream().map(BinaryCharacterDatabase::toUuid).toList())
+                                .reduceRows(
+                                    new HashMap<String, LocalDateTime>(),
+                                    (map, row) -> {
+                                      map.put(
+                                          toId(row.getColumn("id", UUID.class)),
+                                          row.getColumn("delete_on", LocalDateTime.class));
+                                      return map;
+                                    })));
+    logger.debug("Deletion dates are {}", result);
+    return result;
+  }
+
+  @Override
+  public List<String> deleteDue(List<String> ids) {
+    logger.debug("Deleting characters queued for deletion ids={}", ids);
+    var result =
+        Metrics.database("characters", "deleteDue")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createUpdate(
+                                    "DELETE FROM characters WHERE id = ANY(?) AND delete_on <= NOW()")
+                                .bindArray(
+                                    0,
+                                    UUID.class,
+                                    ids.stream().map(BinaryCharacterDatabase::toUuid).toList())
+                                .executeAndReturnGeneratedKeys("id")
+                                .mapTo(UUID.class)
+                                .list()));
+    logger.debug("Deleted {} character(s)", result.size());
+    return result.stream().map(BinaryCharacterDatabase::toId).toList();
+  }
+}
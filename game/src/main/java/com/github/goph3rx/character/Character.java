@@ -34,6 +34,17 @@ public record Character(
   /** Prefix used in unique identifiers for characters. */
   public static final String PREFIX = "char:";
 
+  /**
+   * Copy the character with a different deletion date.
+   *
+   * @param deleteOn Deletion date.
+   * @return Updated character.
+   */
+  public Character withDeleteOn(Optional<LocalDateTime> deleteOn) {
+    return new Character(
+        id, name, account, race, clazz, gender, appearance, createdOn, deleteOn, lastUsedOn);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
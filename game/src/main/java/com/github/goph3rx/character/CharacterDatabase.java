@@ -1,11 +1,14 @@
 package com.github.goph3rx.character;
 
+import com.github.goph3rx.metrics.Metrics;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -55,22 +58,25 @@ public class CharacterDatabase implements ICharacterDatabase {
   public void create(Character character) throws CharacterDuplicateException {
     logger.debug("Creating character {}", character);
     try {
-      db.useHandle(
-          handle ->
-              handle
-                  .createUpdate(
-                      "INSERT INTO characters (id, name, account, race, class, gender, appearance, created_on, delete_on, last_used_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")
-                  .bind(0, character.id())
-                  .bind(1, character.name())
-                  .bind(2, character.account())
-                  .bind(3, character.race().code)
-                  .bind(4, character.clazz())
-                  .bind(5, character.gender().code)
-                  .bind(6, HexFormat.of().formatHex(character.appearance()))
-                  .bind(7, character.createdOn())
-                  .bind(8, character.deleteOn())
-                  .bind(9, character.lastUsedOn())
-                  .execute());
+      Metrics.database("characters", "create")
+          .time(
+              () ->
+                  db.useHandle(
+                      handle ->
+                          handle
+                              .createUpdate(
+                                  "INSERT INTO characters (id, name, account, race, class, gender, appearance, created_on, delete_on, last_used_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")
+                              .bind(0, character.id())
+                              .bind(1, character.name())
+                              .bind(2, character.account())
+                              .bind(3, character.race().code)
+                              .bind(4, character.clazz())
+                              .bind(5, character.gender().code)
+                              .bind(6, HexFormat.of().formatHex(character.appearance()))
+                              .bind(7, character.createdOn())
+                              .bind(8, character.deleteOn())
+                              .bind(9, character.lastUsedOn())
+                              .execute()));
     } catch (StatementException e) {
       if (e.getCause() instanceof PSQLException psqlException
           && psqlException.getMessage().contains("duplicate key")) {
@@ -85,14 +91,17 @@ public class CharacterDatabase implements ICharacterDatabase {
   public List<Character> list(String account) {
     logger.debug("Fetching list of characters account='{}'", account);
     var result =
-        db.withHandle(
-            handle ->
-                handle
-                    .createQuery(
-                        "SELECT id, name, account, race, class, gender, appearance, created_on, delete_on, last_used_on FROM characters WHERE account = ? ORDER BY created_on")
-                    .bind(0, account)
-                    .mapTo(Character.class)
-                    .list());
+        Metrics.database("characters", "list")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "SELECT id, name, account, race, class, gender, appearance, created_on, delete_on, last_used_on FROM characters WHERE account = ? ORDER BY created_on")
+                                .bind(0, account)
+                                .mapTo(Character.class)
+                                .list()));
     logger.debug("Characters are {}", result);
     return result;
   }
@@ -100,32 +109,100 @@ public class CharacterDatabase implements ICharacterDatabase {
   @Override
   public void setDeleteOn(String id, Optional<LocalDateTime> deleteOn) {
     logger.debug("Updating deletion date id='{}' deleteOn={}", id, deleteOn);
-    db.useHandle(
-        handle ->
-            handle
-                .createUpdate("UPDATE characters SET delete_on = ? WHERE id = ?")
-                .bind(1, id)
-                .bind(0, deleteOn)
-                .execute());
+    Metrics.database("characters", "setDeleteOn")
+        .time(
+            () ->
+                db.useHandle(
+                    handle ->
+                        handle
+                            .createUpdate("UPDATE characters SET delete_on = ? WHERE id = ?")
+                            .bind(1, id)
+                            .bind(0, deleteOn)
+                            .execute()));
     logger.debug("Success");
   }
 
   @Override
   public void delete(String id) {
     logger.debug("Deleting character id='{}'", id);
-    db.useHandle(
-        handle -> handle.createUpdate("DELETE FROM characters WHERE id = ?").bind(0, id).execute());
+    Metrics.database("characters", "delete")
+        .time(
+            () ->
+                db.useHandle(
+                    handle ->
+                        handle
+                            .createUpdate("DELETE FROM characters WHERE id = ?")
+                            .bind(0, id)
+                            .execute()));
     logger.debug("Success");
   }
 
   @Override
-  public int deleteNow() {
-    logger.debug("Deleting characters queued for deletion");
-    var total =
-        db.withHandle(
-            handle ->
-                handle.createUpdate("DELETE FROM characters WHERE delete_on < NOW()").execute());
-    logger.debug("Cleaned up {} deleted character(s)", total);
-    return total;
+  public Map<String, LocalDateTime> listDeleteOn() {
+    logger.debug("Fetching characters queued for deletion");
+    var result =
+        Metrics.database("characters", "listDeleteOn")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "SELECT id, delete_on FROM characters WHERE delete_on IS NOT NULL")
+                                .reduceRows(
+                                    new HashMap<String, LocalDateTime>(),
+                                    (map, row) -> {
+                                      map.put(
+                                          row.getColumn("id", String.class),
+                                          row.getColumn("delete_on", LocalDateTime.class));
+                                      return map;
+                                    })));
+    logger.debug("Found {} character(s) queued for deletion", result.size());
+    return result;
+  }
+
+  @Override
+  public Map<String, LocalDateTime> listDeleteOn(List<String> ids) {
+    logger.debug("Fetching deletion dates ids={}", ids);
+    var result =
+        Metrics.database("characters", "listDeleteOn")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createQuery(
+                                    "SELECT id, delete_on FROM characters WHERE id = ANY(?) AND delete_on IS NOT NULL")
+                                .bindArray(0, String.class, ids)
+                                .reduceRows(
+                                    new HashMap<String, LocalDateTime>(),
+                                    (map, row) -> {
+                                      map.put(
+                                          row.getColumn("id", String.class),
+                                          row.getColumn("delete_on", LocalDateTime.class));
+                                      return map;
+                                    })));
+    logger.debug("Deletion dates are {}", result);
+    return result;
+  }
+
+  @Override
+  public List<String> deleteDue(List<String> ids) {
+    logger.debug("Deleting characters queued for deletion ids={}", ids);
+    var result =
+        Metrics.database("characters", "deleteDue")
+            .time(
+                () ->
+                    db.withHandle(
+                        handle ->
+                            handle
+                                .createUpdate(
+                                    "DELETE FROM characters WHERE id = ANY(?) AND delete_on <= NOW()")
+                                .bindArray(0, String.class, ids)
+                                .executeAndReturnGeneratedKeys("id")
+                                .mapTo(String.class)
+                                .list()));
+    logger.debug("Deleted {} character(s)", result.size());
+    return result;
   }
 }
@@ -0,0 +1,98 @@
+package com.github.goph3rx.character;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/** Characters queued for deletion, ordered by the time they are due. */
+public class CharacterDeletionSchedule {
+  /** Pending deletions by time and identifier. */
+  private final TreeSet<Deletion> queue =
+      new TreeSet<>(Comparator.comparing(Deletion::deleteOn).thenComparing(Deletion::id));
+  /** Pending deletions by identifier. */
+  private final HashMap<String, Deletion> byId = new HashMap<>();
+  /** Lock for synchronizing access. */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Queue the character for deletion, replacing the earlier time if there is one.
+   *
+   * @param id Character identifier.
+   * @param deleteOn Date and time of deletion.
+   */
+  public void add(String id, LocalDateTime deleteOn) {
+    var deletion = new Deletion(id, deleteOn);
+    lock.lock();
+    try {
+      var previous = byId.put(id, deletion);
+      if (previous != null) {
+        queue.remove(previous);
+      }
+      queue.add(deletion);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Remove the character from the queue.
+   *
+   * @param id Character identifier.
+   */
+  public void remove(String id) {
+    lock.lock();
+    try {
+      var previous = byId.remove(id);
+      if (previous != null) {
+        queue.remove(previous);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the characters that are due for deletion, earliest first. They stay queued until removed.
+   *
+   * @param now Current date and time.
+   * @param limit Maximum number of characters.
+   * @return Character identifiers.
+   */
+  public List<String> due(LocalDateTime now, int limit) {
+    var result = new ArrayList<String>();
+    lock.lock();
+    try {
+      for (var deletion : queue) {
+        if (result.size() >= limit || deletion.deleteOn().isAfter(now)) {
+          break;
+        }
+        result.add(deletion.id());
+      }
+    } finally {
+      lock.unlock();
+    }
+    return result;
+  }
+
+  /** Get the number of characters queued for deletion. */
+  public int size() {
+    lock.lock();
+    try {
+      return byId.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Character queued for deletion.
+   *
+   * @param id Character identifier.
+   * @param deleteOn Date and time of deletion.
+   */
+  private record Deletion(String id, LocalDateTime deleteOn) {}
+}
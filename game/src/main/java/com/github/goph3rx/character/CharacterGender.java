@@ -1,7 +1,5 @@
 package com.github.goph3rx.character;
 
-import java.util.Arrays;
-
 /** Gender for the character. */
 public enum CharacterGender {
   MALE(0),
@@ -17,10 +15,12 @@ public enum CharacterGender {
    * @return Gender with this code or MALE in case of invalid input.
    */
   public static CharacterGender valueOf(int code) {
-    return Arrays.stream(VALUES)
-        .filter(v -> v.code == code)
-        .findFirst()
-        .orElse(CharacterGender.MALE);
+    for (var value : VALUES) {
+      if (value.code == code) {
+        return value;
+      }
+    }
+    return CharacterGender.MALE;
   }
 
   /** Integer representation. */
@@ -4,18 +4,40 @@ import dagger.Binds;
 import dagger.Module;
 import dagger.Provides;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 /** Module that binds all character services. */
 @Module
 public interface CharacterModule {
+  /** Identifiers and appearance are stored as text. */
+  String SCHEMA_TEXT = "text";
+  /** Identifiers are stored as UUIDs and appearance as raw bytes. */
+  String SCHEMA_BINARY = "binary";
+
   @Binds
   @Singleton
   ICharacterService bindService(CharacterService impl);
 
-  @Binds
+  @Provides
   @Singleton
-  ICharacterDatabase bindDatabase(CharacterDatabase impl);
+  static ICharacterDatabase provideDatabase(
+      @Named("character.schema") String schema,
+      Provider<CharacterDatabase> text,
+      Provider<BinaryCharacterDatabase> binary) {
+    return switch (schema) {
+      case SCHEMA_TEXT -> text.get();
+      case SCHEMA_BINARY -> binary.get();
+      default -> throw new IllegalArgumentException(
+          "Unknown character schema '%s'".formatted(schema));
+    };
+  }
+
+  @Provides
+  @Named("character.schema")
+  static String provideSchema() {
+    return System.getProperty("character.schema", SCHEMA_TEXT);
+  }
 
   @Provides
   @Named("character.namePattern")
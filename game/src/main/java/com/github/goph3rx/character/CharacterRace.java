@@ -1,7 +1,5 @@
 package com.github.goph3rx.character;
 
-import java.util.Arrays;
-
 /** Character races. */
 public enum CharacterRace {
   HUMAN(0),
@@ -21,10 +19,12 @@ public enum CharacterRace {
    * @return Race with this code or HUMAN in case of invalid input.
    */
   public static CharacterRace valueOf(int code) {
-    return Arrays.stream(VALUES)
-        .filter(v -> v.code == code)
-        .findFirst()
-        .orElse(CharacterRace.HUMAN);
+    for (var value : VALUES) {
+      if (value.code == code) {
+        return value;
+      }
+    }
+    return CharacterRace.HUMAN;
   }
 
   /** Integer representation. */
@@ -1,17 +1,23 @@
 package com.github.goph3rx.character;
 
+import com.github.goph3rx.game.IGameObjectIdService;
+import com.github.goph3rx.metrics.Metrics;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -24,18 +30,28 @@ public class CharacterService implements ICharacterService {
   private static final Logger logger = LoggerFactory.getLogger(CharacterService.class);
   /** Maximum number of characters that can be created on the same account. */
   private static final int MAXIMUM_CHARACTERS = 7;
-  /** How often to clean up the deleted characters. */
+  /** How often to check for characters that are due for deletion. */
   private static final int CHARACTER_CLEANUP_SECONDS = 10;
+  /** Maximum number of characters deleted in a single statement. */
+  private static final int CHARACTER_CLEANUP_BATCH = 500;
   /** Executor for scheduled tasks originating from this class. */
   private static final ScheduledExecutorService executor =
       Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
 
   /** List of templates for character creation. */
   private List<CharacterTemplate> creationTemplates = List.of();
+  /** Templates for character creation, indexed for validation. */
+  private CharacterTemplateIndex templateIndex = new CharacterTemplateIndex(List.of());
   /** Regular expression for checking character names. */
   private final Pattern namePattern;
+  /** Characters of the accounts in the lobby, by account. Lists are replaced on every change. */
+  private final ConcurrentHashMap<String, List<Character>> loaded = new ConcurrentHashMap<>();
+  /** Characters queued for deletion. */
+  private final CharacterDeletionSchedule deletions = new CharacterDeletionSchedule();
   /** Adapter for the database. */
   @Inject public ICharacterDatabase database;
+  /** Service for object identifiers. */
+  @Inject public IGameObjectIdService objectIds;
   /** How long to wait for (in days) before deleting the character. */
   @Named("character.deleteDays")
   @Inject
@@ -49,6 +65,9 @@ public class CharacterService implements ICharacterService {
   @Inject
   public CharacterService(@Named("character.namePattern") String namePattern) {
     this.namePattern = Pattern.compile(namePattern);
+    Metrics.gauge(
+        "character_lists_loaded", "Accounts with the characters kept in memory", loaded::size);
+    Metrics.gauge("character_deletions_pending", "Characters queued for deletion", deletions::size);
   }
 
   @Override
@@ -64,6 +83,7 @@ public class CharacterService implements ICharacterService {
    */
   public void setTemplates(List<CharacterTemplate> templates) {
     creationTemplates = templates;
+    templateIndex = new CharacterTemplateIndex(templates);
   }
 
   @Override
@@ -86,14 +106,7 @@ public class CharacterService implements ICharacterService {
         HexFormat.of().formatHex(appearance));
 
     // Check the template
-    var hasTemplate =
-        creationTemplates.stream()
-            .anyMatch(
-                t ->
-                    t.race() == race
-                        && t.clazz() == clazz
-                        && t.gender().map(g -> g == gender).orElse(true));
-    if (!hasTemplate) {
+    if (!templateIndex.contains(race, gender, clazz)) {
       throw new CharacterCreateException(
           "Invalid input for new character race=%s gender=%s class=%d"
               .formatted(race, gender, clazz));
@@ -129,17 +142,43 @@ public class CharacterService implements ICharacterService {
             Optional.empty(),
             Optional.empty());
     database.create(character);
+    loaded.computeIfPresent(
+        account,
+        (key, characters) -> {
+          var result = new ArrayList<>(characters);
+          result.add(character);
+          return List.copyOf(result);
+        });
     logger.info("Created new character {}", character);
   }
 
   @Override
   public List<Character> list(String account) {
     logger.debug("Fetching list of characters account='{}'", account);
-    var result = database.list(account);
+    var result = loaded.get(account);
+    if (result == null) {
+      result = database.list(account);
+    }
+    logger.debug("Characters are {}", result);
+    return result;
+  }
+
+  @Override
+  public List<Character> load(String account) {
+    logger.debug("Loading list of characters account='{}'", account);
+    var result = List.copyOf(database.list(account));
+    loaded.put(account, result);
     logger.debug("Characters are {}", result);
     return result;
   }
 
+  @Override
+  public void evict(String account) {
+    logger.debug("Evicting list of characters account='{}'", account);
+    loaded.remove(account);
+    logger.debug("Success");
+  }
+
   /**
    * Find the character or fail.
    *
@@ -148,8 +187,35 @@ public class CharacterService implements ICharacterService {
    * @return Character information.
    */
   private Character find(String account, int index) {
-    var characters = database.list(account);
-    return characters.get(index);
+    return list(account).get(index);
+  }
+
+  /**
+   * Replace the character in the loaded list, if there is one.
+   *
+   * @param character Updated character.
+   */
+  private void replace(Character character) {
+    loaded.computeIfPresent(
+        character.account(),
+        (key, characters) -> {
+          var result = new ArrayList<>(characters);
+          result.replaceAll(c -> c.id().equals(character.id()) ? character : c);
+          return List.copyOf(result);
+        });
+  }
+
+  /**
+   * Remove the characters from the loaded lists.
+   *
+   * @param filter Condition for the characters to remove.
+   */
+  private void forget(Predicate<Character> filter) {
+    loaded.replaceAll(
+        (key, characters) -> {
+          var result = new ArrayList<>(characters);
+          return result.removeIf(filter) ? List.copyOf(result) : characters;
+        });
   }
 
   @Override
@@ -162,6 +228,8 @@ public class CharacterService implements ICharacterService {
     if (deleteDays > 0) {
       var deleteOn = LocalDateTime.now().plusDays(deleteDays);
       database.setDeleteOn(character.id(), Optional.of(deleteOn));
+      replace(character.withDeleteOn(Optional.of(deleteOn)));
+      deletions.add(character.id(), deleteOn);
       logger.info(
           "Queued character for removal on id='{}' name='{}' deleteOn={}",
           character.id(),
@@ -172,6 +240,9 @@ public class CharacterService implements ICharacterService {
 
     // Remove now
     database.delete(character.id());
+    deletions.remove(character.id());
+    forget(c -> c.id().equals(character.id()));
+    objectIds.release(character.id());
     logger.info("Instantly removed character id='{}' name='{}'", character.id(), character.name());
   }
 
@@ -181,6 +252,8 @@ public class CharacterService implements ICharacterService {
     var character = find(account, index);
     logger.debug("Found {}", character);
     database.setDeleteOn(character.id(), Optional.empty());
+    replace(character.withDeleteOn(Optional.empty()));
+    deletions.remove(character.id());
     logger.info("Restored character id='{}' name='{}'", character.id(), character.name());
   }
 
@@ -189,20 +262,21 @@ public class CharacterService implements ICharacterService {
     // Load data
     var templatePath = Paths.get(".", "data", "character-templates.jsonc");
     try (var reader = new FileReader(new File(templatePath.toUri()))) {
-      creationTemplates = CharacterTemplate.load(reader);
+      setTemplates(List.copyOf(CharacterTemplate.load(reader)));
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
     logger.info("Loaded {} character templates", creationTemplates.size());
 
+    // Load the deletion queue
+    database.listDeleteOn().forEach(deletions::add);
+    logger.info("Loaded {} character(s) queued for deletion", deletions.size());
+
     // Start scheduled tasks
     executor.scheduleAtFixedRate(
         () -> {
           try {
-            var total = database.deleteNow();
-            if (total > 0) {
-              logger.info("Cleaned up {} deleted character(s)", total);
-            }
+            deleteDue(LocalDateTime.now());
           } catch (Exception e) {
             logger.warn("Failed to clean up deleted characters", e);
           }
@@ -211,4 +285,43 @@ public class CharacterService implements ICharacterService {
         CHARACTER_CLEANUP_SECONDS,
         TimeUnit.SECONDS);
   }
+
+  /**
+   * Delete the characters that are due for deletion. The database is only contacted when the
+   * schedule has something due. Characters that were not deleted are rescheduled with the deletion
+   * date held by the database, or dropped if they are no longer queued there.
+   *
+   * @param now Current date and time.
+   */
+  public void deleteDue(LocalDateTime now) {
+    var due = deletions.due(now, CHARACTER_CLEANUP_BATCH);
+    while (!due.isEmpty()) {
+      var deleted = Set.copyOf(database.deleteDue(due));
+      for (var id : deleted) {
+        deletions.remove(id);
+        objectIds.release(id);
+      }
+      if (!deleted.isEmpty()) {
+        forget(c -> deleted.contains(c.id()));
+        logger.info("Cleaned up {} deleted character(s)", deleted.size());
+      }
+      if (deleted.size() < due.size()) {
+        // Schedule is out of date, catch up with the database and retry on the next run
+        var remaining = due.stream().filter(id -> !deleted.contains(id)).toList();
+        var deleteOn = database.listDeleteOn(remaining);
+        for (var id : remaining) {
+          var date = deleteOn.get(id);
+          if (date == null) {
+            deletions.remove(id);
+            logger.info("Character is no longer queued for deletion id='{}'", id);
+          } else {
+            deletions.add(id, date);
+            logger.debug("Postponed character id='{}' deleteOn={}", id, date);
+          }
+        }
+        return;
+      }
+      due = deletions.due(now, CHARACTER_CLEANUP_BATCH);
+    }
+  }
 }
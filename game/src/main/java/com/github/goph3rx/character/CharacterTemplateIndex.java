@@ -0,0 +1,50 @@
+package com.github.goph3rx.character;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Templates for character creation indexed by race, gender and class, so that checking whether a
+ * template exists does not need to go through the whole list.
+ */
+public class CharacterTemplateIndex {
+  /** Base classes with a template, by race and gender. */
+  private final EnumMap<CharacterRace, EnumMap<CharacterGender, BitSet>> classes =
+      new EnumMap<>(CharacterRace.class);
+
+  /**
+   * Create a new index.
+   *
+   * @param templates Templates.
+   */
+  public CharacterTemplateIndex(List<CharacterTemplate> templates) {
+    for (var race : CharacterRace.values()) {
+      var byGender = new EnumMap<CharacterGender, BitSet>(CharacterGender.class);
+      for (var gender : CharacterGender.values()) {
+        byGender.put(gender, new BitSet());
+      }
+      classes.put(race, byGender);
+    }
+    for (var template : templates) {
+      var byGender = classes.get(template.race());
+      if (template.gender().isPresent()) {
+        byGender.get(template.gender().get()).set(template.clazz());
+      } else {
+        byGender.values().forEach(bits -> bits.set(template.clazz()));
+      }
+    }
+  }
+
+  /**
+   * Check whether there is a template for the character.
+   *
+   * @param race Race.
+   * @param gender Gender.
+   * @param clazz Base class.
+   * @return Flag to indicate that the template exists.
+   */
+  public boolean contains(CharacterRace race, CharacterGender gender, int clazz) {
+    return clazz >= 0 && classes.get(race).get(gender).get(clazz);
+  }
+}
@@ -2,6 +2,7 @@ package com.github.goph3rx.character;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /** Adapter for the database that holds general character information. */
@@ -39,9 +40,25 @@ public interface ICharacterDatabase {
   void delete(String id);
 
   /**
-   * Delete the characters queued for deletion.
+   * List the characters queued for deletion.
    *
-   * @return Total number of characters deleted.
+   * @return Deletion date by character identifier.
    */
-  int deleteNow();
+  Map<String, LocalDateTime> listDeleteOn();
+
+  /**
+   * List which of these characters are still queued for deletion.
+   *
+   * @param ids Character identifiers.
+   * @return Deletion date by character identifier, missing for characters that are not queued.
+   */
+  Map<String, LocalDateTime> listDeleteOn(List<String> ids);
+
+  /**
+   * Delete the characters, but only the ones that are queued for deletion and due.
+   *
+   * @param ids Character identifiers.
+   * @return Identifiers of the characters that were deleted.
+   */
+  List<String> deleteDue(List<String> ids);
 }
@@ -32,13 +32,29 @@ public interface ICharacterService {
           CharacterDuplicateException;
 
   /**
-   * List the characters on this account.
+   * List the characters on this account. Served from memory if the list was loaded earlier.
    *
    * @param account Account name.
    * @return List of characters.
    */
   List<Character> list(String account);
 
+  /**
+   * Load the characters on this account and keep them in memory until evicted, so that the lobby
+   * only needs the database for changes. Used when the session enters the lobby.
+   *
+   * @param account Account name.
+   * @return List of characters.
+   */
+  List<Character> load(String account);
+
+  /**
+   * Forget the characters on this account that were loaded earlier. Used when the session ends.
+   *
+   * @param account Account name.
+   */
+  void evict(String account);
+
   /**
    * Remove the character.
    *
@@ -1,7 +1,6 @@
 package com.github.goph3rx.game;
 
-import com.github.goph3rx.character.CharacterGender;
-import com.github.goph3rx.character.CharacterRace;
+import com.github.goph3rx.character.CharacterTemplate;
 import com.github.goph3rx.game.messages.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -9,26 +8,38 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Comparator;
+import java.util.List;
 
-/** Encoding and decoding of messages. */
+/**
+ * Encoding and decoding of messages. The character templates message is encoded once per list of
+ * templates and copied from then on, so the codec should be shared by the connections.
+ */
 public class GameCodec implements IGameCodec {
-  /** Size of the appearance block for the character. */
-  private static final int APPEARANCE_SIZE = 12;
+  /** Size of a single template in the character templates message. */
+  private static final int TEMPLATE_SIZE = 80;
+
+  /** Character templates message that was encoded last. */
+  private volatile EncodedTemplates encodedTemplates;
 
   @Override
   public int encode(Object message, byte[] buffer, int offset) {
     var wrapped =
         ByteBuffer.wrap(buffer, offset, buffer.length - offset).order(ByteOrder.LITTLE_ENDIAN);
-    switch (message) {
+    if (!(message instanceof ServerMessage serverMessage)) {
+      throw new IllegalArgumentException("Cannot encode message");
+    }
+
+    // Every server message must have an encoder, otherwise this does not compile. Messages with
+    // computed fields are encoded here, the rest by the codec generated from their annotations
+    switch (serverMessage) {
       case ServerKeyPacket m -> encode(m, wrapped);
-      case ServerAuthLoginFail m -> encode(m, wrapped);
+      case ServerAuthLoginFail m -> MessageCodec.encode(m, wrapped);
       case ServerCharSelectInfo m -> encode(m, wrapped);
       case ServerCharTemplates m -> encode(m, wrapped);
-      case ServerCharCreateFail m -> encode(m, wrapped);
+      case ServerCharCreateFail m -> MessageCodec.encode(m, wrapped);
       case ServerCharCreateOk m -> encode(m, wrapped);
-      case ServerCharDeleteFail m -> encode(m, wrapped);
-      case ServerCharDeleteOk m -> encode(m, wrapped);
-      default -> throw new IllegalArgumentException("Cannot encode message");
+      case ServerCharDeleteFail m -> MessageCodec.encode(m, wrapped);
+      case ServerCharDeleteOk m -> MessageCodec.encode(m, wrapped);
     }
     return wrapped.position();
   }
@@ -37,53 +48,17 @@ public class GameCodec implements IGameCodec {
   public Object decode(byte[] buffer, int offset, int length) {
     var wrapped = ByteBuffer.wrap(buffer, offset, length - offset).order(ByteOrder.LITTLE_ENDIAN);
     var id = wrapped.get() & 0xff;
+    var message = MessageCodec.decode(id, wrapped);
+    if (message != null) {
+      return message;
+    }
     return switch (id) {
-      case 0x0c -> decodeCharCreate(wrapped);
-      case 0x0d -> decodeCharDelete(wrapped);
-      case 0x0e -> decodeProtocolVersion(wrapped);
-      case 0x13 -> new ClientNewCharacter();
       case 0x2b -> decodeAuthLogin(wrapped);
-      case 0xd0 -> decodeExtended(wrapped);
-      case 0x7b -> decodeCharRestore(wrapped);
       default -> throw new IllegalArgumentException(
           "Cannot decode message with id=%h".formatted(id));
     };
   }
 
-  /**
-   * Decode the extended operation ID.
-   *
-   * @param buffer Buffer to read from.
-   * @return Decoded message.
-   */
-  private Object decodeExtended(ByteBuffer buffer) {
-    var id = buffer.getShort() & 0xffff;
-    return switch (id) {
-      case 0x36 -> new ClientRequestGotoLobby();
-      default -> throw new IllegalArgumentException(
-          "Cannot decode message with extended id=%h".formatted(id));
-    };
-  }
-
-  /**
-   * Read a string in the format compatible with the game protocol.
-   *
-   * @param buffer Buffer to read from.
-   * @return Resulting string.
-   */
-  private String getString(ByteBuffer buffer) {
-    var start = buffer.position();
-    while (true) {
-      var ch = buffer.getShort();
-      if (ch == 0) {
-        break;
-      }
-    }
-    var end = buffer.position() - 2;
-    return new String(
-        buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_16LE);
-  }
-
   /**
    * Write a string in the format compatible with the game protocol.
    *
@@ -105,10 +80,6 @@ public class GameCodec implements IGameCodec {
         .putInt(0);
   }
 
-  private void encode(ServerAuthLoginFail message, ByteBuffer buffer) {
-    buffer.put((byte) 0x0a).putInt(message.reason().code);
-  }
-
   private void encode(ServerCharSelectInfo message, ByteBuffer buffer) {
     var now = LocalDateTime.now();
     var active =
@@ -172,8 +143,28 @@ public class GameCodec implements IGameCodec {
   }
 
   private void encode(ServerCharTemplates message, ByteBuffer buffer) {
-    buffer.put((byte) 0x0d).putInt(message.templates().size());
-    for (var template : message.templates()) {
+    // Templates only change on restart, so the same list is sent every time
+    var encoded = encodedTemplates;
+    if (encoded == null || encoded.templates() != message.templates()) {
+      var body =
+          ByteBuffer.allocate(1 + 4 + message.templates().size() * TEMPLATE_SIZE)
+              .order(ByteOrder.LITTLE_ENDIAN);
+      encodeTemplates(message.templates(), body);
+      encoded = new EncodedTemplates(message.templates(), body.array());
+      encodedTemplates = encoded;
+    }
+    buffer.put(encoded.body());
+  }
+
+  /**
+   * Encode the body of the character templates message.
+   *
+   * @param templates Templates.
+   * @param buffer Buffer to write to.
+   */
+  private static void encodeTemplates(List<CharacterTemplate> templates, ByteBuffer buffer) {
+    buffer.put((byte) 0x0d).putInt(templates.size());
+    for (var template : templates) {
       buffer
           .putInt(template.race().code)
           .putInt(template.clazz())
@@ -204,30 +195,13 @@ public class GameCodec implements IGameCodec {
     }
   }
 
-  private void encode(ServerCharCreateFail message, ByteBuffer buffer) {
-    buffer.put((byte) 0x10).putInt(message.reason().code);
-  }
-
   @SuppressWarnings("unused")
   private void encode(ServerCharCreateOk message, ByteBuffer buffer) {
     buffer.put((byte) 0x0f).putInt(1);
   }
 
-  private void encode(ServerCharDeleteFail message, ByteBuffer buffer) {
-    buffer.put((byte) 0x1e).putInt(message.reason().code);
-  }
-
-  @SuppressWarnings("unused")
-  private void encode(ServerCharDeleteOk message, ByteBuffer buffer) {
-    buffer.put((byte) 0x1d);
-  }
-
-  private ClientProtocolVersion decodeProtocolVersion(ByteBuffer buffer) {
-    return new ClientProtocolVersion(buffer.getInt());
-  }
-
   private ClientAuthLogin decodeAuthLogin(ByteBuffer buffer) {
-    var account = getString(buffer);
+    var account = MessageCodec.getString(buffer);
     var play = (long) buffer.getInt();
     play <<= 32;
     play |= buffer.getInt() & 0xFFFFFFFFL;
@@ -235,25 +209,11 @@ public class GameCodec implements IGameCodec {
     return new ClientAuthLogin(account, auth, play);
   }
 
-  private ClientCharCreate decodeCharCreate(ByteBuffer buffer) {
-    // Key parameters
-    var name = getString(buffer);
-    var race = CharacterRace.valueOf(buffer.getInt());
-    var gender = CharacterGender.valueOf(buffer.getInt());
-    var clazz = buffer.getInt();
-    // Skip INT/STR/CON/MEN/DEX/WIT
-    buffer.position(buffer.position() + 24);
-    // Appearance
-    var appearance = new byte[APPEARANCE_SIZE];
-    buffer.get(appearance);
-    return new ClientCharCreate(name, race, gender, clazz, appearance);
-  }
-
-  private ClientCharDelete decodeCharDelete(ByteBuffer buffer) {
-    return new ClientCharDelete(buffer.getInt());
-  }
-
-  private ClientCharRestore decodeCharRestore(ByteBuffer buffer) {
-    return new ClientCharRestore(buffer.getInt());
-  }
+  /**
+   * Character templates message that was encoded already.
+   *
+   * @param templates Templates, compared by identity.
+   * @param body Encoded message.
+   */
+  private record EncodedTemplates(List<CharacterTemplate> templates, byte[] body) {}
 }
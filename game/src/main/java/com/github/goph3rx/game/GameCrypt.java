@@ -1,9 +1,20 @@
 package com.github.goph3rx.game;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.util.HexFormat;
 
-/** Traffic encryption. */
+/**
+ * Traffic encryption. Data is processed eight bytes at a time, with the remainder handled one byte
+ * at a time.
+ */
 public class GameCrypt implements IGameCrypt {
+  /** Access to byte arrays as little-endian longs. */
+  private static final VarHandle LONG =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  /** Multiplier for repeating a byte in every position of a long. */
+  private static final long BROADCAST = 0x0101010101010101L;
   /** Offset for updating the key. */
   private static final int KEY_ROTATE_OFFSET = 8;
   /** First part of the crypt key. */
@@ -28,11 +39,25 @@ public class GameCrypt implements IGameCrypt {
 
   @Override
   public void encrypt(byte[] buffer, int offset, int length) {
-    // Encrypt
-    var prev = (byte) 0;
-    for (var i = offset; i < offset + length; i++) {
-      prev = (byte) (prev ^ buffer[i] ^ encryptKey[(i - offset) & (encryptKey.length - 1)]);
-      buffer[i] = prev;
+    // Encrypt whole words, every byte is the running XOR of the data and the key
+    var keyLow = (long) LONG.get(encryptKey, 0);
+    var keyHigh = (long) LONG.get(encryptKey, 8);
+    var prev = 0L;
+    var i = 0;
+    for (; i + 8 <= length; i += 8) {
+      var word = (long) LONG.get(buffer, offset + i) ^ ((i & 8) == 0 ? keyLow : keyHigh);
+      word ^= word << 8;
+      word ^= word << 16;
+      word ^= word << 32;
+      word ^= prev * BROADCAST;
+      LONG.set(buffer, offset + i, word);
+      prev = word >>> 56;
+    }
+
+    // Encrypt the remainder
+    for (; i < length; i++) {
+      prev = (prev ^ buffer[offset + i] ^ encryptKey[i & (encryptKey.length - 1)]) & 0xFF;
+      buffer[offset + i] = (byte) prev;
     }
 
     // Update the key
@@ -41,11 +66,22 @@ public class GameCrypt implements IGameCrypt {
 
   @Override
   public void decrypt(byte[] buffer, int offset, int length) {
-    // Decrypt
-    var prev = (byte) 0;
-    for (var i = offset; i < offset + length; i++) {
-      var temp = buffer[i];
-      buffer[i] = (byte) (prev ^ temp ^ decryptKey[(i - offset) & (decryptKey.length - 1)]);
+    // Decrypt whole words, every byte only depends on itself and the previous one
+    var keyLow = (long) LONG.get(decryptKey, 0);
+    var keyHigh = (long) LONG.get(decryptKey, 8);
+    var prev = 0L;
+    var i = 0;
+    for (; i + 8 <= length; i += 8) {
+      var word = (long) LONG.get(buffer, offset + i);
+      var shifted = (word << 8) | prev;
+      LONG.set(buffer, offset + i, word ^ shifted ^ ((i & 8) == 0 ? keyLow : keyHigh));
+      prev = word >>> 56;
+    }
+
+    // Decrypt the remainder
+    for (; i < length; i++) {
+      var temp = buffer[offset + i] & 0xFF;
+      buffer[offset + i] = (byte) (prev ^ temp ^ decryptKey[i & (decryptKey.length - 1)]);
       prev = temp;
     }
 
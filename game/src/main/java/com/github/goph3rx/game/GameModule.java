@@ -0,0 +1,13 @@
+package com.github.goph3rx.game;
+
+import dagger.Binds;
+import dagger.Module;
+import javax.inject.Singleton;
+
+/** Module that binds all game services. */
+@Module
+public interface GameModule {
+  @Binds
+  @Singleton
+  IGameObjectIdService bindObjectIdService(GameObjectIdService impl);
+}
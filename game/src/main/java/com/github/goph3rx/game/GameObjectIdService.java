@@ -1,45 +1,88 @@
 package com.github.goph3rx.game;
 
-import java.util.HashMap;
+import com.github.goph3rx.metrics.Metrics;
 import java.util.Optional;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Service for working with object identifiers. */
+/**
+ * Service for working with object identifiers. Object identifiers index straight into a table of
+ * internal identifiers, which is split into pages that are allocated on first use. Released object
+ * identifiers are handed out again once they have been in quarantine for a while, so that clients
+ * are unlikely to confuse a new object with the one that held the identifier before.
+ */
 public class GameObjectIdService implements IGameObjectIdService {
   /** Logger for this class. */
   private static final Logger logger = LoggerFactory.getLogger(GameObjectIdService.class);
+  /** Number of object identifiers in a single page of the table. */
+  private static final int PAGE_SIZE = 4096;
+  /** How long released object identifiers are kept out of use by default. */
+  private static final int DEFAULT_QUARANTINE_SECONDS = 60;
+  /** Largest object identifier that is handed out by default. */
+  private static final int DEFAULT_MAXIMUM_OBJECT_ID = 1 << 24;
 
+  /** How long released object identifiers are kept out of use in nanoseconds. */
+  private final long quarantineNanos;
+  /** Largest object identifier that is handed out. */
+  private final int maximumObjectId;
+  /** Pages of the table for translating object identifiers to internal identifiers. */
+  private final AtomicReferenceArray<AtomicReferenceArray<String>> pages;
+  /** Map for translating internal identifiers to object identifiers. */
+  private final ConcurrentHashMap<String, Integer> idToObjectId = new ConcurrentHashMap<>();
   /**
-   * Next object identifier to be returned. We start with one as zero is used to indicate the
-   * absence of an object.
+   * Next object identifier that was never handed out. We start with one as zero is used to indicate
+   * the absence of an object.
    */
-  private int nextObjectId = 1;
-  /** Map for translating internal identifiers to object identifiers. */
-  private final HashMap<String, Integer> idToObjectId = new HashMap<>();
-  /** Map for translating object identifiers to internal identifiers. */
-  private final HashMap<Integer, String> objectIdToId = new HashMap<>();
-  /** Lock for synchronizing access. */
-  private final ReentrantLock lock = new ReentrantLock();
+  private final AtomicInteger nextObjectId = new AtomicInteger(1);
+  /** Released object identifiers in order of release. */
+  private final ConcurrentLinkedQueue<Released> released = new ConcurrentLinkedQueue<>();
+  /** Number of released object identifiers that were not handed out again yet. */
+  private final AtomicInteger releasedCount = new AtomicInteger();
+
+  /** Create a new service with the default quarantine and maximum. */
+  @Inject
+  public GameObjectIdService() {
+    this(TimeUnit.SECONDS.toNanos(DEFAULT_QUARANTINE_SECONDS), DEFAULT_MAXIMUM_OBJECT_ID);
+  }
+
+  /**
+   * Create a new service.
+   *
+   * @param quarantineNanos How long released object identifiers are kept out of use.
+   * @param maximumObjectId Largest object identifier that is handed out.
+   */
+  public GameObjectIdService(long quarantineNanos, int maximumObjectId) {
+    this.quarantineNanos = quarantineNanos;
+    this.maximumObjectId = maximumObjectId;
+    this.pages = new AtomicReferenceArray<>(maximumObjectId / PAGE_SIZE + 1);
+
+    // Occupancy
+    var help = "Object identifiers by state";
+    Metrics.gauge("game_object_ids", help, idToObjectId::size, "state", "used");
+    Metrics.gauge("game_object_ids", help, releasedCount::get, "state", "released");
+    Metrics.gauge(
+        "game_object_ids_highest",
+        "Highest object identifier handed out",
+        () -> nextObjectId.get() - 1);
+  }
 
   @Override
   public int generate(String id) {
     logger.debug("Generating object identifier id='{}'", id);
-    lock.lock();
+    var existing = idToObjectId.get(id);
     int objectId;
-    try {
-      if (idToObjectId.containsKey(id)) {
-        // Object identifier was allocated already
-        objectId = idToObjectId.get(id);
-      } else {
-        // Create a new object identifier
-        objectIdToId.put(nextObjectId, id);
-        idToObjectId.put(id, nextObjectId);
-        objectId = nextObjectId++;
-      }
-    } finally {
-      lock.unlock();
+    if (existing != null) {
+      // Object identifier was allocated already
+      objectId = existing;
+    } else {
+      // Create a new object identifier
+      objectId = idToObjectId.computeIfAbsent(id, this::allocate);
     }
     logger.debug("Object identifier is {}", objectId);
     return objectId;
@@ -48,13 +91,81 @@ public class GameObjectIdService implements IGameObjectIdService {
   @Override
   public Optional<String> find(int objectId) {
     logger.debug("Looking for object objectId='{}'", objectId);
-    lock.lock();
-    try {
-      var result = Optional.ofNullable(objectIdToId.get(objectId));
-      logger.debug("Result is {}", result);
-      return result;
-    } finally {
-      lock.unlock();
+    Optional<String> result = Optional.empty();
+    if (objectId > 0 && objectId <= maximumObjectId) {
+      var page = pages.get(objectId / PAGE_SIZE);
+      if (page != null) {
+        result = Optional.ofNullable(page.get(objectId % PAGE_SIZE));
+      }
+    }
+    logger.debug("Result is {}", result);
+    return result;
+  }
+
+  @Override
+  public void release(String id) {
+    logger.debug("Releasing object identifier id='{}'", id);
+    var objectId = idToObjectId.remove(id);
+    if (objectId == null) {
+      logger.debug("No object identifier");
+      return;
+    }
+    pages.get(objectId / PAGE_SIZE).set(objectId % PAGE_SIZE, null);
+    released.add(new Released(objectId, System.nanoTime()));
+    releasedCount.incrementAndGet();
+    logger.debug("Released {}", objectId);
+  }
+
+  /**
+   * Allocate an object identifier, preferring the ones that left quarantine.
+   *
+   * @param id Internal identifier.
+   * @return Object identifier.
+   */
+  private int allocate(String id) {
+    var objectId = reuse();
+    if (objectId == 0) {
+      objectId = nextObjectId.getAndUpdate(next -> next > maximumObjectId ? next : next + 1);
+      if (objectId > maximumObjectId) {
+        throw new IllegalStateException(
+            "Object identifiers exhausted maximum=%d".formatted(maximumObjectId));
+      }
     }
+
+    // Allocate the page on first use
+    var index = objectId / PAGE_SIZE;
+    var page = pages.get(index);
+    if (page == null) {
+      pages.compareAndSet(index, null, new AtomicReferenceArray<>(PAGE_SIZE));
+      page = pages.get(index);
+    }
+    page.set(objectId % PAGE_SIZE, id);
+    return objectId;
   }
+
+  /**
+   * Take the oldest released object identifier, if it has been in quarantine for long enough.
+   *
+   * @return Object identifier or zero if there is none.
+   */
+  private int reuse() {
+    while (true) {
+      var oldest = released.peek();
+      if (oldest == null || System.nanoTime() - oldest.releasedAt() < quarantineNanos) {
+        return 0;
+      }
+      if (released.remove(oldest)) {
+        releasedCount.decrementAndGet();
+        return oldest.objectId();
+      }
+    }
+  }
+
+  /**
+   * Object identifier that was released.
+   *
+   * @param objectId Object identifier.
+   * @param releasedAt Time of release in nanoseconds.
+   */
+  private record Released(int objectId, long releasedAt) {}
 }
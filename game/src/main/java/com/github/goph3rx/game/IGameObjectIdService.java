@@ -20,4 +20,12 @@ public interface IGameObjectIdService {
    * @return Internal identifier, if found.
    */
   Optional<String> find(int objectId);
+
+  /**
+   * Release the object identifier of this object, so that it can be handed out again later. Does
+   * nothing if the object has no object identifier.
+   *
+   * @param id Internal identifier.
+   */
+  void release(String id);
 }
@@ -7,4 +7,4 @@ package com.github.goph3rx.game.messages;
  * @param auth First part of the token.
  * @param play Second part of the token.
  */
-public record ClientAuthLogin(String account, long auth, long play) {}
+public record ClientAuthLogin(String account, long auth, long play) implements ClientMessage {}
@@ -2,6 +2,9 @@ package com.github.goph3rx.game.messages;
 
 import com.github.goph3rx.character.CharacterGender;
 import com.github.goph3rx.character.CharacterRace;
+import com.github.goph3rx.codec.Decode;
+import com.github.goph3rx.codec.Size;
+import com.github.goph3rx.codec.Skip;
 import java.util.Arrays;
 import java.util.HexFormat;
 import java.util.Objects;
@@ -13,10 +16,16 @@ import java.util.Objects;
  * @param race Race.
  * @param gender Gender.
  * @param clazz Base class.
- * @param appearance Appearance.
+ * @param appearance Appearance, preceded by the six base stats which the server ignores.
  */
+@Decode(opcode = 0x0c)
 public record ClientCharCreate(
-    String name, CharacterRace race, CharacterGender gender, int clazz, byte[] appearance) {
+    String name,
+    CharacterRace race,
+    CharacterGender gender,
+    int clazz,
+    @Skip(24) @Size(12) byte[] appearance)
+    implements ClientMessage {
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -1,8 +1,11 @@
 package com.github.goph3rx.game.messages;
 
+import com.github.goph3rx.codec.Decode;
+
 /**
  * Request to delete a character.
  *
  * @param index Index of the character.
  */
-public record ClientCharDelete(int index) {}
+@Decode(opcode = 0x0d)
+public record ClientCharDelete(int index) implements ClientMessage {}
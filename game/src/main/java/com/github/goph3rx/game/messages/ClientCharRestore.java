@@ -1,8 +1,11 @@
 package com.github.goph3rx.game.messages;
 
+import com.github.goph3rx.codec.Decode;
+
 /**
  * Request to restore the character queued for removal earlier.
  *
  * @param index Index of the character.
  */
-public record ClientCharRestore(int index) {}
+@Decode(opcode = 0x7b)
+public record ClientCharRestore(int index) implements ClientMessage {}
@@ -0,0 +1,11 @@
+package com.github.goph3rx.game.messages;
+
+/** Message sent by the client to the server. */
+public sealed interface ClientMessage
+    permits ClientAuthLogin,
+        ClientCharCreate,
+        ClientCharDelete,
+        ClientCharRestore,
+        ClientNewCharacter,
+        ClientProtocolVersion,
+        ClientRequestGotoLobby {}
@@ -1,4 +1,7 @@
 package com.github.goph3rx.game.messages;
 
+import com.github.goph3rx.codec.Decode;
+
 /** Request to start character creation. */
-public record ClientNewCharacter() {}
+@Decode(opcode = 0x13)
+public record ClientNewCharacter() implements ClientMessage {}
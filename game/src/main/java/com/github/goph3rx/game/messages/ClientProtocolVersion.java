@@ -1,8 +1,11 @@
 package com.github.goph3rx.game.messages;
 
+import com.github.goph3rx.codec.Decode;
+
 /**
  * Request to choose the protocol for server communication.
  *
  * @param version Version supported by the client.
  */
-public record ClientProtocolVersion(int version) {}
+@Decode(opcode = 0x0e)
+public record ClientProtocolVersion(int version) implements ClientMessage {}
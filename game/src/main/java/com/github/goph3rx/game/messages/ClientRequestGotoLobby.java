@@ -1,4 +1,7 @@
 package com.github.goph3rx.game.messages;
 
+import com.github.goph3rx.codec.Decode;
+
 /** Request to display the character list. */
-public record ClientRequestGotoLobby() {}
+@Decode(opcode = 0xd0, extended = 0x36)
+public record ClientRequestGotoLobby() implements ClientMessage {}
@@ -1,8 +1,11 @@
 package com.github.goph3rx.game.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /**
  * Response to indicate a failed login.
  *
  * @param reason Reason for the failure.
  */
-public record ServerAuthLoginFail(AuthLoginFailReason reason) {}
+@Encode(opcode = 0x0a)
+public record ServerAuthLoginFail(AuthLoginFailReason reason) implements ServerMessage {}
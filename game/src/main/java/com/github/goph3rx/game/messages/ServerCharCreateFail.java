@@ -1,8 +1,11 @@
 package com.github.goph3rx.game.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /**
  * Response to indicate a failure during character creation.
  *
  * @param reason Reason for the failure.
  */
-public record ServerCharCreateFail(CharCreateFailReason reason) {}
+@Encode(opcode = 0x10)
+public record ServerCharCreateFail(CharCreateFailReason reason) implements ServerMessage {}
@@ -1,4 +1,4 @@
 package com.github.goph3rx.game.messages;
 
 /** Response to indicate that a new character was created successfully. */
-public record ServerCharCreateOk() {}
+public record ServerCharCreateOk() implements ServerMessage {}
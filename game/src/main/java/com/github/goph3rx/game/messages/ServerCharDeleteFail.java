@@ -1,8 +1,11 @@
 package com.github.goph3rx.game.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /**
  * Response to indicate that the requested character could not be deleted.
  *
  * @param reason Reason for the failure.
  */
-public record ServerCharDeleteFail(CharDeleteFailReason reason) {}
+@Encode(opcode = 0x1e)
+public record ServerCharDeleteFail(CharDeleteFailReason reason) implements ServerMessage {}
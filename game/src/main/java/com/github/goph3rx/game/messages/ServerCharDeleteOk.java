@@ -1,4 +1,7 @@
 package com.github.goph3rx.game.messages;
 
+import com.github.goph3rx.codec.Encode;
+
 /** Response to indicate that the requested character was deleted successfully. */
-public record ServerCharDeleteOk() {}
+@Encode(opcode = 0x1d)
+public record ServerCharDeleteOk() implements ServerMessage {}
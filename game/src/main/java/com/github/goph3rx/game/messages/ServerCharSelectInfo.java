@@ -7,4 +7,4 @@ import java.util.List;
  *
  * @param characters List of characters.
  */
-public record ServerCharSelectInfo(List<CharacterInfo> characters) {}
+public record ServerCharSelectInfo(List<CharacterInfo> characters) implements ServerMessage {}
@@ -8,4 +8,4 @@ import java.util.List;
  *
  * @param templates Templates.
  */
-public record ServerCharTemplates(List<CharacterTemplate> templates) {}
+public record ServerCharTemplates(List<CharacterTemplate> templates) implements ServerMessage {}
@@ -8,7 +8,7 @@ import java.util.HexFormat;
  *
  * @param cryptKey Part of the encryption key for the traffic.
  */
-public record ServerKeyPacket(byte[] cryptKey) {
+public record ServerKeyPacket(byte[] cryptKey) implements ServerMessage {
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,12 @@
+package com.github.goph3rx.game.messages;
+
+/** Message sent by the server to the client. */
+public sealed interface ServerMessage
+    permits ServerAuthLoginFail,
+        ServerCharCreateFail,
+        ServerCharCreateOk,
+        ServerCharDeleteFail,
+        ServerCharDeleteOk,
+        ServerCharSelectInfo,
+        ServerCharTemplates,
+        ServerKeyPacket {}
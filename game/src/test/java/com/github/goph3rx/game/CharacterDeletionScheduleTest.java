@@ -0,0 +1,69 @@
+package com.github.goph3rx.game;
+
+import static org.junit.Assert.assertEquals;
+
+import com.github.goph3rx.character.CharacterDeletionSchedule;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.Test;
+
+public class CharacterDeletionScheduleTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+  private final CharacterDeletionSchedule schedule = new CharacterDeletionSchedule();
+
+  @Test
+  public void dueInOrder() {
+    // Given
+    schedule.add("char:2", NOW.minusMinutes(1));
+    schedule.add("char:1", NOW.minusMinutes(2));
+    schedule.add("char:3", NOW.plusMinutes(1));
+
+    // When
+    var result = schedule.due(NOW, 10);
+
+    // Then
+    assertEquals(List.of("char:1", "char:2"), result);
+    assertEquals(3, schedule.size());
+  }
+
+  @Test
+  public void dueLimit() {
+    // Given
+    schedule.add("char:1", NOW.minusMinutes(2));
+    schedule.add("char:2", NOW.minusMinutes(1));
+
+    // When
+    var result = schedule.due(NOW, 1);
+
+    // Then
+    assertEquals(List.of("char:1"), result);
+  }
+
+  @Test
+  public void addReplaces() {
+    // Given
+    schedule.add("char:1", NOW.minusMinutes(1));
+
+    // When
+    schedule.add("char:1", NOW.plusMinutes(1));
+
+    // Then
+    assertEquals(List.of(), schedule.due(NOW, 10));
+    assertEquals(1, schedule.size());
+  }
+
+  @Test
+  public void remove() {
+    // Given
+    schedule.add("char:1", NOW.minusMinutes(1));
+
+    // When
+    schedule.remove("char:1");
+    schedule.remove("char:2");
+
+    // Then
+    assertEquals(List.of(), schedule.due(NOW, 10));
+    assertEquals(0, schedule.size());
+  }
+}
@@ -9,6 +9,7 @@ import com.github.goph3rx.character.Character;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
@@ -35,6 +36,7 @@ public class CharacterServiceTest extends MockitoTest {
           Optional.empty());
 
   @Mock private ICharacterDatabase database;
+  @Mock private IGameObjectIdService objectIds;
   private CharacterService service;
 
   @Captor private ArgumentCaptor<Character> character;
@@ -45,6 +47,7 @@ public class CharacterServiceTest extends MockitoTest {
     service = new CharacterService(CharacterModule.provideNamePattern());
     service.deleteDays = CharacterModule.provideDeleteDays();
     service.database = database;
+    service.objectIds = objectIds;
     service.setTemplates(TEMPLATES);
   }
 
@@ -166,6 +169,7 @@ public class CharacterServiceTest extends MockitoTest {
     // Then
     verify(database).delete(CHARACTER.id());
     verify(database, never()).setDeleteOn(eq(CHARACTER.id()), any());
+    verify(objectIds).release(CHARACTER.id());
   }
 
   @Test
@@ -180,4 +184,189 @@ public class CharacterServiceTest extends MockitoTest {
     verify(database).setDeleteOn(eq(CHARACTER.id()), deleteOn.capture());
     assertTrue(deleteOn.getValue().isEmpty());
   }
+
+  @Test
+  public void listLoaded() {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    service.load("hello");
+
+    // When
+    var result = service.list("hello");
+
+    // Then
+    assertEquals(List.of(CHARACTER), result);
+    verify(database, times(1)).list("hello");
+  }
+
+  @Test
+  public void listEvicted() {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    service.load("hello");
+    service.evict("hello");
+
+    // When
+    service.list("hello");
+
+    // Then
+    verify(database, times(2)).list("hello");
+  }
+
+  @Test
+  public void createLoaded()
+      throws CharacterDuplicateException, CharacterCreateException, CharacterLimitException,
+          CharacterNameException {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    service.load("hello");
+
+    // When
+    service.create("hello", "Other", CharacterRace.HUMAN, CharacterGender.MALE, 0, new byte[0]);
+
+    // Then
+    var result = service.list("hello");
+    assertEquals(2, result.size());
+    assertEquals("Other", result.get(1).name());
+    verify(database, times(1)).list("hello");
+  }
+
+  @Test
+  public void removeLaterLoaded() {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    service.load("hello");
+
+    // When
+    service.remove("hello", 0);
+
+    // Then
+    assertTrue(service.list("hello").get(0).deleteOn().isPresent());
+    verify(database, times(1)).list("hello");
+  }
+
+  @Test
+  public void removeNowLoaded() {
+    // Given
+    service.deleteDays = 0;
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    service.load("hello");
+
+    // When
+    service.remove("hello", 0);
+
+    // Then
+    assertTrue(service.list("hello").isEmpty());
+  }
+
+  @Test
+  public void restoreLoaded() {
+    // Given
+    when(database.list("hello"))
+        .thenReturn(List.of(CHARACTER.withDeleteOn(Optional.of(LocalDateTime.now()))));
+    service.load("hello");
+
+    // When
+    service.restore("hello", 0);
+
+    // Then
+    assertTrue(service.list("hello").get(0).deleteOn().isEmpty());
+    verify(database, times(1)).list("hello");
+  }
+
+  @Test
+  public void deleteDueNothingDue() {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    service.remove("hello", 0);
+
+    // When
+    service.deleteDue(LocalDateTime.now());
+
+    // Then
+    verify(database, never()).deleteDue(any());
+    verify(objectIds, never()).release(any());
+  }
+
+  @Test
+  public void deleteDueSuccess() {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    when(database.deleteDue(List.of(CHARACTER.id()))).thenReturn(List.of(CHARACTER.id()));
+    service.load("hello");
+    service.remove("hello", 0);
+
+    // When
+    service.deleteDue(LocalDateTime.now().plusDays(service.deleteDays + 1));
+
+    // Then
+    verify(database).deleteDue(List.of(CHARACTER.id()));
+    verify(objectIds).release(CHARACTER.id());
+    assertTrue(service.list("hello").isEmpty());
+  }
+
+  @Test
+  public void deleteDuePostponed() {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    when(database.deleteDue(List.of(CHARACTER.id()))).thenReturn(List.of());
+    service.remove("hello", 0);
+    var later = LocalDateTime.now().plusDays(service.deleteDays + 1);
+    when(database.listDeleteOn(List.of(CHARACTER.id())))
+        .thenReturn(Map.of(CHARACTER.id(), later.minusMinutes(1)));
+
+    // When
+    service.deleteDue(later);
+    service.deleteDue(later);
+
+    // Then
+    verify(database, times(2)).deleteDue(List.of(CHARACTER.id()));
+    verify(objectIds, never()).release(any());
+  }
+
+  @Test
+  public void deleteDueRestored() {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    service.remove("hello", 0);
+    service.restore("hello", 0);
+
+    // When
+    service.deleteDue(LocalDateTime.now().plusDays(service.deleteDays + 1));
+
+    // Then
+    verify(database, never()).deleteDue(any());
+  }
+
+  @Test
+  public void deleteDueNoLongerQueued() {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    when(database.deleteDue(List.of(CHARACTER.id()))).thenReturn(List.of());
+    when(database.listDeleteOn(List.of(CHARACTER.id()))).thenReturn(Map.of());
+    service.remove("hello", 0);
+    var later = LocalDateTime.now().plusDays(service.deleteDays + 1);
+
+    // When
+    service.deleteDue(later);
+    service.deleteDue(later);
+
+    // Then
+    verify(database, times(1)).deleteDue(any());
+  }
+
+  @Test
+  public void deleteDueRemovedNow() {
+    // Given
+    when(database.list("hello")).thenReturn(List.of(CHARACTER));
+    service.remove("hello", 0);
+    service.deleteDays = 0;
+    service.remove("hello", 0);
+
+    // When
+    service.deleteDue(LocalDateTime.now().plusDays(CharacterModule.provideDeleteDays() + 1));
+
+    // Then
+    verify(database, never()).deleteDue(any());
+  }
 }
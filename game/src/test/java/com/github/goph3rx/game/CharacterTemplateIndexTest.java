@@ -0,0 +1,43 @@
+package com.github.goph3rx.game;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.github.goph3rx.character.CharacterGender;
+import com.github.goph3rx.character.CharacterRace;
+import com.github.goph3rx.character.CharacterTemplate;
+import com.github.goph3rx.character.CharacterTemplateIndex;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+
+public class CharacterTemplateIndexTest {
+  private final CharacterTemplateIndex index =
+      new CharacterTemplateIndex(
+          List.of(
+              new CharacterTemplate(CharacterRace.HUMAN, 0, Optional.empty()),
+              new CharacterTemplate(
+                  CharacterRace.KAMAEL, 124, Optional.of(CharacterGender.FEMALE))));
+
+  @Test
+  public void containsAnyGender() {
+    // When/Then
+    assertTrue(index.contains(CharacterRace.HUMAN, CharacterGender.MALE, 0));
+    assertTrue(index.contains(CharacterRace.HUMAN, CharacterGender.FEMALE, 0));
+  }
+
+  @Test
+  public void containsSpecificGender() {
+    // When/Then
+    assertTrue(index.contains(CharacterRace.KAMAEL, CharacterGender.FEMALE, 124));
+    assertFalse(index.contains(CharacterRace.KAMAEL, CharacterGender.MALE, 124));
+  }
+
+  @Test
+  public void containsMissing() {
+    // When/Then
+    assertFalse(index.contains(CharacterRace.HUMAN, CharacterGender.MALE, 10));
+    assertFalse(index.contains(CharacterRace.ELF, CharacterGender.MALE, 0));
+    assertFalse(index.contains(CharacterRace.HUMAN, CharacterGender.MALE, -1));
+  }
+}
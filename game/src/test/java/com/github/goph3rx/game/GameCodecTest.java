@@ -66,6 +66,23 @@ public class GameCodecTest {
         HexFormat.of().formatHex(buffer, 0, length));
   }
 
+  @Test
+  public void encodeCharTemplatesChanged() {
+    // Given
+    codec.encode(
+        new ServerCharTemplates(
+            List.of(new CharacterTemplate(CharacterRace.HUMAN, 0, Optional.empty()))),
+        buffer,
+        0);
+    var message = new ServerCharTemplates(List.of());
+
+    // When
+    var length = codec.encode(message, buffer, 0);
+
+    // Then
+    assertEquals("0d00000000", HexFormat.of().formatHex(buffer, 0, length));
+  }
+
   @Test
   public void encodeCharCreateFail() {
     // Given
@@ -150,6 +167,30 @@ public class GameCodecTest {
     assertEquals(new ClientAuthLogin("test", 6653394080704536303L, 8783627269425857127L), message);
   }
 
+  @Test
+  public void decodeAuthLoginUnicode() {
+    // Given
+    var buffer =
+        HexFormat.of()
+            .parseHex(
+                "2b42043504410442040000000000000000000000000000000000000000000000000000000000");
+
+    // When
+    var message = codec.decode(buffer, 0, buffer.length);
+
+    // Then
+    assertEquals(new ClientAuthLogin("\u0442\u0435\u0441\u0442", 0, 0), message);
+  }
+
+  @Test(expected = BufferUnderflowException.class)
+  public void decodeAuthLoginUnterminated() {
+    // Given
+    var buffer = HexFormat.of().parseHex("2b740065007300");
+
+    // When/Then
+    codec.decode(buffer, 0, buffer.length);
+  }
+
   @Test
   public void decodeNewCharacter() {
     // Given
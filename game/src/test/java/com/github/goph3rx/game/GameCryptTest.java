@@ -1,8 +1,10 @@
 package com.github.goph3rx.game;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.util.HexFormat;
+import java.util.Random;
 import org.junit.Test;
 
 public class GameCryptTest {
@@ -36,4 +38,88 @@ public class GameCryptTest {
         "2b74006500730074000000ca10c133d05b742a57e6c3440a40c7d2010000000000000000000000",
         HexFormat.of().formatHex(buffer));
   }
+
+  @Test
+  public void encryptMatchesBytewise() {
+    // Given
+    var random = new Random(42);
+    var key = new byte[8];
+    random.nextBytes(key);
+    var cipher = new GameCrypt(key);
+    var expectedKey = initKey(key);
+
+    for (var length = 0; length < 100; length++) {
+      var offset = random.nextInt(8);
+      var buffer = new byte[offset + length + 8];
+      random.nextBytes(buffer);
+      var expected = buffer.clone();
+      encryptBytewise(expected, offset, length, expectedKey);
+
+      // When
+      cipher.encrypt(buffer, offset, length);
+
+      // Then
+      assertArrayEquals(expected, buffer);
+    }
+  }
+
+  @Test
+  public void decryptMatchesBytewise() {
+    // Given
+    var random = new Random(42);
+    var key = new byte[8];
+    random.nextBytes(key);
+    var cipher = new GameCrypt(key);
+    var expectedKey = initKey(key);
+
+    for (var length = 0; length < 100; length++) {
+      var offset = random.nextInt(8);
+      var buffer = new byte[offset + length + 8];
+      random.nextBytes(buffer);
+      var expected = buffer.clone();
+      decryptBytewise(expected, offset, length, expectedKey);
+
+      // When
+      cipher.decrypt(buffer, offset, length);
+
+      // Then
+      assertArrayEquals(expected, buffer);
+    }
+  }
+
+  private static byte[] initKey(byte[] cryptKey) {
+    var key = new byte[16];
+    System.arraycopy(cryptKey, 0, key, 0, cryptKey.length);
+    System.arraycopy(HexFormat.of().parseHex("c8279301a16c3197"), 0, key, cryptKey.length, 8);
+    return key;
+  }
+
+  private static void encryptBytewise(byte[] buffer, int offset, int length, byte[] key) {
+    var prev = (byte) 0;
+    for (var i = offset; i < offset + length; i++) {
+      prev = (byte) (prev ^ buffer[i] ^ key[(i - offset) & 15]);
+      buffer[i] = prev;
+    }
+    rotateKey(key, length);
+  }
+
+  private static void decryptBytewise(byte[] buffer, int offset, int length, byte[] key) {
+    var prev = (byte) 0;
+    for (var i = offset; i < offset + length; i++) {
+      var temp = buffer[i];
+      buffer[i] = (byte) (prev ^ temp ^ key[(i - offset) & 15]);
+      prev = temp;
+    }
+    rotateKey(key, length);
+  }
+
+  private static void rotateKey(byte[] key, int length) {
+    var block =
+        (key[8] & 0xFF) | (key[9] & 0xFF) << 8 | (key[10] & 0xFF) << 16 | (key[11] & 0xFF) << 24;
+    block += length;
+    key[8] = (byte) block;
+    key[9] = (byte) (block >> 8);
+    key[10] = (byte) (block >> 16);
+    key[11] = (byte) (block >> 24);
+  }
 }
@@ -57,4 +57,64 @@ public class GameObjectIdServiceTest {
     assertTrue(id.isPresent());
     assertEquals("char:123", id.get());
   }
+
+  @Test
+  public void findReleased() {
+    // Given
+    var objectId = service.generate("char:123");
+    service.release("char:123");
+
+    // When
+    var id = service.find(objectId);
+
+    // Then
+    assertTrue(id.isEmpty());
+  }
+
+  @Test
+  public void releaseQuarantined() {
+    // Given
+    service.generate("char:123");
+    service.release("char:123");
+
+    // When
+    var objectId = service.generate("char:456");
+
+    // Then
+    assertEquals(2, objectId);
+  }
+
+  @Test
+  public void releaseReused() {
+    // Given
+    service = new GameObjectIdService(0, 10);
+    service.generate("char:123");
+    service.release("char:123");
+
+    // When
+    var objectId = service.generate("char:456");
+
+    // Then
+    assertEquals(1, objectId);
+    assertEquals("char:456", service.find(1).orElseThrow());
+  }
+
+  @Test
+  public void releaseMissing() {
+    // When
+    service.release("char:123");
+
+    // Then
+    assertEquals(1, service.generate("char:456"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void generateExhausted() {
+    // Given
+    service = new GameObjectIdService(0, 1);
+    service.generate("char:123");
+
+    // When/Then
+    service.generate("char:456");
+  }
 }
@@ -0,0 +1,17 @@
+-- Migrate the characters created by Character.sql to the binary schema, used with
+-- character.schema=binary. Identifiers lose the "char:" prefix and are stored as UUIDs, appearance
+-- is stored as raw bytes instead of hex. Indexes on the changed columns are rebuilt automatically.
+\connect characters characters;
+
+BEGIN;
+ALTER TABLE characters
+    ALTER COLUMN id TYPE UUID USING substring(id FROM 6)::UUID,
+    ALTER COLUMN appearance TYPE BYTEA USING decode(appearance, 'hex');
+COMMIT;
+
+-- Migrate back to the text schema, used with character.schema=text.
+-- BEGIN;
+-- ALTER TABLE characters
+--     ALTER COLUMN id TYPE VARCHAR(41) USING 'char:' || id::TEXT,
+--     ALTER COLUMN appearance TYPE VARCHAR(24) USING encode(appearance, 'hex');
+-- COMMIT;